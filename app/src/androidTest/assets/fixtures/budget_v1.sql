@@ -0,0 +1,63 @@
+-- A ledger as the version 1 app stored it: REAL amounts and balances, free-form dates
+-- ("yyyy-MM-dd" and the older "dd-MM-yyyy"), local "yyyy-MM-dd HH:mm:ss" timestamps.
+-- Used by MigrationUpgradeTest, one statement per ";" at the end of a line.
+
+CREATE TABLE users (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    name TEXT NOT NULL,
+    email TEXT UNIQUE NOT NULL,
+    password TEXT NOT NULL,
+    balance REAL NOT NULL DEFAULT 0.0,
+    created_at TEXT NOT NULL
+);
+
+CREATE TABLE categories (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    name TEXT NOT NULL,
+    type TEXT NOT NULL CHECK (type IN ('income', 'expense')),
+    user_id INTEGER NOT NULL,
+    icon_name TEXT NOT NULL DEFAULT 'other',
+    created_at TEXT NOT NULL,
+    UNIQUE (name, user_id),
+    FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE transactions (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    amount REAL NOT NULL,
+    type TEXT NOT NULL CHECK (type IN ('income', 'expense')),
+    note TEXT,
+    date TEXT NOT NULL,
+    category_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    created_at TEXT NOT NULL,
+    FOREIGN KEY(category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO users (id, name, email, password, balance, created_at) VALUES
+    (1, 'Alice', 'alice@example.com', 'hash', 1234.56, '2024-01-02 09:30:00'),
+    (2, 'Bob', 'bob@example.com', 'hash', 0.3, '2024-02-10 18:00:00');
+
+INSERT INTO categories (id, name, type, user_id, icon_name, created_at) VALUES
+    (1, 'Salary', 'income', 1, 'salary', '2024-01-02 09:31:00'),
+    (2, 'Food', 'expense', 1, 'food', '2024-01-02 09:32:00'),
+    (3, 'Transport', 'expense', 2, 'transport', '2024-02-10 18:01:00');
+
+INSERT INTO transactions (id, amount, type, note, date, category_id, user_id, created_at) VALUES
+    (1, 2000.0, 'income', 'January pay', '2024-01-31', 1, 1, '2024-01-31 08:00:00'),
+    (2, 12.35, 'expense', 'Lunch', '05-03-2024', 2, 1, '2024-03-05 12:10:00'),
+    (3, 0.1, 'expense', NULL, '2024-03-05', 2, 1, '2024-03-05 19:00:00'),
+    (4, 2.5, 'expense', 'Bus ticket', '2024-02-11', 3, 2, '2024-02-11 07:45:00');
+
+-- 2500 more rows for Bob, several backfill batches (MigrationRunner.BATCH_SIZE)
+INSERT INTO transactions (amount, type, note, date, category_id, user_id, created_at)
+    WITH RECURSIVE n(i) AS (SELECT 0 UNION ALL SELECT i + 1 FROM n WHERE i < 2499)
+    SELECT 1.1, 'expense', 'Ticket ' || i, date('2024-01-01', '+' || (i % 60) || ' days'), 3, 2,
+           datetime('2024-01-01 12:00:00', '+' || (i % 60) || ' days')
+    FROM n;
+
+-- a deleted row: its id must not be reused after the rebuilds
+INSERT INTO transactions (id, amount, type, note, date, category_id, user_id, created_at) VALUES
+    (2600, 5.0, 'expense', 'Refunded', '2024-03-01', 3, 2, '2024-03-01 10:00:00');
+DELETE FROM transactions WHERE id = 2600;
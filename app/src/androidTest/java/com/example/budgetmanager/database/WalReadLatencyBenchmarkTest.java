@@ -0,0 +1,123 @@
+package com.example.budgetmanager.database;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Read latency while a bulk write is running, with and without WAL (see DatabaseHelper.onConfigure).
+ * The numbers are logged under the "WalBenchmark" tag (adb logcat -s WalBenchmark).
+ *
+ * Rollback journal: one connection, every read waits for the whole write transaction.
+ * WAL: the reads run on their own connections next to the writer.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WalReadLatencyBenchmarkTest {
+    private static final String TAG = "WalBenchmark";
+    private static final int SEED_ROWS = 10_000;
+    private static final int BULK_ROWS = 50_000;
+
+    // what one run measured
+    private static final class Latency {
+        long writeMillis;
+        long reads;
+        long maxReadMicros;
+        long totalReadMicros;
+
+        @Override
+        public String toString() {
+            return "write " + writeMillis + " ms, " + reads + " reads during it, max " +
+                    maxReadMicros / 1000.0 + " ms, avg " + (reads == 0 ? 0 : totalReadMicros / reads / 1000.0) + " ms";
+        }
+    }
+
+    @Test
+    public void readsDontWaitForTheBulkWriteInWalMode() throws Exception {
+        Latency rollbackJournal = measure(false);
+        Latency wal = measure(true);
+        Log.i(TAG, "rollback journal: " + rollbackJournal);
+        Log.i(TAG, "WAL:              " + wal);
+
+        // WAL: reads keep going during the write, none of them waits for its commit
+        assertTrue(wal.reads > 1);
+        assertTrue("max read " + wal.maxReadMicros + " us, write " + wal.writeMillis + " ms",
+                wal.maxReadMicros / 1000 < wal.writeMillis / 2);
+    }
+
+    private Latency measure(boolean writeAheadLogging) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        File file = new File(context.getCacheDir(), "wal-benchmark-" + writeAheadLogging + ".db");
+        SQLiteDatabase.deleteDatabase(file);
+
+        int flags = SQLiteDatabase.CREATE_IF_NECESSARY |
+                (writeAheadLogging ? SQLiteDatabase.ENABLE_WRITE_AHEAD_LOGGING : 0);
+        SQLiteDatabase db = SQLiteDatabase.openDatabase(file.getPath(), null, flags);
+        try {
+            db.execSQL("CREATE TABLE transactions (id INTEGER PRIMARY KEY, user_id INTEGER NOT NULL, " +
+                    "amount_cents INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX idx_transactions_user ON transactions (user_id)");
+            insertRows(db, SEED_ROWS);
+
+            Latency latency = new Latency();
+            CountDownLatch writing = new CountDownLatch(1);
+            AtomicLong writeMillis = new AtomicLong(-1);
+            Thread writer = new Thread(() -> {
+                long start = System.nanoTime();
+                db.beginTransactionNonExclusive();
+                try {
+                    writing.countDown();
+                    insertRows(db, BULK_ROWS);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                writeMillis.set((System.nanoTime() - start) / 1_000_000);
+            }, "bulk-writer");
+            writer.start();
+            writing.await();
+
+            // the dashboard kind of read: a sum over the rows of one user
+            while (writeMillis.get() < 0) {
+                long start = System.nanoTime();
+                DatabaseUtils.longForQuery(db, "SELECT SUM(amount_cents) FROM transactions WHERE user_id = 1", null);
+                long micros = (System.nanoTime() - start) / 1000;
+                latency.reads++;
+                latency.totalReadMicros += micros;
+                latency.maxReadMicros = Math.max(latency.maxReadMicros, micros);
+            }
+            writer.join();
+            latency.writeMillis = writeMillis.get();
+            return latency;
+        } finally {
+            db.close();
+            SQLiteDatabase.deleteDatabase(file);
+        }
+    }
+
+    private static void insertRows(SQLiteDatabase db, int rows) {
+        SQLiteStatement insert = db.compileStatement("INSERT INTO transactions (user_id, amount_cents) VALUES (?, ?)");
+        try {
+            for (int i = 0; i < rows; i++) {
+                insert.bindLong(1, i % 4 + 1);
+                insert.bindLong(2, 100 + i % 5000);
+                insert.executeInsert();
+            }
+        } finally {
+            insert.close();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.budgetmanager.database.dao;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.DatabaseHelper.IndexName;
+import com.example.budgetmanager.models.Money;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * EXPLAIN QUERY PLAN of the hot DAO queries against the app schema: each one must seek
+ * an index (SEARCH), never scan a whole table, and the history pages must come out of the
+ * (user_id, day) index already in order (no temporary b-tree for the ORDER BY), the filtered
+ * pages as well.
+ * The statements are the DAO constants / builders themselves, not copies.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+    // a full pass over a table or its alias, with or without an index (old and new plan wording)
+    private static final Pattern TABLE_SCAN = Pattern.compile(
+            "^SCAN (TABLE )?(transactions|categories|users|daily_totals|monthly_totals|t|c|u|d)\\b.*");
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void openDatabase() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // the plan must be the one of the latest schema
+        DatabaseExecutor.getInstance().awaitMigrations();
+        db = DatabaseHelper.getInstance(context).getReadableDatabase();
+    }
+
+    @Test
+    public void historyPagesSeekTheUserDayIndexInOrder() {
+        for (String sql : Arrays.asList(TransactionDao.SELECT_RECENT + "LIMIT ?", TransactionDao.SELECT_PAGE_AFTER,
+                TransactionDao.SELECT_PAGE_BEFORE, TransactionDao.SELECT_BETWEEN)) {
+            List<String> plan = explain(sql);
+            assertUsesIndex(plan, IndexName.TRANSACTIONS_USER_DAY);
+            assertNoTableScan(plan);
+            assertNoSort(plan);
+        }
+    }
+
+    @Test
+    public void totalsReadTheRollupPrimaryKey() {
+        for (String sql : Arrays.asList(TransactionDao.SUM_DAILY_TOTALS,
+                ChartDao.SELECT_CATEGORY_TOTALS, ChartDao.SELECT_DAILY_TOTALS)) {
+            List<String> plan = explain(sql);
+            assertUsesIndex(plan, "PRIMARY KEY");
+            assertNoTableScan(plan);
+        }
+    }
+
+    @Test
+    public void filteredQueriesUseTheIndexTheyForce() {
+        List<TransactionQuery> queries = Arrays.asList(
+                new TransactionQuery.Builder(1).dayRange(19000L, 19030L).build(),
+                new TransactionQuery.Builder(1).dayRange(19000L, 19030L).type(CategoryType.EXPENSE).build(),
+                new TransactionQuery.Builder(1).categories(Arrays.asList(3, 7)).build(),
+                new TransactionQuery.Builder(1).type(CategoryType.EXPENSE).build(),
+                new TransactionQuery.Builder(1).type(CategoryType.INCOME).amountRange(Money.ofCents(100), null).build(),
+                new TransactionQuery.Builder(1).noteContains("rent").build());
+
+        for (TransactionQuery query : queries) {
+            // keyset pages: in (day, id) order straight from the index, nothing sorted
+            List<String> args = new ArrayList<>();
+            List<String> plan = explain(TransactionDao.pageSql(query, null, 0, 50, args));
+            assertUsesIndex(plan, query.pageIndexName());
+            assertNoTableScan(plan);
+            assertNoSort(plan);
+
+            args.clear();
+            plan = explain(TransactionDao.pageSql(query, 19020L, 42, 50, args));
+            assertUsesIndex(plan, query.pageIndexName());
+            assertNoTableScan(plan);
+            assertNoSort(plan);
+
+            args.clear();
+            plan = explain(TransactionDao.aggregateSql(query, args));
+            assertUsesIndex(plan, query.aggregateIndexName());
+            assertNoTableScan(plan);
+        }
+    }
+
+    @Test
+    public void searchJoinsTheMatchesByPrimaryKey() {
+        List<String> plan = explain(TransactionDao.SEARCH);
+        assertTrue(plan.toString(), plan.toString().contains("VIRTUAL TABLE"));
+        assertNoTableScan(plan);
+    }
+
+    // the detail column of each plan row, every placeholder bound to "1"
+    private List<String> explain(String sql) {
+        String[] args = new String[sql.length() - sql.replace("?", "").length()];
+        Arrays.fill(args, "1");
+
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return plan;
+    }
+
+    private static void assertUsesIndex(List<String> plan, String index) {
+        for (String step : plan) {
+            if (step.startsWith("SEARCH") && step.contains(index)) {
+                return;
+            }
+        }
+        fail("no SEARCH using " + index + ": " + plan);
+    }
+
+    // no "USE TEMP B-TREE FOR ORDER BY" (or "FOR RIGHT PART OF ORDER BY", a partial sort)
+    private static void assertNoSort(List<String> plan) {
+        for (String step : plan) {
+            assertFalse(plan.toString(), step.contains("TEMP B-TREE FOR"));
+        }
+    }
+
+    private static void assertNoTableScan(List<String> plan) {
+        for (String step : plan) {
+            assertFalse(plan.toString(), TABLE_SCAN.matcher(step).matches());
+        }
+    }
+}
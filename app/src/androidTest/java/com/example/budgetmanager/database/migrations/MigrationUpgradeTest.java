@@ -0,0 +1,178 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Upgrade of a version 1 ledger (assets/fixtures/budget_v1.sql) through every migration step,
+ * the way MigrationRunner runs them after the open: the rows, amounts and balances must come out
+ * unchanged, in the latest schema (same columns as a fresh install).
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationUpgradeTest {
+    private static final String FIXTURE = "fixtures/budget_v1.sql";
+    // last step registered in MigrationRunner (DatabaseHelper.DATABASE_VERSION)
+    private static final int LATEST_VERSION = 9;
+    // 2024-03-05
+    private static final long MARCH_5_2024 = 19787;
+
+    private File file;
+    private SQLiteDatabase db;
+
+    @Before
+    public void openFixture() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        file = new File(context.getCacheDir(), "migration-upgrade.db");
+        SQLiteDatabase.deleteDatabase(file);
+
+        db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        db.setForeignKeyConstraintsEnabled(true);
+        for (String statement : readFixture().split(";\\s*\\n")) {
+            if (!statement.trim().isEmpty()) {
+                db.execSQL(statement);
+            }
+        }
+        // what DatabaseHelper.onUpgrade records for a version 1 database
+        MigrationRunner.recordVersion(db, 1);
+    }
+
+    @After
+    public void close() {
+        db.close();
+        SQLiteDatabase.deleteDatabase(file);
+    }
+
+    @Test
+    public void upgradeKeepsEveryRowAndAmount() throws ParseException {
+        MigrationRunner.runPending(db);
+
+        assertEquals(2, count("SELECT COUNT(*) FROM users"));
+        assertEquals(3, count("SELECT COUNT(*) FROM categories"));
+        assertEquals(2504, count("SELECT COUNT(*) FROM transactions"));
+
+        // REAL → cents
+        assertEquals(123456, count("SELECT balance_cents FROM users WHERE id = 1"));
+        assertEquals(30, count("SELECT balance_cents FROM users WHERE id = 2"));
+        assertEquals(1235, count("SELECT amount_cents FROM transactions WHERE id = 2"));
+        assertEquals(10, count("SELECT amount_cents FROM transactions WHERE id = 3"));
+
+        // both date formats land on the same day, the text is normalized
+        assertEquals(MARCH_5_2024, count("SELECT day FROM transactions WHERE id = 2"));
+        assertEquals(MARCH_5_2024, count("SELECT day FROM transactions WHERE id = 3"));
+        assertEquals("2024-03-05", text("SELECT date FROM transactions WHERE id = 2"));
+        assertEquals(localMillis("2024-03-05 12:10:00"), count("SELECT created_at FROM transactions WHERE id = 2"));
+        assertEquals(localMillis("2024-01-02 09:30:00"), count("SELECT created_at FROM users WHERE id = 1"));
+
+        // rollups built from the converted rows
+        assertEquals(200000, count("SELECT total_income_cents FROM users WHERE id = 1"));
+        assertEquals(1245, count("SELECT total_expense_cents FROM users WHERE id = 1"));
+        assertEquals(275250, count("SELECT total_expense_cents FROM users WHERE id = 2"));
+        assertEquals(275250, count("SELECT SUM(total_cents) FROM daily_totals WHERE user_id = 2"));
+        assertEquals(275250, count("SELECT SUM(total_cents) FROM monthly_totals WHERE user_id = 2"));
+        assertEquals(2501, count("SELECT tx_count FROM categories WHERE id = 3"));
+
+        // search index filled
+        assertEquals(2, count("SELECT docid FROM transactions_fts WHERE transactions_fts MATCH 'lunch'"));
+
+        // the ids of deleted rows are not reused
+        assertEquals(2600, count("SELECT seq FROM sqlite_sequence WHERE name = 'transactions'"));
+
+        assertEquals(LATEST_VERSION, count("SELECT version FROM schema_state"));
+        assertEquals(0, count("SELECT backfilling FROM schema_state"));
+    }
+
+    @Test
+    public void upgradedTransactionsMatchAFreshInstall() {
+        MigrationRunner.runPending(db);
+
+        assertColumn("transactions", "day", "INTEGER", true);
+        assertColumn("transactions", "created_at", "INTEGER", true);
+        assertColumn("transactions", "amount_cents", "INTEGER", true);
+
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' " +
+                "AND name = 'idx_transactions_user_day'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' " +
+                "AND name = 'idx_transactions_user_type_day_amount'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' " +
+                "AND name = 'idx_transactions_category_amount'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM sqlite_master WHERE name LIKE 'transactions_v%'"));
+    }
+
+    @Test
+    public void secondRunDoesNothing() {
+        MigrationRunner.runPending(db);
+        long total = count("SELECT SUM(amount_cents) FROM transactions");
+
+        MigrationRunner.runPending(db);
+
+        assertEquals(2504, count("SELECT COUNT(*) FROM transactions"));
+        assertEquals(total, count("SELECT SUM(amount_cents) FROM transactions"));
+        assertEquals(275250, count("SELECT SUM(total_cents) FROM daily_totals WHERE user_id = 2"));
+    }
+
+    private void assertColumn(String table, String column, String type, boolean notNull) {
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(cursor.getColumnIndexOrThrow("name")))) {
+                    assertEquals(column, type, cursor.getString(cursor.getColumnIndexOrThrow("type")));
+                    assertEquals(column, notNull, cursor.getInt(cursor.getColumnIndexOrThrow("notnull")) == 1);
+                    return;
+                }
+            }
+        }
+        fail("no column " + table + "." + column);
+    }
+
+    private long count(String sql) {
+        return DatabaseUtils.longForQuery(db, sql, null);
+    }
+
+    private String text(String sql) {
+        return DatabaseUtils.stringForQuery(db, sql, null);
+    }
+
+    // the version 1 timestamps were written in the device time zone
+    private static long localMillis(String timestamp) throws ParseException {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).parse(timestamp).getTime();
+    }
+
+    private static String readFixture() throws IOException {
+        Context testContext = InstrumentationRegistry.getInstrumentation().getContext();
+        try (InputStream in = testContext.getAssets().open(FIXTURE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            StringBuilder sql = new StringBuilder();
+            for (String line : out.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+                if (!line.trim().startsWith("--")) {
+                    sql.append(line).append('\n');
+                }
+            }
+            return sql.toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.budgetmanager;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.StrictMode;
+
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper;
+
+/**
+ * BUDGET APPLICATION - process start, registered in AndroidManifest.xml (android:name)
+ *
+ * In debuggable builds it turns StrictMode on: a disk read / write on the main thread is logged
+ * and flashes the screen, so a query that slipped back onto the UI thread (instead of
+ * DatabaseExecutor) shows up while testing. Log + flash rather than a crash: the preferences
+ * (SharedPreferencesHelper: user id, language, theme) are still read on the main thread.
+ * Leaked cursors / statements are logged too.
+ *
+ * It also starts the pending database migration steps on the writer thread (DatabaseExecutor.startMigrations):
+ * the database work of every screen waits for them, LoginActivity shows the wait.
+ */
+public class BudgetApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            enableStrictMode();
+        }
+        DatabaseExecutor.getInstance().startMigrations(DatabaseHelper.getInstance(this));
+    }
+
+    private static void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .penaltyLog()
+                .penaltyFlashScreen()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedClosableObjects()
+                .detectLeakedSqlLiteObjects()
+                .penaltyLog()
+                .build());
+    }
+}
@@ -5,6 +5,7 @@ import android.os.Bundle;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -18,17 +19,16 @@ import com.example.budgetmanager.adapters.CategoriesAdapter;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.UserDao;
-import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.services.CategoryService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
 import com.example.budgetmanager.utils.NavigationHelper;
 import com.example.budgetmanager.utils.SharedPreferencesHelper;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.UserManager;
 import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.viewmodels.CategoriesViewModel;
 
 
 import java.util.ArrayList;
-import java.util.List;
 
 public class CategoriesActivity extends AppCompatActivity {
 
@@ -37,6 +37,7 @@ public class CategoriesActivity extends AppCompatActivity {
     private CategoryDao categoryDao;
     private CategoryService categoryService;
     private UserManager userManager;
+    private CategoriesViewModel categoriesViewModel;
 
     private int currentUserId;
     private CategoriesAdapter categoriesAdapter;
@@ -63,6 +64,8 @@ public class CategoriesActivity extends AppCompatActivity {
         initializeDependencies();
         setupViews();
 
+        // the cached grid is shown right away after a rotation / recreate
+        categoriesViewModel.getCategories().observe(this, categories -> categoriesAdapter.updateCategories(categories));
     }
 
 
@@ -70,6 +73,8 @@ public class CategoriesActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
 
+        // the grid (names, icons, totals) only comes from the categories table,
+        // read again only if it was written since the last load (see CategoryRepository)
         loadCategories();
     }
      /**
@@ -84,6 +89,7 @@ public class CategoriesActivity extends AppCompatActivity {
 
         // initialize the category service
         categoryService = new CategoryService(categoryDao, userDao, dbHelper, this);
+        categoriesViewModel = new ViewModelProvider(this).get(CategoriesViewModel.class);
 
 
         // initialize the shared preferences helper
@@ -121,13 +127,17 @@ public class CategoriesActivity extends AppCompatActivity {
 
             @Override
             public void onDeleteClick(Category category) {
-                Result<String> result=categoryService.deleteCategory(category.getId());
-                
-                if (result.isSuccess()) {
-                    loadCategories();
-                } else {
-                    Toast.makeText(CategoriesActivity.this, result.getError(), Toast.LENGTH_SHORT).show();
-                }
+                // deleted on the writer thread, the result comes back on the main thread
+                categoryService.deleteCategory(category.getId(), result -> {
+                    if (isDestroyed()) {
+                        return;
+                    }
+                    if (result.isSuccess()) {
+                        loadCategories();
+                    } else {
+                        Toast.makeText(CategoriesActivity.this, result.getError(), Toast.LENGTH_SHORT).show();
+                    }
+                });
             }
         });
         
@@ -152,8 +162,7 @@ public class CategoriesActivity extends AppCompatActivity {
 
     
     private void loadCategories() {
-        List<Category> categories = categoryService.getCategories(currentUserId);
-        categoriesAdapter.updateCategories(categories);
+        categoriesViewModel.refresh(currentUserId);
     }
 
 
@@ -20,7 +20,6 @@ import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.CreateCategoryRequest;
-import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.Category;
 import com.example.budgetmanager.services.CategoryService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
@@ -273,15 +272,18 @@ public class CreateCategoryActivity extends AppCompatActivity implements Validat
         );
 
         // Call service
-        Result<Category> result = categoryService.createCategory(request);
-
-        if (result.isSuccess()) {
-            Toast.makeText(this, getString(R.string.msg_category_created), Toast.LENGTH_SHORT).show();
-            finish(); // Return to CategoriesActivity
-        } else {
-            formServiceError.setText(result.getError());
-            formServiceError.setVisibility(View.VISIBLE);
-        }
+        categoryService.createCategory(request, result -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (result.isSuccess()) {
+                Toast.makeText(this, getString(R.string.msg_category_created), Toast.LENGTH_SHORT).show();
+                finish(); // Return to CategoriesActivity
+            } else {
+                formServiceError.setText(result.getError());
+                formServiceError.setVisibility(View.VISIBLE);
+            }
+        });
     }
 
     @Override
@@ -15,15 +15,15 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
-import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.TransactionDao;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.CreateTransactionRequest;
-import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.Category;
-import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.models.Money;
+import com.example.budgetmanager.repositories.CategoryRepository;
 import com.example.budgetmanager.services.TransactionService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
 import com.example.budgetmanager.utils.SharedPreferencesHelper;
@@ -80,7 +80,7 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
 
     //  DEPENDENCIES
     private TransactionService transactionService;
-    private CategoryDao categoryDao;
+    private CategoryRepository categoryRepository;
     private UserManager userManager;
     private Validator validator;
     private int currentUserId;
@@ -112,7 +112,7 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
     private String selectedType = DatabaseHelper.CategoryType.EXPENSE; // Default to expense
     private final Calendar calendar = Calendar.getInstance();
     private List<Category> currentCategories = new ArrayList<>();
-    private List<Category> allCategories ;
+    private List<Category> allCategories = new ArrayList<>(); // empty until loadCategories() returns
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -130,7 +130,6 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
 
         // Load initial categories (expense by default)
         loadCategories();
-        fillCategoryDropdown();
 
 
         // Setup listeners
@@ -143,7 +142,7 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
     private void initializeDependencies() {
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
         TransactionDao transactionDao = new TransactionDao(dbHelper);
-        categoryDao = new CategoryDao(dbHelper);
+        categoryRepository = CategoryRepository.getInstance(this);
         UserDao userDao= new UserDao(dbHelper);
 
 
@@ -209,14 +208,16 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
     }
 
     /**
-     * Load categories for the selected type (income/expense)
-     */
-    /**
-     * Load categories for the selected type and display with icons in spinner
+     * Load the categories of the user on a reader thread, then display those of the selected type
      */
     private void loadCategories() {
-        // Get all categories for the user
-        allCategories = categoryDao.getCategories(currentUserId);
+        DatabaseExecutor.getInstance().read(() -> categoryRepository.getCategories(currentUserId), categories -> {
+            if (isDestroyed()) {
+                return;
+            }
+            allCategories = categories;
+            fillCategoryDropdown();
+        });
     }
 
     public void fillCategoryDropdown(){
@@ -298,7 +299,7 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
     @Override
     public void onValidationSucceeded() {
         // Extract form data
-        double amount = Double.parseDouble(amountInput.getText().toString());
+        Money amount = Money.parse(amountInput.getText().toString());
         String note = noteInput.getText().toString().trim();
         String date = dateInput.getText().toString(); // DD-MM-YYYY format
         
@@ -322,14 +323,17 @@ public class CreateTransactionActivity extends AppCompatActivity implements Vali
         );
 
         // Call service
-        Result<Transaction> result = transactionService.createTransaction(request, currentUserId);
-
-        if (result.isSuccess()) {
-            Toast.makeText(this, getString(R.string.msg_transaction_saved), Toast.LENGTH_SHORT).show();
-            finish(); // Return to MainActivity (which will refresh)
-        } else {
-            Toast.makeText(this, getString(R.string.error_prefix, result.getError()), Toast.LENGTH_SHORT).show();
-        }
+        transactionService.createTransaction(request, currentUserId, result -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (result.isSuccess()) {
+                Toast.makeText(this, getString(R.string.msg_transaction_saved), Toast.LENGTH_SHORT).show();
+                finish(); // Return to MainActivity (which will refresh)
+            } else {
+                Toast.makeText(this, getString(R.string.error_prefix, result.getError()), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
 
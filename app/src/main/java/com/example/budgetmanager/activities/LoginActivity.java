@@ -19,6 +19,7 @@ import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.LoginRequest;
 import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.models.User;
 import com.example.budgetmanager.services.AuthService;
@@ -40,6 +41,7 @@ import com.mobsandgeeks.saripaar.annotation.Password;
 
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 public class LoginActivity extends AppCompatActivity implements Validator.ValidationListener{
 
@@ -67,6 +69,10 @@ public class LoginActivity extends AppCompatActivity implements Validator.Valida
 
     AuthService authService;
     UserDao userDao;
+    // the running login (BCrypt check in the background), null when idle
+    private Future<Result<User>> pendingLogin;
+    // waiting for the database upgrade, null when done
+    private Future<Boolean> pendingUpgrade;
     private UserManager userManager;
     private LanguageManager languageManager;
     private ThemeManager themeManager;
@@ -84,11 +90,11 @@ public class LoginActivity extends AppCompatActivity implements Validator.Valida
         // Handle system bar borders
         EdgeToEdgeHelper.handleWindowInsets(findViewById(R.id.main));
 
-        // check if user logged in
-        checkExistingSession();
-
         // UI elements
         setupUI();
+
+        // check if user logged in, once the database is ready
+        waitForDatabase();
     }
 
 
@@ -152,6 +158,61 @@ public class LoginActivity extends AppCompatActivity implements Validator.Valida
 
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // left while checking the password: drop the result
+        if (pendingLogin != null) {
+            pendingLogin.cancel(true);
+        }
+        if (pendingUpgrade != null) {
+            pendingUpgrade.cancel(false);
+        }
+    }
+
+    /**
+     * First start after an update: the migration steps are running, the form stays locked and
+     * the saved session waits (the screens behind it need the upgraded tables)
+     */
+    private void waitForDatabase() {
+        DatabaseExecutor executor = DatabaseExecutor.getInstance();
+        if (!executor.isMigrating()) {
+            checkExistingSession();
+            return;
+        }
+
+        setBusy(true);
+        loginButton.setText(R.string.msg_upgrading_data);
+        pendingUpgrade = executor.afterMigrations(new DatabaseExecutor.Callback<Boolean>() {
+            @Override
+            public void onResult(Boolean ready) {
+                pendingUpgrade = null;
+                setBusy(false);
+                checkExistingSession();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                // the ledger can't be used, the form stays locked
+                error.printStackTrace();
+                pendingUpgrade = null;
+                loginButton.setText(R.string.login_button);
+                handleLoginError(getString(R.string.error_database_upgrade));
+            }
+        });
+    }
+
+    /**
+     * Busy while the password is checked: the form is locked, the button says so
+     */
+    private void setBusy(boolean busy) {
+        emailEditText.setEnabled(!busy);
+        passwordEditText.setEnabled(!busy);
+        signUpLink.setEnabled(!busy);
+        loginButton.setEnabled(!busy);
+        loginButton.setText(busy ? R.string.msg_signing_in : R.string.login_button);
+    }
+
     private void clearErrors() {
         // clear the input error messages
         emailError.setText("");
@@ -167,20 +228,28 @@ public class LoginActivity extends AppCompatActivity implements Validator.Valida
 
     @Override
     public void onValidationSucceeded() {
+        // already checking (enter pressed again)
+        if (pendingLogin != null) {
+            return;
+        }
+
         // get the input values
         String email = emailEditText.getText().toString();
         String password = passwordEditText.getText().toString();
 
         // create DTO and validate
         LoginRequest loginRequest = new LoginRequest(email, password);
-        Result<User> result = authService.login(loginRequest);
-
-        // handle results
-        if (result.isSuccess()) {
-            handleLoginSuccess(result.getData());
-        } else {
-            handleLoginError(result.getError());
-        }
+        setBusy(true);
+        pendingLogin = authService.login(loginRequest, result -> {
+            pendingLogin = null;
+            setBusy(false);
+            // handle results
+            if (result.isSuccess()) {
+                handleLoginSuccess(result.getData());
+            } else {
+                handleLoginError(result.getError());
+            }
+        });
     }
 
     @Override
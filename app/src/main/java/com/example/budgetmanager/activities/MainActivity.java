@@ -12,6 +12,7 @@ import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -21,9 +22,9 @@ import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.TransactionDao;
 import com.example.budgetmanager.database.dao.UserDao;
+import com.example.budgetmanager.dto.DashboardSnapshot;
 import com.example.budgetmanager.dto.TransactionWithCategory;
-import com.example.budgetmanager.dto.results.Result;
-import com.example.budgetmanager.models.User;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.services.TransactionService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
 import com.example.budgetmanager.utils.NavigationHelper;
@@ -31,6 +32,7 @@ import com.example.budgetmanager.utils.SharedPreferencesHelper;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.UserManager;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.LanguageManager;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.ThemeManager;
+import com.example.budgetmanager.viewmodels.DashboardViewModel;
 
 
 import java.util.ArrayList;
@@ -44,16 +46,22 @@ import java.util.Locale;
  * This is the dashboard screen showing:
  * - User greeting
  * - Balance summary (total balance, income, expenses)
- * - Recent transactions list with category icons and colors
+ * - Recent transactions list with category icons and colors ("See All" opens the full history)
  * - Bottom navigation
  *
  * KEY DESIGN DECISIONS:
- * - Refreshes data in onResume() so returning from other screens updates the UI
+ * - Refreshes data in onResume() so returning from other screens updates the UI,
+ *   through DashboardViewModel: the repository only queries if one of the tables it shows
+ *   was written since the last load (see TableChangeTracker)
+ * - Renders whatever DashboardViewModel holds: after a rotation or a language / theme recreate()
+ *   the last snapshot is shown again from memory, without touching SQLite
  * - Uses TransactionsAdapter with TransactionWithCategory DTOs
+ * - Reads the whole dashboard as one DashboardSnapshot (one query, one consistent snapshot)
  *
  * DATA FLOW:
- * onCreate() → initialize dependencies → setup views → load data
- * onResume() → refresh dashboard (in case user added transactions elsewhere)
+ * onCreate() → initialize dependencies → setup views
+ * onCreate() → observe DashboardViewModel (renders the cached snapshot right away, if any)
+ * onResume() → refresh dashboard: name, totals and recent transactions, if they changed elsewhere
  *
  * LOW-LEVEL CONCEPTS REFERENCE:
  * - onResume(): Called when activity becomes visible (after onCreate, onStart, or returning from another activity)
@@ -61,12 +69,15 @@ import java.util.Locale;
  * - SharedPreferences: xml file managed by the system we use it to store userId for session management
  */
 public class MainActivity extends AppCompatActivity {
+    // recent transactions shown on the dashboard
+    private static final int RECENT_TRANSACTIONS_LIMIT = 30;
     
     // Dependencies
     private DatabaseHelper dbHelper;
     private UserDao userDao;
     private TransactionDao transactionDao;
     private TransactionService transactionService;
+    private DashboardViewModel dashboardViewModel;
     private UserManager userManager;
     private LanguageManager languageManager;
     private ThemeManager themeManager;
@@ -82,6 +93,7 @@ public class MainActivity extends AppCompatActivity {
     private RecyclerView transactionsRecyclerView;
     private TransactionsAdapter transactionsAdapter;
     private LinearLayout emptyStateContainer;
+    private TextView seeAllTransactions;
     
 
     private ImageView logoutButton;
@@ -105,11 +117,10 @@ public class MainActivity extends AppCompatActivity {
         
         // Setup views
         setupViews();
-        
-        // Load user data
-        loadUserData();
-        
-        
+
+        // every snapshot the view model gets is rendered, the cached one first (recreate / rotation)
+        dashboardViewModel.getDashboard().observe(this, this::displayDashboard);
+        // user data is loaded by onResume() with the rest of the dashboard
     }
     
     @Override
@@ -134,19 +145,11 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         
-        // Refresh data when returning from other screens (also run after oncreate on boot)
+        // Refresh data when returning from other screens (also run after oncreate on boot),
+        // nothing was written since the last load: the dashboard on screen is current, no query
         refreshDashboardData();
     }
     
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Close database connection
-        if (dbHelper != null) {
-            dbHelper.close();
-        }
-    }
-    
     /**
      * Initialize DAOs and services
      */
@@ -158,6 +161,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize service with DAOs
         transactionService = new TransactionService(transactionDao, dbHelper, userDao, this);
+        dashboardViewModel = new ViewModelProvider(this).get(DashboardViewModel.class);
 
         userManager = new UserManager(new SharedPreferencesHelper(this));
         languageManager = new LanguageManager(new SharedPreferencesHelper(this));
@@ -191,6 +195,7 @@ public class MainActivity extends AppCompatActivity {
         logoutButton = findViewById(R.id.logout_button);
         transactionsRecyclerView = findViewById(R.id.transactions_recycler);
         emptyStateContainer = findViewById(R.id.empty_state_container);
+        seeAllTransactions = findViewById(R.id.see_all_transactions);
 
         // Setup RecyclerView
         transactionsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
@@ -206,22 +211,31 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void onDeleteClick(TransactionWithCategory transaction) {
                 // Handle Delete
-                Result<String> result= transactionService.deleteTransaction(transaction,currentUserId);
-
-                // check result and show message
-                if (result.isSuccess()) {
-                    // refresh the dashboard after deleting a transaction
-                    refreshDashboardData();
-                    Toast.makeText(MainActivity.this, getString(R.string.msg_transaction_deleted_success), Toast.LENGTH_SHORT).show();
-                } else {
-                    Toast.makeText(MainActivity.this, getString(R.string.error_delete_transaction_prefix, result.getError()), Toast.LENGTH_SHORT).show();
-                }
+                transactionService.deleteTransaction(transaction, currentUserId, result -> {
+                    if (isDestroyed()) {
+                        return;
+                    }
+                    // check result and show message
+                    if (result.isSuccess()) {
+                        // refresh the dashboard after deleting a transaction
+                        refreshDashboardData();
+                        Toast.makeText(MainActivity.this, getString(R.string.msg_transaction_deleted_success), Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(MainActivity.this, getString(R.string.error_delete_transaction_prefix, result.getError()), Toast.LENGTH_SHORT).show();
+                    }
+                });
 
             }
         });
 
         transactionsRecyclerView.setAdapter(transactionsAdapter);
         
+        // the dashboard shows the recent transactions, the full history is paged in TransactionsActivity
+        seeAllTransactions.setOnClickListener(v -> {
+            Intent intent = new Intent(this, TransactionsActivity.class);
+            startActivity(intent);
+        });
+
         // logout button click listener
         logoutButton.setOnClickListener(v -> {
             userManager.logout();
@@ -232,63 +246,57 @@ public class MainActivity extends AppCompatActivity {
     }
     
     /**
-     * Load and display user name
+     * Refresh user name, balance summary and recent transactions
+     * from a single snapshot query (or the cached snapshot), displayed by the observer
      */
-    private void loadUserData() {
-        User user = userDao.getUserById(currentUserId);
-        // if user exist display user name 
-        if (user != null) {
-            // make first chat capitalized
-            String name = user.getName();
-            userNameTextView.setText(name.substring(0, 1).toUpperCase() + name.substring(1));
-        } 
-        // in case the id was invalid redirect to login 
-        else {
+    private void refreshDashboardData() {
+        // in case the id was invalid redirect to login
+        dashboardViewModel.refresh(currentUserId, RECENT_TRANSACTIONS_LIMIT, () -> {
             Intent intent = new Intent(this, LoginActivity.class);
             startActivity(intent);
             finish();
-        }
+        });
     }
-    
+
     /**
-     * Refresh balance summary and recent transactions
+     * Display a dashboard snapshot
      */
-    private void refreshDashboardData() {
-        displayBalanceSummary();
-        loadRecentTransactions();
+    private void displayDashboard(DashboardSnapshot snapshot) {
+        displayUserName(snapshot.getUserName());
+        displayBalanceSummary(snapshot);
+        displayRecentTransactions(snapshot.getRecentTransactions());
+    }
+
+    /**
+     * Display user name
+     */
+    private void displayUserName(String name) {
+        // make first chat capitalized
+        userNameTextView.setText(name.substring(0, 1).toUpperCase() + name.substring(1));
     }
     
     /**
      *  display balance summary
      */
-    private void displayBalanceSummary() {
-        // Get balance summary from service
-        double[] summary = transactionService.getBalanceSummary(currentUserId);
-        
+    private void displayBalanceSummary(DashboardSnapshot snapshot) {
         // set the summary values
-        double totalIncome = summary[0];
-        double totalExpenses = summary[1];
-        double balance = summary[2];
+        Money totalIncome = snapshot.getTotalIncome();
+        Money totalExpenses = snapshot.getTotalExpenses();
+        Money balance = snapshot.getBalance();
         
-        
-    // Force US locale for number formatting to avoid Arabic numerals
-    Locale numberLocale = Locale.US;
+        // Force US locale for number formatting to avoid Arabic numerals
+        Locale numberLocale = Locale.US;
     
-    // Update UI with balance summary (format to 2 decimal places)
-    balanceTextView.setText(String.format(numberLocale, getString(R.string.currency_format), balance));
-    incomeTextView.setText(String.format(numberLocale, getString(R.string.currency_format), totalIncome));
-    expenseTextView.setText(String.format(numberLocale, getString(R.string.currency_format), totalExpenses));
-}
+        // Update UI with balance summary (format to 2 decimal places)
+        balanceTextView.setText(String.format(numberLocale, getString(R.string.currency_format), balance.toDouble()));
+        incomeTextView.setText(String.format(numberLocale, getString(R.string.currency_format), totalIncome.toDouble()));
+        expenseTextView.setText(String.format(numberLocale, getString(R.string.currency_format), totalExpenses.toDouble()));
+    }
     
     /**
-     * Load recent transactions with category names 
-     * seperated from adapter setup because it's async db call when adapter need to be rendered instantly  
+     * Display recent transactions with category names
      */
-    private void loadRecentTransactions() {
-        // Get recent transactions (limit to 5 for dashboard)
-        List<TransactionWithCategory> transactions = 
-            transactionDao.getTransactionsWithCategory(currentUserId, 30);
-        
+    private void displayRecentTransactions(List<TransactionWithCategory> transactions) {
         // Update adapter with recent transactions
         transactionsAdapter.updateTransactions(transactions);
 
@@ -299,8 +307,6 @@ public class MainActivity extends AppCompatActivity {
             transactionsRecyclerView.setVisibility(View.VISIBLE);
             emptyStateContainer.setVisibility(View.GONE);
         }
-
-
     }
    
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.budgetmanager.activities;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
@@ -13,13 +14,17 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.example.budgetmanager.R;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.UpdateUserInfoRequest;
 import com.example.budgetmanager.dto.results.Result;
+import com.example.budgetmanager.importexport.TransactionExporter.Format;
 import com.example.budgetmanager.models.User;
 import com.example.budgetmanager.services.UserService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
@@ -29,6 +34,8 @@ import com.example.budgetmanager.utils.SharedPreferencesHelper.UserManager;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.LanguageManager;
 import com.example.budgetmanager.utils.SharedPreferencesHelper.ThemeManager;
 import com.example.budgetmanager.utils.ValidationHelper;
+import com.example.budgetmanager.viewmodels.ProfileViewModel;
+import com.example.budgetmanager.viewmodels.ProfileViewModel.DataJob;
 
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 
@@ -40,6 +47,7 @@ import com.mobsandgeeks.saripaar.annotation.Email;
 import com.mobsandgeeks.saripaar.annotation.Password;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * PROFILE ACTIVITY - DEVELOPER GUIDE
@@ -52,6 +60,15 @@ import java.util.List;
  * - Uses Saripaar for client-side validation (name, email)
  * - Uses UserService for business logic (update user info)
  * - Uses SharedPreferencesHelper for user identification
+ * - CSV import (DATA section): the file is picked with the system document picker and imported
+ *   by CsvTransactionImporter, the row shows the progress. The checkpoint of each
+ *   committed batch is saved, importing the same file again after an interruption resumes there.
+ * - Exports (CSV / gzipped JSON) stream the ledger to a document created with the system picker.
+ *   Tapping the row again cancels (Future.cancel), the partial file is deleted.
+ * - Backup / restore: LedgerBackup writes the binary snapshot through the file channel of the created
+ *   document, restore maps the picked file after a confirmation sheet (it replaces the ledger).
+ * - The data jobs run in ProfileViewModel on the file thread of DatabaseExecutor, one at a time:
+ *   a rotation doesn't stop them, this screen only renders their DataJob state.
  *
  * LOW-LEVEL CONCEPTS :
  * BottomSheetDialog: is a modal dialog that slides up from the bottom of the screen 
@@ -77,11 +94,34 @@ public class ProfileActivity extends AppCompatActivity {
     private LanguageManager languageManager;
     private ThemeManager themeManager;
     private UserService userService;
-    private User currentUser;
+    private UserDao userDao;
+    private ProfileViewModel profileViewModel;
+    private User currentUser; // last value of profileViewModel, shared with its cache: read only
+    private int currentUserId;
+
+    // password change being hashed / saved (DatabaseExecutor.compute), null when idle
+    private Future<Result<String>> passwordUpdate;
+
+    // system file picker, the picked document is imported
+    private final ActivityResultLauncher<String[]> importCsvLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importCsv);
+    private final ActivityResultLauncher<String> exportCsvLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("text/csv"),
+                    uri -> exportTransactions(uri, Format.CSV, false));
+    private final ActivityResultLauncher<String> exportJsonLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("application/gzip"),
+                    uri -> exportTransactions(uri, Format.JSON, true));
+    private final ActivityResultLauncher<String> backupLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("application/octet-stream"),
+                    this::backupData);
+    private final ActivityResultLauncher<String[]> restoreLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::showRestoreConfirmSheet);
 
     // global page Views
-    private TextView profileName, profileEmail, profileLanguageValue, profileThemeValue;
-    private LinearLayout rowEditInfo, rowChangePassword, rowChangeLanguage, rowChangeTheme;
+    private TextView profileName, profileEmail, profileLanguageValue, profileThemeValue, profileImportValue;
+    private TextView profileExportCsvValue, profileExportJsonValue;
+    private LinearLayout rowEditInfo, rowChangePassword, rowChangeLanguage, rowChangeTheme, rowImportCsv;
+    private LinearLayout rowExportCsv, rowExportJson, rowBackup, rowRestore;
     private ImageView navHome, navCategories, navProfile;
     private FrameLayout addBtn;
 
@@ -106,13 +146,20 @@ public class ProfileActivity extends AppCompatActivity {
 
         initializeDependencies();
         setupViews();
-        FillProfileUI();
+
+        // rendered from the view model, the cached user first after a rotation / recreate
+        profileViewModel.getUser().observe(this, user -> {
+            currentUser = user;
+            FillProfileUI();
+        });
+        // the running data job (import, export, backup, restore), kept across rotations
+        profileViewModel.getDataJob().observe(this, this::showDataJob);
     }
 
     private void initializeDependencies() {
         // one time use dependecies
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
-        UserDao userDao = new UserDao(dbHelper);
+        userDao = new UserDao(dbHelper);
 
         // service dependencies
         userService = new UserService(userDao, dbHelper, this);
@@ -122,8 +169,19 @@ public class ProfileActivity extends AppCompatActivity {
         themeManager = new ThemeManager(sharedPreferencesHelper);
 
         // get current user
-        int currentUserId = userManager.getUserId();
-        currentUser = userDao.getUserById(currentUserId);
+        currentUserId = userManager.getUserId();
+        profileViewModel = new ViewModelProvider(this).get(ProfileViewModel.class);
+        refreshProfile();
+    }
+
+    /**
+     * Read the user again in the background, the observer shows it; redirect to login if it's gone
+     */
+    private void refreshProfile() {
+        profileViewModel.refresh(currentUserId, () -> {
+            startActivity(new Intent(this, LoginActivity.class));
+            finish();
+        });
     }
 
     private void setupViews() {
@@ -135,11 +193,142 @@ public class ProfileActivity extends AppCompatActivity {
         rowChangeTheme = findViewById(R.id.row_change_theme);
         profileLanguageValue = findViewById(R.id.profile_language_value);
         profileThemeValue = findViewById(R.id.profile_theme_value);
-
-        rowEditInfo.setOnClickListener(v -> showEditInfoSheet());
-        rowChangePassword.setOnClickListener(v -> showChangePasswordSheet());
+        rowImportCsv = findViewById(R.id.row_import_csv);
+        profileImportValue = findViewById(R.id.profile_import_value);
+        rowExportCsv = findViewById(R.id.row_export_csv);
+        rowExportJson = findViewById(R.id.row_export_json);
+        profileExportCsvValue = findViewById(R.id.profile_export_csv_value);
+        profileExportJsonValue = findViewById(R.id.profile_export_json_value);
+        rowBackup = findViewById(R.id.row_backup);
+        rowRestore = findViewById(R.id.row_restore);
+
+        // both forms start from the loaded user, nothing to edit until it arrived
+        rowEditInfo.setOnClickListener(v -> {
+            if (currentUser != null) {
+                showEditInfoSheet();
+            }
+        });
+        rowChangePassword.setOnClickListener(v -> {
+            if (currentUser != null) {
+                showChangePasswordSheet();
+            }
+        });
         rowChangeLanguage.setOnClickListener(v -> showLanguageSelectionSheet());
         rowChangeTheme.setOnClickListener(v -> showThemeSelectionSheet());
+        rowImportCsv.setOnClickListener(v -> {
+            if (!isDataJobRunning()) {
+                importCsvLauncher.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+            }
+        });
+        rowExportCsv.setOnClickListener(v -> onExportRowClick(() -> exportCsvLauncher.launch("transactions.csv")));
+        rowExportJson.setOnClickListener(v -> onExportRowClick(() -> exportJsonLauncher.launch("transactions.json.gz")));
+        rowBackup.setOnClickListener(v -> {
+            if (!isDataJobRunning()) {
+                backupLauncher.launch("budget-backup.bmbk");
+            }
+        });
+        rowRestore.setOnClickListener(v -> {
+            if (!isDataJobRunning()) {
+                restoreLauncher.launch(new String[]{"*/*"});
+            }
+        });
+    }
+
+    // import, export, backup and restore: one at a time, run by the view model
+    private boolean isDataJobRunning() {
+        return profileViewModel.isDataJobRunning();
+    }
+
+    // start an export, or cancel the running one
+    private void onExportRowClick(Runnable pickDocument) {
+        DataJob job = profileViewModel.getDataJob().getValue();
+        if (job != null && job.isRunning()
+                && (job.getKind() == DataJob.Kind.EXPORT_CSV || job.getKind() == DataJob.Kind.EXPORT_JSON)) {
+            profileViewModel.cancelDataJob();
+        } else if (!isDataJobRunning()) {
+            pickDocument.run();
+        }
+    }
+
+    private void exportTransactions(Uri uri, Format format, boolean gzip) {
+        if (uri != null) {
+            profileViewModel.exportTransactions(uri, format, gzip, currentUserId, this);
+        }
+    }
+
+    private void backupData(Uri uri) {
+        if (uri != null) {
+            profileViewModel.backup(uri, currentUserId, this);
+        }
+    }
+
+    /**
+     * SHOW RESTORE CONFIRMATION SHEET, the restore replaces the current ledger
+     */
+    private void showRestoreConfirmSheet(Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        BottomSheetDialog dialog = new BottomSheetDialog(this, R.style.BottomSheetDialogTheme);
+        View sheetView = getLayoutInflater().inflate(R.layout.dialog_restore_confirm, null);
+
+        Button restoreBtn = sheetView.findViewById(R.id.btn_restore);
+        restoreBtn.setOnClickListener(v -> {
+            dialog.dismiss();
+            if (!isDataJobRunning()) {
+                profileViewModel.restore(uri, currentUserId, this);
+            }
+        });
+
+        dialog.setContentView(sheetView);
+        dialog.show();
+    }
+
+    private void importCsv(Uri uri) {
+        if (uri != null) {
+            profileViewModel.importCsv(uri, currentUserId, this);
+        }
+    }
+
+    /**
+     * Render the data job: its progress on its row, then its outcome once
+     * (also after a rotation, the job kept running in the view model)
+     */
+    private void showDataJob(DataJob job) {
+        profileImportValue.setText("");
+        profileExportCsvValue.setText("");
+        profileExportJsonValue.setText("");
+        if (job == null) {
+            return;
+        }
+
+        if (job.isRunning()) {
+            if (job.getKind() == DataJob.Kind.IMPORT) {
+                profileImportValue.setText(job.getProgress());
+            } else if (job.getKind() == DataJob.Kind.EXPORT_CSV) {
+                profileExportCsvValue.setText(job.getProgress());
+            } else if (job.getKind() == DataJob.Kind.EXPORT_JSON) {
+                profileExportJsonValue.setText(job.getProgress());
+            }
+            return;
+        }
+
+        Result<String> outcome = job.getOutcome();
+        if (outcome.isSuccess() && job.getKind() == DataJob.Kind.RESTORE) {
+            // the restored profile name
+            refreshProfile();
+        }
+        Toast.makeText(this, outcome.isSuccess() ? outcome.getData() : outcome.getError(), Toast.LENGTH_LONG).show();
+        profileViewModel.dataJobShown();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // a password still being hashed is not saved
+        if (passwordUpdate != null) {
+            passwordUpdate.cancel(true);
+        }
     }
 
 
@@ -186,20 +375,20 @@ public class ProfileActivity extends AppCompatActivity {
                 String newName = nameInput.getText().toString().trim();
                 String newEmail = emailInput.getText().toString().trim();
 
-                Result<String> result = userService.updateUserProfile(
-                        new UpdateUserInfoRequest(currentUser.getId(), newName, newEmail)
-                );
-
-                if (result.isSuccess()) {
-                    currentUser.setName(newName);
-                    currentUser.setEmail(newEmail);
-                    FillProfileUI();
-                    Toast.makeText(ProfileActivity.this, getString(R.string.msg_user_updated), Toast.LENGTH_SHORT).show();
-                    dialog.dismiss();
-                } else {
-                    errorBanner.setText(result.getError());
-                    errorBanner.setVisibility(View.VISIBLE);
-                }
+                userService.updateUserProfile(new UpdateUserInfoRequest(currentUser.getId(), newName, newEmail), result -> {
+                    if (isDestroyed()) {
+                        return;
+                    }
+                    if (result.isSuccess()) {
+                        // the update bumped the users table, the observer shows the new row
+                        refreshProfile();
+                        Toast.makeText(ProfileActivity.this, getString(R.string.msg_user_updated), Toast.LENGTH_SHORT).show();
+                        dialog.dismiss();
+                    } else {
+                        errorBanner.setText(result.getError());
+                        errorBanner.setVisibility(View.VISIBLE);
+                    }
+                });
             }
 
             @Override
@@ -269,16 +458,24 @@ public class ProfileActivity extends AppCompatActivity {
                     return;
                 }
 
-                // Call service to update password
-                Result<String> result = userService.updateUserPassword(currentUser.getId(), newPassword);
-
-                if (result.isSuccess()) {
-                    Toast.makeText(ProfileActivity.this, getString(R.string.msg_password_updated), Toast.LENGTH_SHORT).show();
-                    dialog.dismiss();
-                } else {
-                    passwordErrorBanner.setText(result.getError());
-                    passwordErrorBanner.setVisibility(View.VISIBLE);
+                // already saving (save pressed again)
+                if (passwordUpdate != null) {
+                    return;
                 }
+
+                // Call service to update password (hashed in the background, the sheet shows it's busy)
+                setPasswordSheetBusy(dialog, savePasswordBtn, true);
+                passwordUpdate = userService.updateUserPassword(currentUser.getId(), newPassword, result -> {
+                    passwordUpdate = null;
+                    setPasswordSheetBusy(dialog, savePasswordBtn, false);
+                    if (result.isSuccess()) {
+                        Toast.makeText(ProfileActivity.this, getString(R.string.msg_password_updated), Toast.LENGTH_SHORT).show();
+                        dialog.dismiss();
+                    } else {
+                        passwordErrorBanner.setText(result.getError());
+                        passwordErrorBanner.setVisibility(View.VISIBLE);
+                    }
+                });
             }
 
             @Override
@@ -316,6 +513,18 @@ public class ProfileActivity extends AppCompatActivity {
         dialog.show();
     }
 
+    /**
+     * Busy while the new password is hashed and saved: the sheet can't be dismissed or edited,
+     * its button says so
+     */
+    private void setPasswordSheetBusy(BottomSheetDialog dialog, Button saveButton, boolean busy) {
+        dialog.setCancelable(!busy);
+        newPasswordInput.setEnabled(!busy);
+        confirmPasswordInput.setEnabled(!busy);
+        saveButton.setEnabled(!busy);
+        saveButton.setText(busy ? R.string.msg_updating_password : R.string.btn_update_password);
+    }
+
     /**
      * SHOW LANGUAGE SELECTION SHEET
      */
@@ -34,6 +34,7 @@ import com.mobsandgeeks.saripaar.annotation.NotEmpty;
 import com.mobsandgeeks.saripaar.annotation.Password;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * REGISTER ACTIVITY - DEVELOPER GUIDE
@@ -84,6 +85,8 @@ public class SignUpActivity extends AppCompatActivity
     Validator validator;
     AuthService authService;
     UserManager userManager;
+    // the running registration (BCrypt hash, then the insert), null when idle
+    private Future<Result<User>> pendingRegistration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -158,6 +161,27 @@ public class SignUpActivity extends AppCompatActivity
      * CLEAR PREVIOUS ERRORS
      * Reset all error text views before new validation
      */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // left while the password is hashed: the account is not created
+        if (pendingRegistration != null) {
+            pendingRegistration.cancel(true);
+        }
+    }
+
+    /**
+     * Busy while the account is created: the form is locked, the button says so
+     */
+    private void setBusy(boolean busy) {
+        nameEditText.setEnabled(!busy);
+        emailEditText.setEnabled(!busy);
+        passwordEditText.setEnabled(!busy);
+        loginLink.setEnabled(!busy);
+        registerButton.setEnabled(!busy);
+        registerButton.setText(busy ? R.string.msg_creating_account : R.string.signup_button);
+    }
+
     private void clearErrors() {
         // Clear form service error message
         formServiceError.setText("");
@@ -178,6 +202,11 @@ public class SignUpActivity extends AppCompatActivity
      */
     @Override
     public void onValidationSucceeded() {
+        // already creating it (enter pressed again)
+        if (pendingRegistration != null) {
+            return;
+        }
+
         // Get input values (already validated by Saripaar)
         String name = nameEditText.getText().toString();
         String email = emailEditText.getText().toString();
@@ -187,14 +216,17 @@ public class SignUpActivity extends AppCompatActivity
         RegisterRequest registerRequest = new RegisterRequest(name, email, password);
 
         // Delegate to AuthService for business logic
-        Result<User> result = authService.register(registerRequest);
-
-        // Handle business logic result
-        if (result.isSuccess()) {
-            handleRegistrationSuccess(result.getData());
-        } else {
-            handleRegistrationError(result.getError());
-        }
+        setBusy(true);
+        pendingRegistration = authService.register(registerRequest, result -> {
+            pendingRegistration = null;
+            setBusy(false);
+            // Handle business logic result
+            if (result.isSuccess()) {
+                handleRegistrationSuccess(result.getData());
+            } else {
+                handleRegistrationError(result.getError());
+            }
+        });
     }
 
     /**
@@ -8,18 +8,18 @@ import android.widget.TextView;
 import android.widget.ToggleButton;
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.budgetmanager.R;
 import com.example.budgetmanager.adapters.LegendAdapter;
-import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
-import com.example.budgetmanager.database.dao.ChartDao;
 import com.example.budgetmanager.dto.CategoryTotal;
 import com.example.budgetmanager.dto.MonthlyTotal;
 import com.example.budgetmanager.utils.SharedPreferencesHelper;
 import com.example.budgetmanager.utils.NavigationHelper;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
+import com.example.budgetmanager.viewmodels.StatsViewModel;
 import com.github.mikephil.charting.charts.PieChart;
 import com.github.mikephil.charting.charts.LineChart;
 import com.github.mikephil.charting.components.YAxis;
@@ -45,10 +45,12 @@ import java.util.Locale;
  * KEY DESIGN DECISIONS:
  * - Use toggle buttons to switch between expense and income
  * - Use RecyclerView for category legend display
+ * - The charts and the selected type live in StatsViewModel: a rotation or a recreate renders
+ *   them from memory, onResume() only queries if the rollup / category tables were written
+ *   since the last load, or the month of the line chart is over (see ChartRepository)
  * 
  */
 public class StatsActivity extends AppCompatActivity {
-    
     // UI Components
     private ToggleButton chartToggleIncome, chartToggleExpense;
     private PieChart pieChart;
@@ -57,15 +59,13 @@ public class StatsActivity extends AppCompatActivity {
     private RecyclerView legendRecyclerView;
 
     // Data access
-    private DatabaseHelper dbHelper;
-    private ChartDao chartDao;
+    private StatsViewModel statsViewModel;
     private SharedPreferencesHelper sharedPreferencesHelper;
     private SharedPreferencesHelper.ThemeManager themeManager;
     private SharedPreferencesHelper.LanguageManager languageManager;
     private SharedPreferencesHelper.UserManager userManager;
     private LegendAdapter legendAdapter;
     private int currentUserId;
-    private String currentChartType = "expense"; // Default to expense
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,10 +85,10 @@ public class StatsActivity extends AppCompatActivity {
         // Setup edge-to-edge helper
         EdgeToEdgeHelper.handleWindowInsets(findViewById(R.id.main));
         
-        // Setup views and load data
+        // Setup views, the data is loaded by onResume()
         initializeViews();
         setupViews();
-        loadInitialData();
+        observeData();
     }
 
     @Override
@@ -98,8 +98,8 @@ public class StatsActivity extends AppCompatActivity {
         // Reapply theme in case it was changed
         themeManager.applyTheme(this);
         
-        // Reload data in case transactions were added/updated
-        loadInitialData();
+        // Reload data in case transactions were added/updated (or a new month started)
+        statsViewModel.refresh(currentUserId);
     }
 
     private void initializeDependencies() {
@@ -108,8 +108,7 @@ public class StatsActivity extends AppCompatActivity {
         languageManager = new SharedPreferencesHelper.LanguageManager(sharedPreferencesHelper);
         userManager = new SharedPreferencesHelper.UserManager(sharedPreferencesHelper);
         
-        dbHelper = DatabaseHelper.getInstance(this);
-        chartDao = new ChartDao(dbHelper);
+        statsViewModel = new ViewModelProvider(this).get(StatsViewModel.class);
         currentUserId = userManager.getUserId();
     }
 
@@ -146,33 +145,33 @@ public class StatsActivity extends AppCompatActivity {
 
     private void setupChartToggleListeners() {
         chartToggleIncome.setOnCheckedChangeListener((button, isChecked) -> {
-            if (isChecked) {
-                currentChartType = "income";
+            if (isChecked && !CategoryType.INCOME.equals(statsViewModel.getChartType())) {
+                statsViewModel.setChartType(currentUserId, CategoryType.INCOME);
                 updateToggleButtonStates();
-                loadChartData();
             }
         });
 
         chartToggleExpense.setOnCheckedChangeListener((button, isChecked) -> {
-            if (isChecked) {
-                currentChartType = "expense";
+            if (isChecked && !CategoryType.EXPENSE.equals(statsViewModel.getChartType())) {
+                statsViewModel.setChartType(currentUserId, CategoryType.EXPENSE);
                 updateToggleButtonStates();
-                loadChartData();
             }
         });
     }
 
     private void updateToggleButtonStates() {
+        String currentChartType = statsViewModel.getChartType();
+
         // Update checked states
-        chartToggleIncome.setChecked("income".equals(currentChartType));
-        chartToggleExpense.setChecked("expense".equals(currentChartType));
+        chartToggleIncome.setChecked(CategoryType.INCOME.equals(currentChartType));
+        chartToggleExpense.setChecked(CategoryType.EXPENSE.equals(currentChartType));
         
         // Update button colors dynamically
         updateToggleButtonColors();
     }
 
     private void updateToggleButtonColors() {
-        if ("income".equals(currentChartType)) {
+        if (CategoryType.INCOME.equals(statsViewModel.getChartType())) {
             // Income selected - income green, expense neutral
             chartToggleIncome.setBackgroundResource(R.drawable.bg_toggle_selected_income);
             chartToggleIncome.setTextColor(getResources().getColor(R.color.income_text, getTheme()));
@@ -189,17 +188,16 @@ public class StatsActivity extends AppCompatActivity {
         }
     }
 
-    private void loadInitialData() {
-        loadChartData();
-        loadGraphData();
+    // every value of the view model is rendered, the cached ones first (rotation / recreate)
+    private void observeData() {
+        statsViewModel.getCategoryTotals().observe(this, this::showChartData);
+        statsViewModel.getDailyTotals().observe(this, this::showGraphData);
     }
 
-    private void loadChartData() {
+    private void showChartData(List<CategoryTotal> categoryTotals) {
         try {
-            List<CategoryTotal> categoryTotals = chartDao.getCategoryTotals(currentUserId, currentChartType);
-            
             // Update pie chart title
-            if ("income".equals(currentChartType)) {
+            if (CategoryType.INCOME.equals(statsViewModel.getChartType())) {
                 pieChartTitle.setText(R.string.chart_title_income);
             } else {
                 pieChartTitle.setText(R.string.chart_title_expense);
@@ -227,7 +225,7 @@ public class StatsActivity extends AppCompatActivity {
         ArrayList<PieEntry> entries = new ArrayList<>();
         
         for (CategoryTotal categoryTotal : categoryTotals) {
-            entries.add(new PieEntry((float) categoryTotal.getTotal(), categoryTotal.getCategoryName()));
+            entries.add(new PieEntry((float) categoryTotal.getTotal().toDouble(), categoryTotal.getCategoryName()));
         }
         
         PieDataSet dataSet = new PieDataSet(entries, "");
@@ -265,18 +263,17 @@ public class StatsActivity extends AppCompatActivity {
 
     private void setupLegend(List<CategoryTotal> categoryTotals) {
         if (legendAdapter == null) {
-            legendAdapter = new LegendAdapter(this, categoryTotals, currentChartType);
+            legendAdapter = new LegendAdapter(this, categoryTotals, statsViewModel.getChartType());
             legendRecyclerView.setAdapter(legendAdapter);
         } else {
-            legendAdapter.updateData(categoryTotals, currentChartType);
+            legendAdapter.updateData(categoryTotals, statsViewModel.getChartType());
         }
     }
 
-    private void loadGraphData() {
+    private void showGraphData(List<MonthlyTotal> dailyTotals) {
         try {
-            List<MonthlyTotal> dailyTotals = chartDao.getDailyTotalsCurrentMonth(currentUserId);
-            
-            if (dailyTotals.isEmpty()) {
+            // one entry per day of the month, zero filled
+            if (!hasActivity(dailyTotals)) {
                 lineChart.setNoDataText(getString(R.string.no_data_available));
                 lineChart.clear();
             } else {
@@ -290,6 +287,16 @@ public class StatsActivity extends AppCompatActivity {
         }
     }
 
+    // true if at least one day of the list has a transaction
+    private boolean hasActivity(List<MonthlyTotal> dailyTotals) {
+        for (MonthlyTotal dailyTotal : dailyTotals) {
+            if (dailyTotal.getIncome().getCents() != 0 || dailyTotal.getExpense().getCents() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void setupLineChart(List<MonthlyTotal> dailyTotals) {
         ArrayList<Entry> incomeEntries = new ArrayList<>();
         ArrayList<Entry> expenseEntries = new ArrayList<>();
@@ -302,8 +309,8 @@ public class StatsActivity extends AppCompatActivity {
             String date = dailyTotal.getDate();
             int dayOfMonth = Integer.parseInt(date.substring(8)); // Get DD from YYYY-MM-DD
             
-            incomeEntries.add(new Entry(dayOfMonth, (float) dailyTotal.getIncome()));
-            expenseEntries.add(new Entry(dayOfMonth, (float) dailyTotal.getExpense()));
+            incomeEntries.add(new Entry(dayOfMonth, (float) dailyTotal.getIncome().toDouble()));
+            expenseEntries.add(new Entry(dayOfMonth, (float) dailyTotal.getExpense().toDouble()));
         }
         
         // Income line
@@ -331,13 +338,13 @@ public class StatsActivity extends AppCompatActivity {
         LineData data = new LineData(dataSets);
         lineChart.setData(data);
         
-        // Configure chart styling and axes
-        setupChartAxes();
+        // Configure chart styling and axes (one point per day of the month)
+        setupChartAxes(dailyTotals.size());
         
         lineChart.invalidate();
     }
     
-    private void setupChartAxes() {
+    private void setupChartAxes(int daysInMonth) {
         // Chart styling
         lineChart.getDescription().setEnabled(false);
         lineChart.setDrawGridBackground(false);
@@ -355,7 +362,7 @@ public class StatsActivity extends AppCompatActivity {
         xAxis.setGranularity(5f);  // Show every 5th day
         xAxis.setGranularityEnabled(true);
         xAxis.setAxisMinimum(1f);   // Start from day 1
-        xAxis.setAxisMaximum(30f);  // End at day 30
+        xAxis.setAxisMaximum(daysInMonth);  // End at the last day of the month
         xAxis.setLabelCount(6, true); // Force exactly 6 labels: 1, 5, 10, 15, 20, 25, 30
         
         // Simple formatter that just shows the day number - force US locale
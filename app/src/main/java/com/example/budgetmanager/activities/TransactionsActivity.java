@@ -1,28 +1,434 @@
 package com.example.budgetmanager.activities;
 
+import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.graphics.Insets;
-import androidx.core.view.ViewCompat;
-import androidx.core.view.WindowInsetsCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.adapters.TransactionsAdapter;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.dao.TransactionDao;
+import com.example.budgetmanager.database.dao.UserDao;
+import com.example.budgetmanager.dto.TransactionWithCategory;
+import com.example.budgetmanager.repositories.TransactionRepository;
+import com.example.budgetmanager.services.TransactionService;
+import com.example.budgetmanager.utils.EdgeToEdgeHelper;
+import com.example.budgetmanager.utils.SharedPreferencesHelper;
+import com.example.budgetmanager.utils.SharedPreferencesHelper.UserManager;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TRANSACTIONS ACTIVITY - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * The full transaction history of the user, newest first, opened from "See All" on the dashboard.
+ * The history is read page by page while scrolling instead of loading every transaction.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Keyset pages (TransactionService.getTransactionsPageAfter / Before): each page starts from the
+ *   (day, id) of the row at the edge of the list, so page 1000 costs the same as page 1.
+ * - Bounded window: the adapter keeps at most MAX_WINDOW_PAGES pages. Loading a page at the bottom
+ *   drops the oldest rows at the top (and the other way around), the dropped pages are read again
+ *   if the user scrolls back. Memory is the same for 1k or 100k transactions.
+ * - Prefetch: the next page is requested PREFETCH_DISTANCE rows before the edge of the list, a loading
+ *   row is shown only if the user gets there before the page.
+ * - The pages are read on a background thread (WAL lets it read while the app writes),
+ *   the adapter is only touched on the main thread.
+ * - generation: a reload (onResume) makes the pages still in flight stale, their result is ignored.
+ * - Search: typing in the search field (after SEARCH_DELAY_MS without typing) switches the list to the
+ *   ranked full-text results (TransactionService.searchTransactions), appended page by page, no window:
+ *   the results stop at TransactionDao.SEARCH_MAX_RESULTS. An empty field goes back to the history.
+ *
+ * DATA FLOW:
+ * onResume() → first page (or reload of the current window after an edit)
+ * scroll down → near the last row → next page appended, top rows dropped
+ * scroll up → near the first row and rows were dropped → previous page prepended, bottom rows dropped
+ * search text → first result page, scroll down → next result page appended
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - OnScrollListener.onScrolled(): called on every scroll step, dy > 0 when scrolling down
+ * - recyclerView.post(): the adapter must not be changed inside a scroll / layout callback,
+ *   the load is started on the next main thread message
+ * - setItemViewCacheSize(): rows kept bound off screen, GapWorker prefetches the next rows between frames
+ */
 public class TransactionsActivity extends AppCompatActivity {
+    // rows per page, the window holds MAX_WINDOW_PAGES pages
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_WINDOW_PAGES = 5;
+    private static final int MAX_WINDOW_SIZE = PAGE_SIZE * MAX_WINDOW_PAGES;
+    // load the next page when the last visible row is this close to the edge
+    private static final int PREFETCH_DISTANCE = 15;
+    // bound rows kept off screen for fast scroll back
+    private static final int ITEM_VIEW_CACHE_SIZE = 10;
+    // search once the user stopped typing for this long
+    private static final long SEARCH_DELAY_MS = 250;
+
+    // Dependencies
+    private TransactionService transactionService;
+    private TransactionRepository transactionRepository;
+    private UserManager userManager;
+    private int currentUserId;
+    private ExecutorService pageExecutor;
+
+    // Views
+    private ImageView backButton;
+    private RecyclerView transactionsRecyclerView;
+    private LinearLayoutManager layoutManager;
+    private TransactionsAdapter transactionsAdapter;
+    private LinearLayout emptyStateContainer;
+    private TextView emptyStateTitle;
+    private EditText searchInput;
+
+    // paging state (main thread only)
+    private boolean firstPageLoaded;
+    private boolean loadingPage;
+    private boolean hasMoreBefore;   // rows were dropped from the top of the window
+    private boolean hasMoreAfter;    // older rows exist below the window
+    private int generation;
+    private String searchQuery = "";  // empty: the history, otherwise the search results
+    private int searchPages;          // result pages shown
+    private final Runnable searchRunnable = this::loadFirstPage;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Enable Edge-to-Edge
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_transactions);
-        ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
-            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
-            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
-            return insets;
+
+        // Handle system bar insets
+        EdgeToEdgeHelper.handleWindowInsets(findViewById(R.id.main));
+
+        initializeDependencies();
+        setupViews();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        // first visit: first page, back from an edit: read the rows of the window again
+        // (search results are ranked, an edit can move a row: they start over)
+        if (firstPageLoaded && searchQuery.isEmpty()) {
+            reloadWindow();
+        } else {
+            loadFirstPage();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // pages still in flight are dropped, and a pending search
+        searchInput.removeCallbacks(searchRunnable);
+        pageExecutor.shutdownNow();
+    }
+
+    /**
+     * Initialize DAOs and services
+     */
+    private void initializeDependencies() {
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
+        transactionService = new TransactionService(new TransactionDao(dbHelper), dbHelper, new UserDao(dbHelper), this);
+        transactionRepository = TransactionRepository.getInstance(this);
+
+        userManager = new UserManager(new SharedPreferencesHelper(this));
+        currentUserId = userManager.getUserId();
+
+        // one page read at a time, off the main thread, none before the database is upgraded
+        pageExecutor = Executors.newSingleThreadExecutor();
+        pageExecutor.execute(DatabaseExecutor.getInstance()::awaitMigrations);
+    }
+
+    /**
+     * Setup view references, RecyclerView and the scroll paging
+     */
+    private void setupViews() {
+        backButton = findViewById(R.id.back_button);
+        transactionsRecyclerView = findViewById(R.id.transactions_recycler);
+        emptyStateContainer = findViewById(R.id.empty_state_container);
+        emptyStateTitle = findViewById(R.id.empty_state_title);
+        searchInput = findViewById(R.id.search_input);
+
+        backButton.setOnClickListener(v -> finish());
+
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchQuery = s.toString().trim();
+                // one query per pause in the typing, not per key
+                searchInput.removeCallbacks(searchRunnable);
+                searchInput.postDelayed(searchRunnable, SEARCH_DELAY_MS);
+            }
+        });
+
+        layoutManager = new LinearLayoutManager(this);
+        transactionsRecyclerView.setLayoutManager(layoutManager);
+        transactionsRecyclerView.setHasFixedSize(true);
+        transactionsRecyclerView.setItemViewCacheSize(ITEM_VIEW_CACHE_SIZE);
+
+        transactionsAdapter = new TransactionsAdapter(this, new ArrayList<>(), new TransactionsAdapter.TransactionClickListener() {
+            @Override
+            public void onEditClick(TransactionWithCategory transaction) {
+                Intent intent = new Intent(TransactionsActivity.this, UpdateTransactionActivity.class);
+                intent.putExtra("TRANSACTION_ID", transaction.getId());
+                startActivity(intent);
+            }
+
+            @Override
+            public void onDeleteClick(TransactionWithCategory transaction) {
+                transactionService.deleteTransaction(transaction, currentUserId, result -> {
+                    if (isDestroyed()) {
+                        return;
+                    }
+                    if (result.isSuccess()) {
+                        // only this row changes, the rest of the window stays as it is
+                        transactionsAdapter.removeTransaction(transaction.getId());
+                        if (transactionsAdapter.getTransactionCount() == 0) {
+                            // no row left to page from
+                            loadFirstPage();
+                        }
+                        updateEmptyState();
+                        Toast.makeText(TransactionsActivity.this, getString(R.string.msg_transaction_deleted_success), Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(TransactionsActivity.this, getString(R.string.error_delete_transaction_prefix, result.getError()), Toast.LENGTH_SHORT).show();
+                    }
+                });
+            }
+        });
+        transactionsRecyclerView.setAdapter(transactionsAdapter);
+
+        transactionsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= transactionsAdapter.getItemCount() - 1 - PREFETCH_DISTANCE) {
+                    recyclerView.post(TransactionsActivity.this::loadNextPage);
+                } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    recyclerView.post(TransactionsActivity.this::loadPreviousPage);
+                }
+            }
+        });
+    }
+
+    /**
+     * First page of the history (or of the search results), replaces the window
+     */
+    private void loadFirstPage() {
+        if (!searchQuery.isEmpty()) {
+            loadSearchPage(true);
+            return;
+        }
+        int pageGeneration = ++generation;
+        loadingPage = true;
+
+        pageExecutor.execute(() -> {
+            // kept by the repository while the ledger is unchanged, reopening the history is instant
+            List<TransactionWithCategory> page = transactionRepository.getFirstTransactionsPage(currentUserId, PAGE_SIZE);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
+
+                firstPageLoaded = true;
+                loadingPage = false;
+                hasMoreBefore = false;
+                hasMoreAfter = page.size() == PAGE_SIZE;
+                transactionsAdapter.updateTransactions(page);
+                updateEmptyState();
+            });
         });
+    }
+
+    /**
+     * Read the rows of the current window again (after an edit in UpdateTransactionActivity),
+     * from its first row, so the position in the history is kept
+     */
+    private void reloadWindow() {
+        TransactionWithCategory first = transactionsAdapter.getFirstTransaction();
+        if (!hasMoreBefore || first == null) {
+            // the window starts at the newest transaction: a first page, as large as the window was
+            reloadFromTop(Math.max(PAGE_SIZE, transactionsAdapter.getTransactionCount()));
+            return;
+        }
+
+        int pageGeneration = ++generation;
+        int count = transactionsAdapter.getTransactionCount();
+        loadingPage = true;
+
+        pageExecutor.execute(() -> {
+            // "after (day, id + 1)" starts at the first row itself
+            List<TransactionWithCategory> rows = transactionService.getTransactionsPageAfter(
+                    currentUserId, first.getDay(), first.getId() + 1, count);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
+
+                loadingPage = false;
+                hasMoreAfter = rows.size() == count;
+                transactionsAdapter.updateTransactions(rows);
+                updateEmptyState();
+            });
+        });
+    }
+
+    private void reloadFromTop(int count) {
+        int pageGeneration = ++generation;
+        loadingPage = true;
+
+        pageExecutor.execute(() -> {
+            List<TransactionWithCategory> rows = transactionService.getTransactionsPage(currentUserId, count);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
+
+                loadingPage = false;
+                hasMoreBefore = false;
+                hasMoreAfter = rows.size() == count;
+                transactionsAdapter.updateTransactions(rows);
+                updateEmptyState();
+            });
+        });
+    }
+
+    /**
+     * Next (older) page, appended at the bottom; rows above the window size are dropped at the top
+     */
+    private void loadNextPage() {
+        if (!searchQuery.isEmpty()) {
+            loadSearchPage(false);
+            return;
+        }
+        TransactionWithCategory last = transactionsAdapter.getLastTransaction();
+        if (loadingPage || !hasMoreAfter || last == null) {
+            return;
+        }
+
+        int pageGeneration = generation;
+        loadingPage = true;
+        transactionsAdapter.setLoadingAfter(true);
+
+        pageExecutor.execute(() -> {
+            List<TransactionWithCategory> page = transactionService.getTransactionsPageAfter(
+                    currentUserId, last.getDay(), last.getId(), PAGE_SIZE);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
 
+                loadingPage = false;
+                transactionsAdapter.setLoadingAfter(false);
+                hasMoreAfter = page.size() == PAGE_SIZE;
+                if (transactionsAdapter.appendPage(page, MAX_WINDOW_SIZE) > 0) {
+                    hasMoreBefore = true;
+                }
+            });
+        });
+    }
+
+    /**
+     * Previous (newer) page, read again after it was dropped; rows above the window size
+     * are dropped at the bottom
+     */
+    private void loadPreviousPage() {
+        TransactionWithCategory first = transactionsAdapter.getFirstTransaction();
+        if (loadingPage || !hasMoreBefore || first == null) {
+            return;
+        }
+
+        int pageGeneration = generation;
+        loadingPage = true;
+        transactionsAdapter.setLoadingBefore(true);
+
+        pageExecutor.execute(() -> {
+            List<TransactionWithCategory> page = transactionService.getTransactionsPageBefore(
+                    currentUserId, first.getDay(), first.getId(), PAGE_SIZE);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
+
+                loadingPage = false;
+                transactionsAdapter.setLoadingBefore(false);
+                hasMoreBefore = page.size() == PAGE_SIZE;
+                if (transactionsAdapter.prependPage(page, MAX_WINDOW_SIZE) > 0) {
+                    hasMoreAfter = true;
+                }
+            });
+        });
+    }
+
+    /**
+     * A page of search results: the first one replaces the list, the next ones are appended
+     */
+    private void loadSearchPage(boolean first) {
+        if (!first && (loadingPage || !hasMoreAfter)) {
+            return;
+        }
+
+        int pageGeneration = first ? ++generation : generation;
+        int page = first ? 0 : searchPages;
+        String query = searchQuery;
+        loadingPage = true;
+        if (!first) {
+            transactionsAdapter.setLoadingAfter(true);
+        }
+
+        pageExecutor.execute(() -> {
+            List<TransactionWithCategory> rows = transactionService.searchTransactions(currentUserId, query, page);
+            runOnUiThread(() -> {
+                if (isStale(pageGeneration)) return;
+
+                firstPageLoaded = true;
+                loadingPage = false;
+                hasMoreBefore = false;
+                hasMoreAfter = rows.size() == TransactionDao.SEARCH_PAGE_SIZE;
+                searchPages = page + 1;
+                if (first) {
+                    transactionsAdapter.updateTransactions(rows);
+                    transactionsRecyclerView.scrollToPosition(0);
+                } else {
+                    transactionsAdapter.setLoadingAfter(false);
+                    transactionsAdapter.appendPage(rows, TransactionDao.SEARCH_MAX_RESULTS);
+                }
+                updateEmptyState();
+            });
+        });
+    }
+
+    // a reload started since this page was requested, or the screen is gone
+    private boolean isStale(int pageGeneration) {
+        return pageGeneration != generation || isDestroyed();
+    }
 
+    private void updateEmptyState() {
+        if (transactionsAdapter.getTransactionCount() == 0 && !hasMoreBefore && !hasMoreAfter) {
+            transactionsRecyclerView.setVisibility(View.GONE);
+            emptyStateContainer.setVisibility(View.VISIBLE);
+            emptyStateTitle.setText(searchQuery.isEmpty()
+                    ? R.string.empty_state_no_transactions : R.string.empty_state_no_results);
+        } else {
+            transactionsRecyclerView.setVisibility(View.VISIBLE);
+            emptyStateContainer.setVisibility(View.GONE);
+        }
     }
-}
\ No newline at end of file
+}
@@ -18,12 +18,11 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.UpdateCategoryRequest;
-import com.example.budgetmanager.dto.results.Result;
-import com.example.budgetmanager.models.Category;
 import com.example.budgetmanager.services.CategoryService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
 import com.example.budgetmanager.utils.SharedPreferencesHelper;
@@ -102,14 +101,11 @@ public class UpdateCategoryActivity extends AppCompatActivity implements Validat
         // Setup UI
         setupViews();
 
-        // Load category data
-        loadCategoryData();
-
-        // Setup icon grid
-        setupIconGrid();
-
         // Setup listeners
         setupListeners();
+
+        // Load category data, then the icon grid (it shows the current icon)
+        loadCategoryData();
     }
 
     /**
@@ -156,15 +152,23 @@ public class UpdateCategoryActivity extends AppCompatActivity implements Validat
     }
 
     /**
-     * Load category data and pre-fill form
+     * Load category data on a reader thread, then pre-fill the form and the icon grid
      */
     private void loadCategoryData() {
-        Category category = categoryDao.getCategoryById(categoryId);
-        if (category != null) {
-            nameInput.setText(category.getName());
-            selectedIconName  = category.getIconName(); // set current icon name
-            categoryType = category.getType(); // set category type
-        }
+        // nothing to save until the form is filled
+        updateButton.setEnabled(false);
+        DatabaseExecutor.getInstance().read(() -> categoryDao.getCategoryById(categoryId), category -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (category != null) {
+                nameInput.setText(category.getName());
+                selectedIconName  = category.getIconName(); // set current icon name
+                categoryType = category.getType(); // set category type
+            }
+            setupIconGrid();
+            updateButton.setEnabled(true);
+        });
     }
 
     /**
@@ -240,15 +244,18 @@ public class UpdateCategoryActivity extends AppCompatActivity implements Validat
         );
 
         // Call service
-        Result<Category> result = categoryService.updateCategory(request);
-
-        if (result.isSuccess()) {
-            Toast.makeText(this, getString(R.string.msg_category_updated), Toast.LENGTH_SHORT).show();
-            finish(); // Return to CategoriesActivity
-        } else {
-            formServiceError.setText(result.getError());
-            formServiceError.setVisibility(View.VISIBLE);
-        }
+        categoryService.updateCategory(request, result -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (result.isSuccess()) {
+                Toast.makeText(this, getString(R.string.msg_category_updated), Toast.LENGTH_SHORT).show();
+                finish(); // Return to CategoriesActivity
+            } else {
+                formServiceError.setText(result.getError());
+                formServiceError.setVisibility(View.VISIBLE);
+            }
+        });
     }
 
     @Override
@@ -17,14 +17,15 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.TransactionDao;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.CreateTransactionRequest;
 import com.example.budgetmanager.dto.requests.UpdateTransactionRequest;
-import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.models.Transaction;
 import com.example.budgetmanager.services.TransactionService;
 import com.example.budgetmanager.utils.EdgeToEdgeHelper;
@@ -44,6 +45,7 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
 
     //  DEPENDENCIES
     private TransactionService transactionService;
+    private TransactionDao transactionDao;
     private Validator validator;
     private int transactionId;
     private Transaction currentTransaction;
@@ -84,6 +86,9 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
 
         // Setup listeners
         setupListeners();
+
+        // read the transaction, then prefill the form
+        loadTransaction();
     }
 
     /**
@@ -91,16 +96,13 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
      */
     private void initializeDependencies() {
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(this);
-        TransactionDao transactionDao = new TransactionDao(dbHelper);
+        transactionDao = new TransactionDao(dbHelper);
         UserDao userDao= new UserDao(dbHelper);
         transactionService = new TransactionService(transactionDao, dbHelper, userDao, this);
 
         // get transaction id from intent
         transactionId = getIntent().getIntExtra("TRANSACTION_ID", -1);
 
-        // get current transaction
-        currentTransaction = transactionDao.getTransactionById(transactionId);
-
         // Initialize Saripaar validator
         validator = new Validator(this);
         validator.setValidationListener(this);
@@ -118,12 +120,31 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
         noteInput = findViewById(R.id.note_input);
         saveButton = findViewById(R.id.save_button);
         backButton = findViewById(R.id.back_button);
+    }
 
-
-        // prefill the fields with the current transaction data
-        amountInput.setText(String.valueOf(currentTransaction.getAmount()));
-        dateInput.setText(currentTransaction.getDate());
-        noteInput.setText(currentTransaction.getNote());
+    /**
+     * Read the current transaction on a reader thread and prefill the fields with its data,
+     * the form can't be saved (nor its date picked) before
+     */
+    private void loadTransaction() {
+        saveButton.setEnabled(false);
+        dateInput.setEnabled(false);
+        DatabaseExecutor.getInstance().read(() -> transactionDao.getTransactionById(transactionId), transaction -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (transaction == null) {
+                // deleted meanwhile (or a bad id)
+                finish();
+                return;
+            }
+            currentTransaction = transaction;
+            amountInput.setText(currentTransaction.getAmount().toPlainString());
+            dateInput.setText(currentTransaction.getDate());
+            noteInput.setText(currentTransaction.getNote());
+            saveButton.setEnabled(true);
+            dateInput.setEnabled(true);
+        });
     }
 
     /**
@@ -188,7 +209,7 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
     @Override
     public void onValidationSucceeded() {
         // Extract form data
-        double amount = Double.parseDouble(amountInput.getText().toString());
+        Money amount = Money.parse(amountInput.getText().toString());
         String note = noteInput.getText().toString().trim();
         String date = dateInput.getText().toString().trim();
 
@@ -204,15 +225,18 @@ public class UpdateTransactionActivity extends AppCompatActivity implements Vali
         );
 
         // Call service
-        Result<Transaction> result = transactionService.updateTransaction(request);
-
-        if (result.isSuccess()) {
-            Toast.makeText(this, getString(R.string.msg_transaction_saved), Toast.LENGTH_SHORT).show();
-            finish(); // Return to MainActivity (which will refresh)
-        } else {
-            update_transaction_form_error.setVisibility(View.VISIBLE);
-            update_transaction_form_error.setText(result.getError());
-        }
+        transactionService.updateTransaction(request, result -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (result.isSuccess()) {
+                Toast.makeText(this, getString(R.string.msg_transaction_saved), Toast.LENGTH_SHORT).show();
+                finish(); // Return to MainActivity (which will refresh)
+            } else {
+                update_transaction_form_error.setVisibility(View.VISIBLE);
+                update_transaction_form_error.setText(result.getError());
+            }
+        });
     }
 
     @Override
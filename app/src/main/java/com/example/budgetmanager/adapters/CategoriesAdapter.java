@@ -29,6 +29,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 
 public class CategoriesAdapter extends RecyclerView.Adapter<CategoriesAdapter.CategoryViewHolder> {
@@ -68,6 +69,10 @@ public class CategoriesAdapter extends RecyclerView.Adapter<CategoriesAdapter.Ca
         // Bind Name
         holder.categoryName.setText(category.getName());
 
+        // Bind Total (maintained column, no query per item)
+        holder.categoryTotal.setText(String.format(Locale.US,
+                context.getString(R.string.currency_format), category.getTotal().toDouble()));
+
         // Bind Icon
         int iconRes = CategoryIconMapper.getIconResource(category.getIconName());
         holder.categoryIcon.setImageResource(iconRes);
@@ -135,6 +140,7 @@ public class CategoriesAdapter extends RecyclerView.Adapter<CategoriesAdapter.Ca
 
     static class CategoryViewHolder extends RecyclerView.ViewHolder {
         TextView categoryName;
+        TextView categoryTotal;
         ImageView categoryIcon;
         CardView iconContainer;
         ImageView category_menu;
@@ -143,6 +149,7 @@ public class CategoriesAdapter extends RecyclerView.Adapter<CategoriesAdapter.Ca
             super(itemView);
             category_menu = itemView.findViewById(R.id.category_menu);
             categoryName = itemView.findViewById(R.id.category_name);
+            categoryTotal = itemView.findViewById(R.id.category_total);
             categoryIcon = itemView.findViewById(R.id.category_icon);
             iconContainer = itemView.findViewById(R.id.icon_container);
         }
@@ -21,7 +21,7 @@ import java.util.Locale;
 public class LegendAdapter extends RecyclerView.Adapter<LegendAdapter.LegendViewHolder> {
     private List<CategoryTotal> categoryTotals;
     private Context context;
-    private double totalAmount;
+    private long totalCents;
     private DecimalFormat currencyFormatter;
     private String transactionType; // "income" or "expense"
     
@@ -31,9 +31,9 @@ public class LegendAdapter extends RecyclerView.Adapter<LegendAdapter.LegendView
         this.transactionType = transactionType;
         
         // Calculate total for percentage calculation
-        this.totalAmount = 0;
+        this.totalCents = 0;
         for (CategoryTotal categoryTotal : categoryTotals) {
-            this.totalAmount += categoryTotal.getTotal();
+            this.totalCents += categoryTotal.getTotal().getCents();
         }
           // Setup currency formatter - force US locale to avoid Arabic numerals
         this.currencyFormatter = new DecimalFormat("#,##0.00");
@@ -58,10 +58,10 @@ public class LegendAdapter extends RecyclerView.Adapter<LegendAdapter.LegendView
         holder.legendName.setText(categoryTotal.getCategoryName());
         
         // Set amount
-        String formattedAmount = "$" + currencyFormatter.format(categoryTotal.getTotal());
+        String formattedAmount = "$" + currencyFormatter.format(categoryTotal.getTotal().toDouble());
         holder.legendAmount.setText(formattedAmount);
           // Set percentage - force US locale to avoid Arabic numerals
-        double percentage = totalAmount > 0 ? (categoryTotal.getTotal() / totalAmount) * 100 : 0;
+        double percentage = totalCents > 0 ? (categoryTotal.getTotal().getCents() * 100.0) / totalCents : 0;
         holder.legendPercentage.setText(String.format(Locale.US, "%.1f%%", percentage));
         
         // Set icon
@@ -82,9 +82,9 @@ public class LegendAdapter extends RecyclerView.Adapter<LegendAdapter.LegendView
     public void updateData(List<CategoryTotal> newCategoryTotals, String newTransactionType) {
         this.categoryTotals = newCategoryTotals;
         this.transactionType = newTransactionType;
-        this.totalAmount = 0;
+        this.totalCents = 0;
         for (CategoryTotal categoryTotal : newCategoryTotals) {
-            this.totalAmount += categoryTotal.getTotal();
+            this.totalCents += categoryTotal.getTotal().getCents();
         }
         notifyDataSetChanged();
     }
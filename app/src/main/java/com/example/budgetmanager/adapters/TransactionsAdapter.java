@@ -39,6 +39,11 @@ import java.util.Locale;
  *   we need the categoryName for icon mapping.
  * - Uses utility classes (CategoryIconMapper, TransactionColors) for consistency.
  * - Immutable list updates via updateTransactions() method.
+ * - Paging (TransactionsActivity): appendPage() / prependPage() grow the list at one end and
+ *   trim the other end to a maximum size, so the history keeps a bounded window of rows
+ *   whatever its length. Loading rows (item_loading) are shown above / below the list while a page loads.
+ * - Stable ids (the transaction id): RecyclerView keeps the visible rows in place when
+ *   rows are inserted / removed off screen at the other end of the window.
  *
  * DATA FLOW:
  * MainActivity → loads List<TransactionWithCategory> from DAO → passes to adapter
@@ -47,24 +52,38 @@ import java.util.Locale;
  * LOW-LEVEL CONCEPTS REFERENCE:
  * - ViewHolder pattern: Caches view references to avoid findViewById() on every bind.
  * - notifyDataSetChanged(): Tells RecyclerView to re-render all items (simple but not optimal).
+ * - notifyItemRangeInserted() / notifyItemRangeRemoved(): only the changed range is laid out again (paging).
+ * - View types: one adapter serves two kinds of rows (transaction / loading), getItemViewType() tells which.
  * - ColorFilter: Tints the icon drawable at runtime (allows white icons to be colored dynamically).
  * - Colors resources: the color tokens from colors.xml are parsed in compile time and stored in the R class 
     as static final integers. These IDs reference the color definitions in the resources folder
     and are used to retrieve the actual color values at runtime.
  * - ContextCompat is a "helper" that receive context and id and checks the user's Android version and decide to call right version of  id-color mapper 
  */
-public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapter.ViewHolder> {
+public class TransactionsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int VIEW_TYPE_TRANSACTION = 0;
+    private static final int VIEW_TYPE_LOADING = 1;
+
+    // stable ids of the loading rows (transaction ids are positive)
+    private static final long LOADING_BEFORE_ID = -1;
+    private static final long LOADING_AFTER_ID = -2;
     
     private List<TransactionWithCategory> transactions = new ArrayList<>();
     private  final  TransactionClickListener listener;
     private final  Context context;
 
+    // loading rows shown above / below the transactions
+    private boolean loadingBefore;
+    private boolean loadingAfter;
+
 
     // constructor
     public  TransactionsAdapter(Context context, List<TransactionWithCategory> transactions, TransactionClickListener listener) {
         this.context = context;
-        this.transactions = transactions;
+        this.transactions = new ArrayList<>(transactions);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     // listener interface for transaction actions callbacks
@@ -76,7 +95,13 @@ public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapte
     // create the view and wrap it in a view holder
     @NonNull
     @Override
-    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (viewType == VIEW_TYPE_LOADING) {
+            View view = LayoutInflater.from(context)
+                    .inflate(R.layout.item_loading, parent, false);
+            return new LoadingViewHolder(view);
+        }
+
         // Inflate the transaction_item layout
         View view = LayoutInflater.from(context)
                 .inflate(R.layout.transaction_item, parent, false);
@@ -85,9 +110,15 @@ public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapte
     
     // bind the db data to the view holder which is a container of the xml parsed view
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        // get transaction by its screen position (index in array)
-        TransactionWithCategory transaction = transactions.get(position);
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder viewHolder, int position) {
+        // loading rows have nothing to bind
+        if (!(viewHolder instanceof ViewHolder)) {
+            return;
+        }
+        ViewHolder holder = (ViewHolder) viewHolder;
+
+        // get transaction by its screen position (index in array, after the loading row if any)
+        TransactionWithCategory transaction = transactions.get(position - firstTransactionPosition());
         
         // Map category name -> icon resource
         int iconRes = CategoryIconMapper.getIconResource(transaction.getCategoryIcon());
@@ -112,7 +143,7 @@ public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapte
           // Format amount with +/- prefix - force US locale to avoid Arabic numerals
         String prefix = transactionType.equalsIgnoreCase("income") ? "+ $" : "- $";
         holder.transactionAmount.setText(
-            String.format(Locale.US, "%s%.2f", prefix, transaction.getAmount())
+            String.format(Locale.US, "%s%.2f", prefix, transaction.getAmount().toDouble())
         );
         
         // Set amount color
@@ -165,16 +196,137 @@ public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapte
     
     @Override
     public int getItemCount() {
-        return transactions.size();
+        return firstTransactionPosition() + transactions.size() + (loadingAfter ? 1 : 0);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        if (loadingBefore && position == 0) {
+            return VIEW_TYPE_LOADING;
+        }
+        if (loadingAfter && position == getItemCount() - 1) {
+            return VIEW_TYPE_LOADING;
+        }
+        return VIEW_TYPE_TRANSACTION;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (loadingBefore && position == 0) {
+            return LOADING_BEFORE_ID;
+        }
+        if (loadingAfter && position == getItemCount() - 1) {
+            return LOADING_AFTER_ID;
+        }
+        return transactions.get(position - firstTransactionPosition()).getId();
     }
     
     /**
      * Update the adapter's data and refresh the UI
+     * (the list is copied, the loading rows are removed)
      */
     public void updateTransactions(List<TransactionWithCategory> newTransactions) {
-        this.transactions = newTransactions;
+        this.transactions = new ArrayList<>(newTransactions);
+        this.loadingBefore = false;
+        this.loadingAfter = false;
         notifyDataSetChanged();
     }
+
+    /**
+     * Add a page after the last transaction, then drop rows from the top
+     * so the list keeps at most maxTransactions rows
+     * @return the number of rows dropped from the top
+     */
+    public int appendPage(List<TransactionWithCategory> page, int maxTransactions) {
+        int start = firstTransactionPosition() + transactions.size();
+        transactions.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+
+        int overflow = transactions.size() - maxTransactions;
+        if (overflow <= 0) {
+            return 0;
+        }
+        transactions.subList(0, overflow).clear();
+        notifyItemRangeRemoved(firstTransactionPosition(), overflow);
+        return overflow;
+    }
+
+    /**
+     * Add a page before the first transaction, then drop rows from the bottom
+     * so the list keeps at most maxTransactions rows
+     * @return the number of rows dropped from the bottom
+     */
+    public int prependPage(List<TransactionWithCategory> page, int maxTransactions) {
+        transactions.addAll(0, page);
+        notifyItemRangeInserted(firstTransactionPosition(), page.size());
+
+        int overflow = transactions.size() - maxTransactions;
+        if (overflow <= 0) {
+            return 0;
+        }
+        int keep = transactions.size() - overflow;
+        transactions.subList(keep, transactions.size()).clear();
+        notifyItemRangeRemoved(firstTransactionPosition() + keep, overflow);
+        return overflow;
+    }
+
+    /**
+     * Remove one transaction (after a delete) without reloading the list
+     */
+    public void removeTransaction(int transactionId) {
+        for (int i = 0; i < transactions.size(); i++) {
+            if (transactions.get(i).getId() == transactionId) {
+                transactions.remove(i);
+                notifyItemRemoved(firstTransactionPosition() + i);
+                return;
+            }
+        }
+    }
+
+    // show / hide the loading row above the transactions
+    public void setLoadingBefore(boolean loading) {
+        if (loadingBefore == loading) {
+            return;
+        }
+        loadingBefore = loading;
+        if (loading) {
+            notifyItemInserted(0);
+        } else {
+            notifyItemRemoved(0);
+        }
+    }
+
+    // show / hide the loading row below the transactions
+    public void setLoadingAfter(boolean loading) {
+        if (loadingAfter == loading) {
+            return;
+        }
+        int position = firstTransactionPosition() + transactions.size();
+        loadingAfter = loading;
+        if (loading) {
+            notifyItemInserted(position);
+        } else {
+            notifyItemRemoved(position);
+        }
+    }
+
+    // first / last transaction of the list (the paging keys), null when it is empty
+    public TransactionWithCategory getFirstTransaction() {
+        return transactions.isEmpty() ? null : transactions.get(0);
+    }
+
+    public TransactionWithCategory getLastTransaction() {
+        return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1);
+    }
+
+    public int getTransactionCount() {
+        return transactions.size();
+    }
+
+    // adapter position of the first transaction (1 when the top loading row is shown)
+    private int firstTransactionPosition() {
+        return loadingBefore ? 1 : 0;
+    }
     
     /**
      * ViewHolder - caches view references for performance
@@ -203,4 +355,13 @@ public class TransactionsAdapter extends RecyclerView.Adapter<TransactionsAdapte
             menuIcon = itemView.findViewById(R.id.transaction_menu);
         }
     }
+
+    /**
+     * LoadingViewHolder - the progress row shown while a page loads
+     */
+    static class LoadingViewHolder extends RecyclerView.ViewHolder {
+        LoadingViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
 }
\ No newline at end of file
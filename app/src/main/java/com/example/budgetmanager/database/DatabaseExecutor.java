@@ -0,0 +1,327 @@
+package com.example.budgetmanager.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.budgetmanager.dto.results.Result;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DATABASE EXECUTOR - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * The threads every database and service call of the UI runs on, app-wide:
+ * - write(): ONE writer thread, every service write (create / update / delete, sign up, profile)
+ * - read():  a small pool of reader threads, the screen queries (repositories, pages, lookups)
+ * - compute(): ONE thread for the CPU-heavy work, password hashing (BCrypt, 100ms+ per call)
+ * - file(): ONE thread for the long file jobs (CSV import / export, backup / restore)
+ * The result is handed back to a Callback on the main thread:
+ *   executor.write(() -> transactionService.createTransaction(request, userId),
+ *           result -> { if (result.isSuccess()) finish(); });
+ *
+ * KEY DESIGN DECISIONS:
+ * - Single writer: SQLite has one write connection anyway, queuing the writes in-process keeps
+ *   them in submission order and never leaves one waiting on the database lock.
+ * - Bounded readers (READER_THREADS): WAL lets reads run next to the writer, Android opens a few
+ *   read connections, more threads than connections would only queue inside SQLite.
+ * - Every call returns its Future: cancel(...) drops the callback (a screen that was left),
+ *   even if the work already finished, and a work not started yet doesn't run at all.
+ * - Hashing has its own thread: on the writer it would hold every other write for its whole cost.
+ *   A compute() work that has to write hands the write to the writer (writeAndWait), after the hash.
+ *   cancel(true) interrupts it: BCrypt can't stop halfway, but the write that follows is not queued.
+ * - A work that throws never crashes the app: the failure goes to Callback.onError() on the
+ *   main thread (logged by default). The service calls wrap their callback with orError(), so a
+ *   screen always gets a Result<T>: a thrown work, or the null of a rolled back runInTransaction,
+ *   reaches it as Result.error(message), like the expected failures.
+ * - File jobs have their own thread too, they would hold a reader or the writer for seconds.
+ *   It is app-wide, a rotation of the screen that started one doesn't stop it (see ProfileViewModel).
+ *   Their writes still go through the writer, one batch at a time (writeAndWait), so there is
+ *   never a second thread writing. The history pages of TransactionsActivity keep their single
+ *   page thread: one page after the other, in the order of the scroll.
+ * - Migrations: the pending migration steps run as the first work of the writer (startMigrations(),
+ *   from BudgetApplication), off the database open. Until they are done every work of every lane
+ *   waits for them, a query never meets a half upgraded schema. The screens show the wait with
+ *   isMigrating() / afterMigrations().
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - FutureTask.done(): called once the work finished, threw or was cancelled, on the worker thread
+ * - Handler(Looper.getMainLooper()).post(): runs a Runnable on the main (UI) thread
+ * - allowCoreThreadTimeOut: idle reader / hasher threads stop after KEEP_ALIVE_SECONDS
+ * - Future.cancel(true): also sets the interrupt flag of the thread running the work
+ * - Future.get() of the migrations: blocks until the writer finished them, rethrows their failure
+ */
+public final class DatabaseExecutor {
+
+    /**
+     * The database / service work, runs on a worker thread
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run();
+    }
+
+    /**
+     * Receives the result on the main thread, not called if the Future was cancelled
+     */
+    @FunctionalInterface
+    public interface Callback<T> {
+        void onResult(T result);
+
+        /**
+         * The work threw, main thread. Default: logged, the screen keeps what it shows
+         */
+        default void onError(Throwable error) {
+            error.printStackTrace();
+        }
+    }
+
+    private static final int READER_THREADS = 3;
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    private static DatabaseExecutor instance;
+
+    public static synchronized DatabaseExecutor getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutor();
+        }
+        return instance;
+    }
+
+    private final ExecutorService writer;
+    private final ThreadPoolExecutor readers;
+    private final ThreadPoolExecutor hasher;
+    private final ThreadPoolExecutor files;
+    private volatile Thread writerThread;
+    // the pending migration steps, every work waits for them (null: not started)
+    private volatile Future<?> migrations;
+    private final Handler mainThread = new Handler(Looper.getMainLooper());
+
+    private DatabaseExecutor() {
+        ThreadFactory writerFactory = threadFactory("db-writer");
+        writer = Executors.newSingleThreadExecutor(runnable -> writerThread = writerFactory.newThread(runnable));
+        readers = new ThreadPoolExecutor(READER_THREADS, READER_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("db-reader"));
+        readers.allowCoreThreadTimeOut(true);
+        // a login / sign up / password change now and then, no need to keep the thread
+        hasher = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("password-hasher"));
+        hasher.allowCoreThreadTimeOut(true);
+        files = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("file-jobs"));
+        files.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run the pending migration steps (DatabaseHelper.runPendingMigrations) on the writer thread,
+     * once per process. Every work submitted from now on waits for them.
+     */
+    public synchronized void startMigrations(DatabaseHelper dbHelper) {
+        if (migrations == null) {
+            migrations = writer.submit(dbHelper::runPendingMigrations);
+        }
+    }
+
+    /**
+     * @return true while the migration steps are running
+     */
+    public boolean isMigrating() {
+        Future<?> steps = migrations;
+        return steps != null && !steps.isDone();
+    }
+
+    /**
+     * Callback on the main thread once the migration steps are done, onError if one failed
+     */
+    public Future<Boolean> afterMigrations(Callback<Boolean> callback) {
+        return read(() -> Boolean.TRUE, callback);
+    }
+
+    /**
+     * Block until the migration steps are done, for the threads of their own (history pages).
+     * Returns at once if they are not started, or are done (always on the writer, they ran first there).
+     * @return false if interrupted while waiting
+     * @throws IllegalStateException if a step failed, the database is not usable
+     */
+    public boolean awaitMigrations() {
+        Future<?> steps = migrations;
+        if (steps == null) {
+            return true;
+        }
+        try {
+            steps.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Database upgrade failed", e.getCause());
+        }
+    }
+
+    /**
+     * Run a query on a reader thread
+     * @param callback main thread, may be null
+     */
+    public <T> Future<T> read(Work<T> work, Callback<T> callback) {
+        return submit(readers, work, callback);
+    }
+
+    /**
+     * Run a write (or a service call that writes) on the writer thread, in submission order
+     * @param callback main thread, may be null
+     */
+    public <T> Future<T> write(Work<T> work, Callback<T> callback) {
+        return submit(writer, work, callback);
+    }
+
+    /**
+     * Run CPU-heavy work (password hashing) on its own thread, off the writer and the readers
+     * @param callback main thread, may be null
+     */
+    public <T> Future<T> compute(Work<T> work, Callback<T> callback) {
+        return submit(hasher, work, callback);
+    }
+
+    /**
+     * Run a long file job (import / export / backup / restore) on the file thread,
+     * its writes go through writeAndWait()
+     * @param callback main thread, may be null
+     */
+    public <T> Future<T> file(Work<T> work, Callback<T> callback) {
+        return submit(files, work, callback);
+    }
+
+    /**
+     * From a compute() or file() work: run its write on the writer thread (in order with the
+     * other writes) and wait for it. Cancelled (interrupted) before the write ran: it never runs,
+     * returns null. Interrupted while it runs: waits for it, a committed write is never lost.
+     */
+    public <T> T writeAndWait(Work<T> work) {
+        if (Thread.currentThread() == writerThread) {
+            return work.run();
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        // taken by the writer when it starts the work, or by the caller that gives up before
+        AtomicBoolean claimed = new AtomicBoolean();
+        FutureTask<T> task = new FutureTask<>(() -> claimed.compareAndSet(false, true) ? work.run() : null);
+        writer.execute(task);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    if (claimed.compareAndSet(false, true)) {
+                        return null; // not started, never runs
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            // failed like on the writer: the calling work fails with it
+            throw new RuntimeException(e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Callback of a service call: its failures reach it as a Result.error(errorMessage),
+     * the work threw or it returned null (runInTransaction rolled back)
+     * @return null if callback is null
+     */
+    public static <T> Callback<Result<T>> orError(Callback<Result<T>> callback, String errorMessage) {
+        if (callback == null) {
+            return null;
+        }
+        return new Callback<Result<T>>() {
+            @Override
+            public void onResult(Result<T> result) {
+                callback.onResult(result != null ? result : Result.error(errorMessage));
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                error.printStackTrace();
+                callback.onResult(Result.error(errorMessage));
+            }
+        };
+    }
+
+    private <T> Future<T> submit(Executor executor, Work<T> work, Callback<T> callback) {
+        FutureTask<T> task = new FutureTask<T>(() -> {
+            if (!awaitMigrations()) {
+                throw new CancellationException(); // cancelled while waiting, never runs
+            }
+            return work.run();
+        }) {
+            // FutureTask ignores a cancel() once the work is done, the posted callback must not
+            private volatile boolean dropped;
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                dropped = true;
+                return super.cancel(mayInterruptIfRunning);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    T result = get();
+                    if (callback != null) {
+                        mainThread.post(() -> {
+                            // cancelled after the work was done: the screen doesn't want it anymore
+                            if (!dropped) {
+                                callback.onResult(result);
+                            }
+                        });
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (callback != null) {
+                        mainThread.post(() -> {
+                            if (!dropped) {
+                                callback.onError(cause);
+                            }
+                        });
+                    } else {
+                        cause.printStackTrace();
+                    }
+                }
+            }
+        };
+        executor.execute(task);
+        return task;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1); // below the UI thread
+            return thread;
+        };
+    }
+}
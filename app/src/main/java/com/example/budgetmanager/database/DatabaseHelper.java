@@ -8,6 +8,7 @@ import android.database.sqlite.SQLiteOpenHelper;
 
 import java.util.Map;
 
+import com.example.budgetmanager.database.migrations.MigrationRunner;
 import com.example.budgetmanager.models.User;
 
 /**
@@ -32,7 +33,9 @@ import com.example.budgetmanager.models.User;
  *
  * SQLiteOpenHelper: Android wrapper that manages database creation/upgrades
  * - onCreate(): Called when app first installs (database doesn't exist)
- * - onUpgrade(): Called when DATABASE_VERSION increases (migration logic)
+ * - onUpgrade(): Called when DATABASE_VERSION increases, only records the old version
+ * - runPendingMigrations(): the pending migration steps, after the open on the writer thread
+ *   (see DatabaseExecutor.startMigrations and database/migrations/MigrationRunner)
  *
  * Cursor:
  *  - Concept: A pointer to the result set of a query,
@@ -54,6 +57,14 @@ import com.example.budgetmanager.models.User;
  * - getWritableDatabase(): For mutations (INSERT, UPDATE, DELETE)
  * - Transactions: beginTransaction(), setTransactionSuccessful(), endTransaction()
  *
+ * WAL (write-ahead logging):
+ * - Commits are appended to budget.db-wal, readers see the last committed state without locking
+ * - Checkpoints copy the wal back into budget.db (idle time, see WalCheckpointer)
+ *
+ * Table versions:
+ * - Every DAO write bumps the version of the tables it changed, published after the commit
+ *   (see TableChangeTracker), screens compare them on resume instead of re-querying
+ *
  * Foreign Keys:
  * - user_id in categories/transactions ensures data isolation
  * - category_id in transactions maintains referential integrity
@@ -61,7 +72,7 @@ import com.example.budgetmanager.models.User;
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "budget.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 9;
 
     // === USER TABLE CONTRACT ===
     public static class UserTable {
@@ -70,8 +81,10 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         public static final String NAME_COL = "name";
         public static final String EMAIL = "email";
         public static final String PASSWORD = "password";
-        public static final String BALANCE = "balance";
-        public static final String CREATED_AT = "created_at";
+        public static final String BALANCE = "balance_cents"; // INTEGER cents, see models/Money
+        public static final String CREATED_AT = "created_at"; // epoch millis
+        public static final String TOTAL_INCOME = "total_income_cents"; // lifetime income (cents), see RollupDao
+        public static final String TOTAL_EXPENSE = "total_expense_cents"; // lifetime expenses (cents), see RollupDao
     }
 
     // === CATEGORY TABLE CONTRACT ===
@@ -82,7 +95,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         public static final String ICON_NAME = "icon_name";
         public static final String TYPE = "type";
         public static final String USER_ID = "user_id";
-        public static final String CREATED_AT = "created_at";
+        public static final String CREATED_AT = "created_at"; // epoch millis
+        public static final String TOTAL = "total_cents"; // running sum of its transactions (cents), see RollupDao
+        public static final String TX_COUNT = "tx_count"; // running count of its transactions
     }
 
     // category type values
@@ -116,13 +131,74 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public static class TransactionTable {
         public static final String TABLE_NAME = "transactions";
         public static final String ID = "id";
-        public static final String AMOUNT = "amount";
+        public static final String AMOUNT = "amount_cents"; // INTEGER cents, see models/Money
         public static final String TYPE = "type";
         public static final String NOTE = "note";
-        public static final String DATE = "date";
+        public static final String DATE = "date"; // display text, normalized "yyyy-MM-dd"
+        public static final String DAY = "day"; // INTEGER epoch day of DATE, used for ordering and ranges (see utils/EpochDays)
         public static final String CATEGORY_ID = "category_id";
         public static final String USER_ID = "user_id";
-        public static final String CREATED_AT = "created_at";
+        public static final String CREATED_AT = "created_at"; // epoch millis
+    }
+
+    // === DAILY TOTALS TABLE CONTRACT ===
+    // rollup of the transactions per (user, type, day, category), kept up to date by the
+    // service write paths inside their transaction (see database/dao/RollupDao)
+    public static class DailyTotalsTable {
+        public static final String TABLE_NAME = "daily_totals";
+        public static final String USER_ID = "user_id";
+        public static final String DAY = "day"; // epoch day
+        public static final String CATEGORY_ID = "category_id";
+        public static final String TYPE = "type";
+        public static final String TOTAL = "total_cents"; // INTEGER cents, see models/Money
+        public static final String COUNT = "count"; // number of transactions summed in TOTAL
+    }
+
+    // === MONTHLY TOTALS TABLE CONTRACT ===
+    // same rollup per calendar month, for the 12 months / multi-year series (see ChartDao)
+    public static class MonthlyTotalsTable {
+        public static final String TABLE_NAME = "monthly_totals";
+        public static final String USER_ID = "user_id";
+        public static final String MONTH = "month"; // yyyyMM, e.g. 202510 (see EpochDays.yearMonth)
+        public static final String CATEGORY_ID = "category_id";
+        public static final String TYPE = "type";
+        public static final String TOTAL = "total_cents"; // INTEGER cents, see models/Money
+        public static final String COUNT = "count"; // number of transactions summed in TOTAL
+    }
+
+    // === TRANSACTION SEARCH TABLE CONTRACT ===
+    // FTS4 full-text index of the transaction notes and their category name, one row per transaction
+    // (docid = transactions.id), kept in sync by the triggers of createSearchTriggers()
+    public static class TransactionSearchTable {
+        public static final String TABLE_NAME = "transactions_fts";
+        public static final String DOCID = "docid"; // = transactions.id
+        public static final String NOTE = "note";
+        public static final String CATEGORY_NAME = "category_name";
+    }
+
+    // === TRIGGER NAMES ===
+    public static class TriggerName {
+        public static final String SEARCH_AFTER_INSERT = "trg_transactions_fts_insert";
+        public static final String SEARCH_AFTER_UPDATE = "trg_transactions_fts_update";
+        public static final String SEARCH_AFTER_DELETE = "trg_transactions_fts_delete";
+        public static final String SEARCH_CATEGORY_RENAME = "trg_transactions_fts_category_rename";
+    }
+
+    // === INDEX NAMES ===
+    // each index matches the WHERE / ORDER BY of a DAO query so SQLite can seek instead of scanning
+    public static class IndexName {
+        // transactions list and date ranges: WHERE user_id = ? [AND day range] ORDER BY day DESC, id DESC
+        // the entries end with the rowid (id), so it is also the (user_id, day, id) index of the history pages
+        public static final String TRANSACTIONS_USER_DAY = "idx_transactions_user_day";
+        // per type and day scans of the raw rows (rollup rebuild), the totals themselves read daily_totals
+        public static final String TRANSACTIONS_USER_TYPE_DAY_AMOUNT = "idx_transactions_user_type_day_amount";
+        // per category sums and the category join of the charts, amount read from the index (covering)
+        public static final String TRANSACTIONS_CATEGORY_AMOUNT = "idx_transactions_category_amount";
+        // categories of a user filtered by type (charts, spinners)
+        public static final String CATEGORIES_USER_TYPE = "idx_categories_user_type";
+        // rollup rows of a category, used by the ON DELETE CASCADE of a category (daily / monthly)
+        public static final String DAILY_TOTALS_CATEGORY = "idx_daily_totals_category";
+        public static final String MONTHLY_TOTALS_CATEGORY = "idx_monthly_totals_category";
     }
 
     // singleton pattern
@@ -138,16 +214,48 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return instance;
     }
     
+    // moves WAL checkpoints to idle time
+    private final WalCheckpointer checkpointer;
+
+    // compiled statements of the hot writes
+    private final StatementCache statementCache;
+
+    // per table versions, bumped by the DAO writes
+    private final TableChangeTracker changeTracker;
+
+    // per thread: a nested runInTransaction failed, the outermost one rolls back with it
+    private final ThreadLocal<Boolean> rollbackOnly = new ThreadLocal<>();
+
     // Make constructor private
     private DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        checkpointer = new WalCheckpointer(this);
+        statementCache = new StatementCache(this);
+        changeTracker = new TableChangeTracker(this);
+        // every committed DAO write goes through the tracker (in a transaction or not): one place to arm it
+        changeTracker.addObserver(tables -> checkpointer.onWrite());
+    }
+
+    // compiled statements shared by the DAOs (see StatementCache)
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    // table versions and change observers (see TableChangeTracker)
+    public TableChangeTracker getChangeTracker() {
+        return changeTracker;
     }
 
-    // Enable foreign key constraints
+    // Enable foreign key constraints and write-ahead logging
     @Override
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
         db.setForeignKeyConstraintsEnabled(true);
+
+        // WAL: the writer appends to budget.db-wal while readers keep reading the last commit,
+        // Android then opens a pool of read connections next to the single write connection,
+        // so the stats / dashboard queries never wait on a transaction being written
+        db.enableWriteAheadLogging();
     }
 
     @Override
@@ -157,8 +265,10 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             UserTable.NAME_COL + " TEXT NOT NULL," +
             UserTable.EMAIL + " TEXT UNIQUE NOT NULL," +
             UserTable.PASSWORD + " TEXT NOT NULL," +
-            UserTable.BALANCE + " REAL NOT NULL DEFAULT 0.0," +
-            UserTable.CREATED_AT + " TEXT NOT NULL" +
+            UserTable.BALANCE + " INTEGER NOT NULL DEFAULT 0," +
+            UserTable.CREATED_AT + " INTEGER NOT NULL," +
+            UserTable.TOTAL_INCOME + " INTEGER NOT NULL DEFAULT 0," +
+            UserTable.TOTAL_EXPENSE + " INTEGER NOT NULL DEFAULT 0" +
             ");";
 
         //  categories table query
@@ -170,7 +280,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             CategoryTable.TYPE + " TEXT NOT NULL CHECK (" + CategoryTable.TYPE + " IN ('" + CategoryType.INCOME + "', '" + CategoryType.EXPENSE + "'))," +
             CategoryTable.USER_ID + " INTEGER NOT NULL," +
             CategoryTable.ICON_NAME + " TEXT NOT NULL DEFAULT 'other'," + 
-            CategoryTable.CREATED_AT + " TEXT NOT NULL," +
+            CategoryTable.CREATED_AT + " INTEGER NOT NULL," +
+            CategoryTable.TOTAL + " INTEGER NOT NULL DEFAULT 0," +
+            CategoryTable.TX_COUNT + " INTEGER NOT NULL DEFAULT 0," +
             "UNIQUE (" + CategoryTable.NAME_COL + "," + CategoryTable.USER_ID + ")," +
             "FOREIGN KEY(" + CategoryTable.USER_ID + ") REFERENCES " +
             UserTable.TABLE_NAME + "(" + UserTable.ID + ") ON DELETE CASCADE" +
@@ -179,32 +291,154 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         // Create transactions table
         String createTransactionsTable = "CREATE TABLE IF NOT EXISTS " + TransactionTable.TABLE_NAME + " (" +
             TransactionTable.ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
-            TransactionTable.AMOUNT + " REAL NOT NULL," +
+            TransactionTable.AMOUNT + " INTEGER NOT NULL," +
             TransactionTable.TYPE + " TEXT NOT NULL CHECK (" + TransactionTable.TYPE + " IN ('" + CategoryType.INCOME + "', '" + CategoryType.EXPENSE + "'))," +
             TransactionTable.NOTE + " TEXT," +
             TransactionTable.DATE + " TEXT NOT NULL," +
+            TransactionTable.DAY + " INTEGER NOT NULL," +
             TransactionTable.CATEGORY_ID + " INTEGER NOT NULL," +
             TransactionTable.USER_ID + " INTEGER NOT NULL," +
-            TransactionTable.CREATED_AT + " TEXT NOT NULL," +
+            TransactionTable.CREATED_AT + " INTEGER NOT NULL," +
             "FOREIGN KEY(" + TransactionTable.CATEGORY_ID + ") REFERENCES " +
             CategoryTable.TABLE_NAME + "(" + CategoryTable.ID + ") ON DELETE CASCADE," +
             "FOREIGN KEY(" + TransactionTable.USER_ID + ") REFERENCES " +
             UserTable.TABLE_NAME + "(" + UserTable.ID + ") ON DELETE CASCADE" +
             ");";
 
+        // daily rollup, the primary key is the order of the chart queries:
+        // WHERE user_id = ? AND type = ? AND day range, WITHOUT ROWID stores the rows in that order
+        String createDailyTotalsTable = "CREATE TABLE IF NOT EXISTS " + DailyTotalsTable.TABLE_NAME + " (" +
+            DailyTotalsTable.USER_ID + " INTEGER NOT NULL," +
+            DailyTotalsTable.DAY + " INTEGER NOT NULL," +
+            DailyTotalsTable.CATEGORY_ID + " INTEGER NOT NULL," +
+            DailyTotalsTable.TYPE + " TEXT NOT NULL," +
+            DailyTotalsTable.TOTAL + " INTEGER NOT NULL DEFAULT 0," +
+            DailyTotalsTable.COUNT + " INTEGER NOT NULL DEFAULT 0," +
+            "PRIMARY KEY (" + DailyTotalsTable.USER_ID + ", " + DailyTotalsTable.TYPE + ", " +
+            DailyTotalsTable.DAY + ", " + DailyTotalsTable.CATEGORY_ID + ")," +
+            "FOREIGN KEY(" + DailyTotalsTable.CATEGORY_ID + ") REFERENCES " +
+            CategoryTable.TABLE_NAME + "(" + CategoryTable.ID + ") ON DELETE CASCADE," +
+            "FOREIGN KEY(" + DailyTotalsTable.USER_ID + ") REFERENCES " +
+            UserTable.TABLE_NAME + "(" + UserTable.ID + ") ON DELETE CASCADE" +
+            ") WITHOUT ROWID;";
+
+        // monthly rollup, same layout keyed by month
+        String createMonthlyTotalsTable = "CREATE TABLE IF NOT EXISTS " + MonthlyTotalsTable.TABLE_NAME + " (" +
+            MonthlyTotalsTable.USER_ID + " INTEGER NOT NULL," +
+            MonthlyTotalsTable.MONTH + " INTEGER NOT NULL," +
+            MonthlyTotalsTable.CATEGORY_ID + " INTEGER NOT NULL," +
+            MonthlyTotalsTable.TYPE + " TEXT NOT NULL," +
+            MonthlyTotalsTable.TOTAL + " INTEGER NOT NULL DEFAULT 0," +
+            MonthlyTotalsTable.COUNT + " INTEGER NOT NULL DEFAULT 0," +
+            "PRIMARY KEY (" + MonthlyTotalsTable.USER_ID + ", " + MonthlyTotalsTable.TYPE + ", " +
+            MonthlyTotalsTable.MONTH + ", " + MonthlyTotalsTable.CATEGORY_ID + ")," +
+            "FOREIGN KEY(" + MonthlyTotalsTable.CATEGORY_ID + ") REFERENCES " +
+            CategoryTable.TABLE_NAME + "(" + CategoryTable.ID + ") ON DELETE CASCADE," +
+            "FOREIGN KEY(" + MonthlyTotalsTable.USER_ID + ") REFERENCES " +
+            UserTable.TABLE_NAME + "(" + UserTable.ID + ") ON DELETE CASCADE" +
+            ") WITHOUT ROWID;";
+
 
         db.execSQL(createUsersTable);
         db.execSQL(createCategoriesTable);
         db.execSQL(createTransactionsTable);
+        db.execSQL(createDailyTotalsTable);
+        db.execSQL(createMonthlyTotalsTable);
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + TransactionSearchTable.TABLE_NAME + " USING fts4(" +
+            TransactionSearchTable.NOTE + ", " + TransactionSearchTable.CATEGORY_NAME + ");");
+
+        createIndexes(db);
+        createSearchTriggers(db);
+
+        // a fresh database is already at the latest version, no migration step to run
+        MigrationRunner.recordVersion(db, DATABASE_VERSION);
     }
 
+    /**
+     * Never drops data: it only records the version the rows are in,
+     * the steps themselves run from runPendingMigrations() in short transactions.
+     */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + UserTable.TABLE_NAME);
-        db.execSQL("DROP TABLE IF EXISTS " + CategoryTable.TABLE_NAME);
-        db.execSQL("DROP TABLE IF EXISTS " + TransactionTable.TABLE_NAME);
+        MigrationRunner.recordVersion(db, oldVersion);
+    }
+
+    /**
+     * Run the pending migration steps (batched backfills, resumable).
+     * Not from onOpen(): a long backfill there would hold whichever thread opened the database first.
+     * DatabaseExecutor.startMigrations() runs it on the writer thread and holds the other work until it is done.
+     */
+    public void runPendingMigrations() {
+        MigrationRunner.runPending(getWritableDatabase());
+        // the backfill batches wrote outside the DAOs
+        checkpointer.onWrite();
+    }
+
+    /**
+     * Create the secondary indexes used by the DAO queries.
+     * Describes the latest schema, upgrades create their own indexes in their migration step.
+     */
+    static void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.TRANSACTIONS_USER_DAY +
+            " ON " + TransactionTable.TABLE_NAME + " (" +
+            TransactionTable.USER_ID + ", " + TransactionTable.DAY + ");");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.TRANSACTIONS_USER_TYPE_DAY_AMOUNT +
+            " ON " + TransactionTable.TABLE_NAME + " (" +
+            TransactionTable.USER_ID + ", " + TransactionTable.TYPE + ", " +
+            TransactionTable.DAY + ", " + TransactionTable.AMOUNT + ");");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.TRANSACTIONS_CATEGORY_AMOUNT +
+            " ON " + TransactionTable.TABLE_NAME + " (" +
+            TransactionTable.CATEGORY_ID + ", " + TransactionTable.AMOUNT + ");");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.CATEGORIES_USER_TYPE +
+            " ON " + CategoryTable.TABLE_NAME + " (" +
+            CategoryTable.USER_ID + ", " + CategoryTable.TYPE + ");");
 
-        onCreate(db);
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.DAILY_TOTALS_CATEGORY +
+            " ON " + DailyTotalsTable.TABLE_NAME + " (" + DailyTotalsTable.CATEGORY_ID + ");");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IndexName.MONTHLY_TOTALS_CATEGORY +
+            " ON " + MonthlyTotalsTable.TABLE_NAME + " (" + MonthlyTotalsTable.CATEGORY_ID + ");");
+    }
+
+    /**
+     * Keep transactions_fts in sync with the transactions and the category names.
+     * Latest schema, like createIndexes(). The category delete needs no trigger:
+     * its transactions are deleted by the ON DELETE CASCADE, which fires the delete trigger.
+     */
+    static void createSearchTriggers(SQLiteDatabase db) {
+        String categoryName = "(SELECT " + CategoryTable.NAME_COL + " FROM " + CategoryTable.TABLE_NAME +
+            " WHERE " + CategoryTable.ID + " = new." + TransactionTable.CATEGORY_ID + ")";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TriggerName.SEARCH_AFTER_INSERT +
+            " AFTER INSERT ON " + TransactionTable.TABLE_NAME + " BEGIN " +
+            "INSERT INTO " + TransactionSearchTable.TABLE_NAME + " (" + TransactionSearchTable.DOCID + ", " +
+            TransactionSearchTable.NOTE + ", " + TransactionSearchTable.CATEGORY_NAME + ") " +
+            "VALUES (new." + TransactionTable.ID + ", new." + TransactionTable.NOTE + ", " + categoryName + "); END;");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TriggerName.SEARCH_AFTER_UPDATE +
+            " AFTER UPDATE OF " + TransactionTable.NOTE + ", " + TransactionTable.CATEGORY_ID +
+            " ON " + TransactionTable.TABLE_NAME + " BEGIN " +
+            "UPDATE " + TransactionSearchTable.TABLE_NAME + " SET " +
+            TransactionSearchTable.NOTE + " = new." + TransactionTable.NOTE + ", " +
+            TransactionSearchTable.CATEGORY_NAME + " = " + categoryName + " " +
+            "WHERE " + TransactionSearchTable.DOCID + " = new." + TransactionTable.ID + "; END;");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TriggerName.SEARCH_AFTER_DELETE +
+            " AFTER DELETE ON " + TransactionTable.TABLE_NAME + " BEGIN " +
+            "DELETE FROM " + TransactionSearchTable.TABLE_NAME +
+            " WHERE " + TransactionSearchTable.DOCID + " = old." + TransactionTable.ID + "; END;");
+
+        // the rows of the category found through idx_transactions_category_amount
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TriggerName.SEARCH_CATEGORY_RENAME +
+            " AFTER UPDATE OF " + CategoryTable.NAME_COL + " ON " + CategoryTable.TABLE_NAME + " BEGIN " +
+            "UPDATE " + TransactionSearchTable.TABLE_NAME + " SET " +
+            TransactionSearchTable.CATEGORY_NAME + " = new." + CategoryTable.NAME_COL + " " +
+            "WHERE " + TransactionSearchTable.DOCID + " IN (SELECT " + TransactionTable.ID +
+            " FROM " + TransactionTable.TABLE_NAME + " WHERE " + TransactionTable.CATEGORY_ID +
+            " = new." + CategoryTable.ID + "); END;");
     }
 
     /**
@@ -218,13 +452,24 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     /**
      * Executes a block of code inside a database transaction.
      * Automatically handles begin, commit, and rollback on error.
+     * Non exclusive (BEGIN IMMEDIATE): in WAL mode readers keep going while it runs.
+     * The tables marked changed by the work are published once the outermost one has committed.
+     * Nested calls share the outermost transaction: if a nested one fails, Android rolls the
+     * whole transaction back, so every enclosing call returns null too and nothing is published.
      */
     public <T> T runInTransaction(TransactionWork<T> work) {
         SQLiteDatabase db = getWritableDatabase();
-        db.beginTransaction();
+        boolean outermost = !db.inTransaction();
+        boolean successful = false;
+        db.beginTransactionNonExclusive();
         try {
             T result = work.doWork();
+            if (Boolean.TRUE.equals(rollbackOnly.get())) {
+                // a nested call failed, its work is rolled back with this one
+                return null;
+            }
             db.setTransactionSuccessful();
+            successful = true;
             return result;
         } catch (Exception e) {
             e.printStackTrace();
@@ -232,6 +477,44 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         } finally {
             // end the transaction
             db.endTransaction();
+            if (outermost) {
+                rollbackOnly.remove();
+                changeTracker.onTransactionEnd(successful);
+            } else if (!successful) {
+                rollbackOnly.set(Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Interface for work on a read snapshot, gets the connection its queries must use.
+     */
+    @FunctionalInterface
+    public interface SnapshotWork<T, E extends Exception> {
+        T doWork(SQLiteDatabase snapshot) throws E;
+    }
+
+    /**
+     * Runs read-only work on one consistent snapshot of the database, without the write lock.
+     * The work gets its own read-only connection holding a deferred read transaction
+     * (SAVEPOINT outside a transaction = BEGIN DEFERRED): every query it makes sees the same
+     * commit, while in WAL mode the writer thread keeps committing next to it.
+     * (runInTransaction would be BEGIN IMMEDIATE and hold every writer back for the whole read.)
+     * Opens and closes a connection per call, meant for long reads like a backup, off the main thread.
+     */
+    public <T, E extends Exception> T runInReadSnapshot(SnapshotWork<T, E> work) throws E {
+        String path = getReadableDatabase().getPath();
+        SQLiteDatabase snapshot = SQLiteDatabase.openDatabase(path, null, SQLiteDatabase.OPEN_READONLY);
+        try {
+            snapshot.execSQL("SAVEPOINT read_snapshot");
+            try {
+                return work.doWork(snapshot);
+            } finally {
+                // nothing was written, releasing just ends the read transaction
+                snapshot.execSQL("RELEASE read_snapshot");
+            }
+        } finally {
+            snapshot.close();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.example.budgetmanager.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * STATEMENT CACHE - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Keeps the compiled SQLiteStatement of each hot write (transaction insert / update,
+ * balance update, rollup deltas...) so it is compiled once per connection and then only
+ * re-bound and executed, instead of building a ContentValues + SQL string on every call.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Keyed by the SQL text, the DAOs keep their SQL in static final strings.
+ * - Tied to one SQLiteDatabase: if the helper was closed and reopened, the old statements
+ *   are dropped and recompiled on the new connection.
+ * - Typed binding through a Binder lambda (bindLong / bindString ...), no boxing of the values.
+ * - One set of statements per thread, no lock: a statement holds its bindings, so two threads must
+ *   not share it, and a lock held while executing would wait for the write connection while the
+ *   other thread holds that connection in its transaction (deadlock). In practice only the
+ *   db-writer thread writes (DatabaseExecutor), so there is one set.
+ * - A failed execution throws (SQLException): inside runInTransaction the whole transaction rolls back.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - SQLiteStatement: a prepared statement, "?" placeholders are bound with 1-based indexes
+ * - executeInsert(): returns the new rowid, executeUpdateDelete(): the number of changed rows
+ */
+public final class StatementCache {
+
+    /**
+     * Binds the values of one execution
+     */
+    @FunctionalInterface
+    public interface Binder {
+        void bind(SQLiteStatement statement);
+    }
+
+    // the statements of one thread, compiled on one connection
+    private static final class Statements {
+        final Map<String, SQLiteStatement> bySql = new HashMap<>();
+        SQLiteDatabase database;
+    }
+
+    private final DatabaseHelper dbHelper;
+    // ThreadLocal.withInitial needs API 26
+    private final ThreadLocal<Statements> statements = new ThreadLocal<Statements>() {
+        @Override
+        protected Statements initialValue() {
+            return new Statements();
+        }
+    };
+
+    StatementCache(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Run an INSERT, same contract as SQLiteDatabase.insertOrThrow():
+     * @return the new row id
+     * @throws android.database.SQLException if the insert failed (e.g. a UNIQUE constraint)
+     */
+    public long executeInsert(String sql, Binder binder) {
+        return prepare(sql, binder).executeInsert();
+    }
+
+    /**
+     * Run an UPDATE / DELETE
+     * @return the number of rows changed
+     */
+    public int executeUpdateDelete(String sql, Binder binder) {
+        return prepare(sql, binder).executeUpdateDelete();
+    }
+
+    // bind a nullable text (bindString() refuses null)
+    public static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    private SQLiteStatement prepare(String sql, Binder binder) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        Statements cache = statements.get();
+        if (db != cache.database) {
+            // new connection (helper closed / reopened): the old statements are gone with the old one
+            for (SQLiteStatement statement : cache.bySql.values()) {
+                statement.close();
+            }
+            cache.bySql.clear();
+            cache.database = db;
+        }
+
+        SQLiteStatement statement = cache.bySql.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            cache.bySql.put(sql, statement);
+        }
+
+        statement.clearBindings();
+        binder.bind(statement);
+        return statement;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.budgetmanager.database;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * TABLE CHANGE TRACKER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Keeps one version counter per table, bumped every time a DAO writes to that table,
+ * so a screen can tell "nothing changed since I loaded" without running a query:
+ *   long version = changeTracker.getVersion(TransactionTable.TABLE_NAME, CategoryTable.TABLE_NAME);
+ *   if (version != loadedVersion) { reload(); }
+ * Observers (TableObserver) are told which tables changed, once the write is committed.
+ *
+ * KEY DESIGN DECISIONS:
+ * - The DAO write methods call markChanged() with every table their statement changes,
+ *   the cascades included (a category delete also changes its transactions and rollup rows).
+ *   transactions_fts follows the transactions (triggers), it is read under their version.
+ * - Inside runInTransaction the changed tables are only collected (per thread, the write
+ *   connection belongs to one thread for the whole transaction); they are published when the
+ *   outermost transaction commits, and dropped if it rolls back. A reader can never see a new
+ *   version before the rows that go with it.
+ * - A write outside a transaction is already committed, it is published right away.
+ * - Versions live in memory: they start at 0 with the process, like the screens that compare them.
+ *   A spurious bump only costs one reload, a missed one would show stale data, so when in doubt mark.
+ * - Observers are called on the writing thread (often a background executor), after the commit
+ *   and outside any lock: post to the main thread before touching views.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - ThreadLocal: one value per thread, here the tables written by the transaction of that thread
+ * - CopyOnWriteArrayList: observers can be added / removed while a notification iterates the list
+ */
+public final class TableChangeTracker {
+
+    /**
+     * Told which tables a committed write changed
+     */
+    @FunctionalInterface
+    public interface TableObserver {
+        void onTablesChanged(Set<String> tables);
+    }
+
+    private final DatabaseHelper dbHelper;
+    private final Map<String, Long> versions = new HashMap<>();
+    private final List<TableObserver> observers = new CopyOnWriteArrayList<>();
+
+    // tables written by the open transaction of each thread (ThreadLocal.withInitial needs API 26)
+    private final ThreadLocal<Set<String>> pending = new ThreadLocal<Set<String>>() {
+        @Override
+        protected Set<String> initialValue() {
+            return new HashSet<>();
+        }
+    };
+
+    TableChangeTracker(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Sum of the versions of the given tables: changes whenever one of them is written
+     * (every counter only goes up), compare it with the value read at the last load.
+     */
+    public synchronized long getVersion(String... tables) {
+        long version = 0;
+        for (String table : tables) {
+            Long tableVersion = versions.get(table);
+            if (tableVersion != null) {
+                version += tableVersion;
+            }
+        }
+        return version;
+    }
+
+    public void addObserver(TableObserver observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(TableObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Record a write to these tables, call it from the DAO right after the statement
+     */
+    public void markChanged(String... tables) {
+        if (dbHelper.getWritableDatabase().inTransaction()) {
+            // published by runInTransaction when it commits
+            Collections.addAll(pending.get(), tables);
+            return;
+        }
+        Set<String> changed = new HashSet<>();
+        Collections.addAll(changed, tables);
+        publish(changed);
+    }
+
+    /**
+     * End of the outermost transaction of this thread (see DatabaseHelper.runInTransaction)
+     * @param committed false if it rolled back, its writes are forgotten
+     */
+    void onTransactionEnd(boolean committed) {
+        Set<String> tables = pending.get();
+        if (tables.isEmpty()) {
+            return;
+        }
+        Set<String> changed = new HashSet<>(tables);
+        tables.clear();
+        if (committed) {
+            publish(changed);
+        }
+    }
+
+    private void publish(Set<String> tables) {
+        synchronized (this) {
+            for (String table : tables) {
+                Long version = versions.get(table);
+                versions.put(table, version == null ? 1L : version + 1);
+            }
+        }
+        Set<String> changed = Collections.unmodifiableSet(tables);
+        for (TableObserver observer : observers) {
+            observer.onTablesChanged(changed);
+        }
+    }
+}
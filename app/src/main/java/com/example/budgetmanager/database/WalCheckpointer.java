@@ -0,0 +1,78 @@
+package com.example.budgetmanager.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+/**
+ * WAL CHECKPOINTER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * In WAL mode a commit only appends pages to budget.db-wal, a "checkpoint" copies them
+ * back into budget.db. Left alone, SQLite checkpoints inside whichever commit makes the
+ * wal file cross its threshold, so a user-facing write pays for it.
+ * This class moves that work to idle time: every write re-arms a timer, and once the
+ * database has seen no write for IDLE_DELAY_MS a PASSIVE checkpoint runs on a background thread.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - PASSIVE: copies what it can without waiting on readers or writers (never blocks the UI)
+ * - PRAGMA wal_checkpoint returns one row: (busy, wal pages, checkpointed pages)
+ */
+class WalCheckpointer {
+    static final String MODE_PASSIVE = "PASSIVE";
+
+    // database considered idle after this long without a write
+    private static final long IDLE_DELAY_MS = 3000;
+
+    private final SQLiteOpenHelper helper;
+    private final Handler handler;
+    private final Runnable idleCheckpoint = () -> {
+        try {
+            checkpoint(MODE_PASSIVE);
+        } catch (SQLiteException e) {
+            // best effort, SQLite's own auto checkpoint is still there as a safety net
+            e.printStackTrace();
+        }
+    };
+
+    WalCheckpointer(SQLiteOpenHelper helper) {
+        this.helper = helper;
+
+        HandlerThread thread = new HandlerThread("db-checkpoint", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Called after each commit, (re)schedules the idle checkpoint.
+     * Armed by DatabaseHelper from the TableChangeTracker publish, which every DAO write
+     * goes through, inside runInTransaction or not (StatementCache inserts, seeding...)
+     */
+    void onWrite() {
+        handler.removeCallbacks(idleCheckpoint);
+        handler.postDelayed(idleCheckpoint, IDLE_DELAY_MS);
+    }
+
+    /**
+     * Run a checkpoint now on the calling thread
+     * @return {busy, wal pages, checkpointed pages}
+     */
+    int[] checkpoint(String mode) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+
+        // PRAGMA returning a row must go through rawQuery (execSQL rejects results)
+        Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(" + mode + ")", null);
+        try {
+            if (cursor.moveToFirst()) {
+                return new int[]{cursor.getInt(0), cursor.getInt(1), cursor.getInt(2)};
+            }
+            return new int[]{0, 0, 0};
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.sqlite.SQLiteDatabase;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.StatementCache;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.DailyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.MonthlyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.models.User;
+
+/**
+ * BACKUP DAO - raw rows of a user's ledger, for the binary backup (importexport/LedgerBackup)
+ *
+ * Reads the categories and transactions with every stored column (created_at included)
+ * as cursor streams, and writes them back with compiled inserts on restore.
+ * The reads take the snapshot connection of DatabaseHelper.runInReadSnapshot, so the user,
+ * categories and transactions of one backup come from the same commit.
+ * The rollups are not read nor written here: they are rebuilt from the restored rows (RollupDao.rebuild).
+ */
+public class BackupDao {
+    private static final String SELECT_USER = "SELECT " +
+            UserTable.ID + ", " + UserTable.NAME_COL + ", " + UserTable.EMAIL + ", " +
+            UserTable.PASSWORD + ", " + UserTable.BALANCE + " " +
+            "FROM " + UserTable.TABLE_NAME + " " +
+            "WHERE " + UserTable.ID + " = ?";
+
+    private static final String SELECT_CATEGORIES = "SELECT " +
+            CategoryTable.ID + ", " + CategoryTable.NAME_COL + ", " + CategoryTable.ICON_NAME + ", " +
+            CategoryTable.TYPE + ", " + CategoryTable.CREATED_AT + " " +
+            "FROM " + CategoryTable.TABLE_NAME + " " +
+            "WHERE " + CategoryTable.USER_ID + " = ? " +
+            "ORDER BY " + CategoryTable.ID;
+
+    // (user_id, day) index order, the backup stores the days as deltas
+    private static final String SELECT_TRANSACTIONS = "SELECT " +
+            TransactionTable.AMOUNT + ", " + TransactionTable.TYPE + ", " + TransactionTable.NOTE + ", " +
+            TransactionTable.DAY + ", " + TransactionTable.CATEGORY_ID + ", " + TransactionTable.CREATED_AT + " " +
+            "FROM " + TransactionTable.TABLE_NAME + " " +
+            "WHERE " + TransactionTable.USER_ID + " = ? " +
+            "ORDER BY " + TransactionTable.DAY + ", " + TransactionTable.ID;
+
+    private static final String INSERT_CATEGORY = "INSERT INTO " + CategoryTable.TABLE_NAME + " (" +
+            CategoryTable.NAME_COL + ", " + CategoryTable.ICON_NAME + ", " + CategoryTable.TYPE + ", " +
+            CategoryTable.USER_ID + ", " + CategoryTable.CREATED_AT +
+            ") VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO " + TransactionTable.TABLE_NAME + " (" +
+            TransactionTable.AMOUNT + ", " + TransactionTable.TYPE + ", " + TransactionTable.NOTE + ", " +
+            TransactionTable.DATE + ", " + TransactionTable.DAY + ", " + TransactionTable.CATEGORY_ID + ", " +
+            TransactionTable.USER_ID + ", " + TransactionTable.CREATED_AT +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_USER = "UPDATE " + UserTable.TABLE_NAME + " SET " +
+            UserTable.NAME_COL + " = ?, " + UserTable.BALANCE + " = ? " +
+            "WHERE " + UserTable.ID + " = ?";
+
+    private final DatabaseHelper dbHelper;
+
+    public BackupDao(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * @return the user as seen by the snapshot, null if not found
+     */
+    public User getUser(SQLiteDatabase snapshot, int userId) {
+        return QueryTemplate.queryFirst(snapshot, SELECT_USER, new String[]{String.valueOf(userId)}, RowMappers.USER);
+    }
+
+    /**
+     * Stream the categories of a user (id, name, icon_name, type, created_at), by id
+     */
+    public <E extends Exception> long forEachCategory(SQLiteDatabase snapshot, int userId,
+                                                      QueryTemplate.RowHandler<E> handler) throws E {
+        return QueryTemplate.forEach(snapshot, SELECT_CATEGORIES, new String[]{String.valueOf(userId)}, handler);
+    }
+
+    /**
+     * Stream the transactions of a user (amount_cents, type, note, day, category_id, created_at), oldest first
+     */
+    public <E extends Exception> long forEachTransaction(SQLiteDatabase snapshot, int userId,
+                                                         QueryTemplate.RowHandler<E> handler) throws E {
+        return QueryTemplate.forEach(snapshot, SELECT_TRANSACTIONS, new String[]{String.valueOf(userId)}, handler);
+    }
+
+    /**
+     * Delete the categories and transactions of a user (the rollup rows cascade with the categories).
+     * Call inside runInTransaction, before restoring a snapshot.
+     */
+    public void deleteLedger(int userId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        Object[] args = new Object[]{userId};
+        db.execSQL("DELETE FROM " + TransactionTable.TABLE_NAME + " WHERE " + TransactionTable.USER_ID + " = ?", args);
+        db.execSQL("DELETE FROM " + CategoryTable.TABLE_NAME + " WHERE " + CategoryTable.USER_ID + " = ?", args);
+        dbHelper.getChangeTracker().markChanged(TransactionTable.TABLE_NAME, CategoryTable.TABLE_NAME,
+                DailyTotalsTable.TABLE_NAME, MonthlyTotalsTable.TABLE_NAME);
+    }
+
+    /**
+     * Restore the name and balance of a user
+     */
+    public int updateUser(int userId, String name, long balanceCents) {
+        int rowsAffected = dbHelper.getStatementCache().executeUpdateDelete(UPDATE_USER, statement -> {
+            statement.bindString(1, name);
+            statement.bindLong(2, balanceCents);
+            statement.bindLong(3, userId);
+        });
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
+        return rowsAffected;
+    }
+
+    /**
+     * @return the new category id, throws if the insert failed
+     */
+    public long insertCategory(int userId, String name, String iconName, String type, long createdAt) {
+        long id = dbHelper.getStatementCache().executeInsert(INSERT_CATEGORY, statement -> {
+            statement.bindString(1, name);
+            statement.bindString(2, iconName);
+            statement.bindString(3, type);
+            statement.bindLong(4, userId);
+            statement.bindLong(5, createdAt);
+        });
+        dbHelper.getChangeTracker().markChanged(CategoryTable.TABLE_NAME);
+        return id;
+    }
+
+    /**
+     * @return the new transaction id, throws if the insert failed
+     */
+    public long insertTransaction(int userId, long amountCents, String type, String note, String date,
+                                  long day, long categoryId, long createdAt) {
+        long id = dbHelper.getStatementCache().executeInsert(INSERT_TRANSACTION, statement -> {
+            statement.bindLong(1, amountCents);
+            statement.bindString(2, type);
+            StatementCache.bindStringOrNull(statement, 3, note);
+            statement.bindString(4, date);
+            statement.bindLong(5, day);
+            statement.bindLong(6, categoryId);
+            statement.bindLong(7, userId);
+            statement.bindLong(8, createdAt);
+        });
+        dbHelper.getChangeTracker().markChanged(TransactionTable.TABLE_NAME);
+        return id;
+    }
+}
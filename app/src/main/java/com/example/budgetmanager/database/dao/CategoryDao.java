@@ -2,20 +2,19 @@ package com.example.budgetmanager.database.dao;
 
 import android.content.ContentValues;
 import android.content.Context;
-import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.budgetmanager.database.DatabaseHelper;
-import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.StatementCache;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryName;
+import com.example.budgetmanager.database.DatabaseHelper.DailyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.MonthlyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
 import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.utils.CategoryLocalizer;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * CATEGORY DAO - Data Access Object for Category entity
@@ -23,6 +22,19 @@ import java.util.Locale;
  * Handles all database operations for categories.
  */
 public class CategoryDao {
+    // compiled once by the StatementCache
+    private static final String INSERT_CATEGORY = "INSERT INTO " + CategoryTable.TABLE_NAME + " (" +
+            CategoryTable.NAME_COL + ", " + CategoryTable.ICON_NAME + ", " + CategoryTable.TYPE + ", " +
+            CategoryTable.USER_ID + ", " + CategoryTable.CREATED_AT +
+            ") VALUES (?, ?, ?, ?, ?)";
+
+    // category columns read by the RowMappers.CATEGORY mapper
+    private static final String SELECT_CATEGORY = "SELECT " +
+            CategoryTable.ID + ", " + CategoryTable.NAME_COL + ", " + CategoryTable.ICON_NAME + ", " +
+            CategoryTable.TYPE + ", " + CategoryTable.USER_ID + ", " +
+            CategoryTable.TOTAL + ", " + CategoryTable.TX_COUNT + " " +
+            "FROM " + CategoryTable.TABLE_NAME + " ";
+
     private final DatabaseHelper dbHelper;
     
     public CategoryDao(DatabaseHelper dbHelper) {
@@ -34,123 +46,54 @@ public class CategoryDao {
      * Get all categories for a user
      */
     public List<Category> getCategories(int userId) {
-        List<Category> categories = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        
-        Cursor cursor = db.query(
-                CategoryTable.TABLE_NAME,
-                new String[]{
-                        CategoryTable.ID,
-                        CategoryTable.NAME_COL,
-                        CategoryTable.ICON_NAME,
-                        CategoryTable.TYPE,
-                        CategoryTable.USER_ID
-                },
-                CategoryTable.USER_ID + "=?",
-                new String[]{String.valueOf(userId)},
-                null, null,
-                CategoryTable.NAME_COL + " ASC"
-        );
-        
-        while (cursor.moveToNext()) {
-            Category category = new Category(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(CategoryTable.ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.NAME_COL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.ICON_NAME)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.TYPE)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(CategoryTable.USER_ID))
-            );
-            categories.add(category);
-        }
 
-        cursor.close();
-          
-        return categories;
+        return QueryTemplate.queryList(db,
+                SELECT_CATEGORY + "WHERE " + CategoryTable.USER_ID + " = ? " +
+                "ORDER BY " + CategoryTable.NAME_COL + " ASC",
+                new String[]{String.valueOf(userId)}, RowMappers.CATEGORY);
     }
       /**
      * Get category by ID
      */
     public Category getCategoryById(int id) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        
-        Cursor cursor = db.query(
-                CategoryTable.TABLE_NAME,
-                new String[]{
-                        CategoryTable.ID,
-                        CategoryTable.NAME_COL,
-                        CategoryTable.ICON_NAME,
-                        CategoryTable.TYPE,
-                        CategoryTable.USER_ID
-                },
-                CategoryTable.ID + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null
-        );
-        
-        Category category = null;
-        if (cursor.moveToFirst()) {
-            category = new Category(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(CategoryTable.ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.NAME_COL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.ICON_NAME)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(CategoryTable.TYPE)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(CategoryTable.USER_ID))
-            );
-        }
 
-        cursor.close();
-
-        return category;
+        return QueryTemplate.queryFirst(db, SELECT_CATEGORY + "WHERE " + CategoryTable.ID + " = ?",
+                new String[]{String.valueOf(id)}, RowMappers.CATEGORY);
     }
 
 
     /* get sum of transactions per category
+     * read from the maintained total_cents column (primary key lookup, no SUM)
      */
-    public double getTotalTransactionsPerCategory(int categoryId) {
-        double total = 0;
+    public Money getTotalTransactionsPerCategory(int categoryId) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        // calc sum of transactions per category
-        Cursor cursor = db.query(
-                TransactionTable.TABLE_NAME,
-                new String[]{"SUM(" + TransactionTable.AMOUNT + ") AS " +TransactionTable.AMOUNT},
-                TransactionTable.CATEGORY_ID + "=?",
-                new String[]{String.valueOf(categoryId)},
-                null, null, null
-        );
-        // move the cursor to first row
-        if (cursor.moveToFirst()) {
-            // get the column index using col name , get total value using the index
-            total = cursor.getDouble(
-                    cursor.getColumnIndexOrThrow(TransactionTable.AMOUNT)
-            );
-        }
-        cursor.close();
-
-        cursor.close();
+        long totalCents = QueryTemplate.queryLong(db,
+                "SELECT " + CategoryTable.TOTAL + " FROM " + CategoryTable.TABLE_NAME +
+                " WHERE " + CategoryTable.ID + " = ?",
+                new String[]{String.valueOf(categoryId)});
           
-        return total;
+        return Money.ofCents(totalCents);
     }
 
     /**
      * Create a new category
+     * (compiled once, see StatementCache, the seeding of a new user runs it several times)
+     * @return the new id
+     * @throws android.database.SQLException if the insert failed (e.g. name already used by this user)
      */
     public long createCategory(Category category) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-
-        ContentValues values = new ContentValues();
-        values.put(CategoryTable.NAME_COL, category.getName());
-        values.put(CategoryTable.ICON_NAME, category.getIconName());
-        values.put(CategoryTable.TYPE, category.getType());
-        values.put(CategoryTable.USER_ID, category.getUserId());
-
-        // set created at to current time using SimpleDateFormat
-        values.put(CategoryTable.CREATED_AT,
-                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault())
-                        .format(new Date()));
-
-        long id = db.insert(CategoryTable.TABLE_NAME, null, values);
-          
+        long id = dbHelper.getStatementCache().executeInsert(INSERT_CATEGORY, statement -> {
+            StatementCache.bindStringOrNull(statement, 1, category.getName());
+            StatementCache.bindStringOrNull(statement, 2, category.getIconName());
+            StatementCache.bindStringOrNull(statement, 3, category.getType());
+            statement.bindLong(4, category.getUserId());
+            // set created at to current time (epoch millis)
+            statement.bindLong(5, System.currentTimeMillis());
+        });
+        dbHelper.getChangeTracker().markChanged(CategoryTable.TABLE_NAME);
         return id;
     }
 
@@ -203,7 +146,8 @@ public class CategoryDao {
                 new String[]{String.valueOf(category.getId())}
         );
         
-          
+        // the rename trigger also updates the category name of its transactions in the search index
+        dbHelper.getChangeTracker().markChanged(CategoryTable.TABLE_NAME);
         return rowsAffected;
     }
 
@@ -220,7 +164,9 @@ public class CategoryDao {
                 new String[]{String.valueOf(id)}
         );
         
-          
+        // its transactions and rollup rows go with it (ON DELETE CASCADE)
+        dbHelper.getChangeTracker().markChanged(CategoryTable.TABLE_NAME, TransactionTable.TABLE_NAME,
+                DailyTotalsTable.TABLE_NAME, MonthlyTotalsTable.TABLE_NAME);
         return rowsAffected;
     }
 }
\ No newline at end of file
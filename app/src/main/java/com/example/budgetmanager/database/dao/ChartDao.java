@@ -5,11 +5,41 @@ import android.database.sqlite.SQLiteDatabase;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.dto.CategoryTotal;
 import com.example.budgetmanager.dto.MonthlyTotal;
+import com.example.budgetmanager.models.Money;
+import com.example.budgetmanager.utils.EpochDays;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class ChartDao {
+    // hot chart queries, also checked by QueryPlanTest (EXPLAIN QUERY PLAN, androidTest)
+
+    // read the daily rollup (primary key prefix user_id, type) and join the few
+    // resulting categories for their name / icon, instead of summing every transaction
+    static final String SELECT_CATEGORY_TOTALS = "SELECT c." + DatabaseHelper.CategoryTable.NAME_COL + ", " +
+            "c." + DatabaseHelper.CategoryTable.ICON_NAME + ", " +
+            "SUM(d." + DatabaseHelper.DailyTotalsTable.TOTAL + ") as total " +
+            "FROM " + DatabaseHelper.DailyTotalsTable.TABLE_NAME + " d " +
+            "INNER JOIN " + DatabaseHelper.CategoryTable.TABLE_NAME + " c " +
+            "ON c." + DatabaseHelper.CategoryTable.ID + " = d." + DatabaseHelper.DailyTotalsTable.CATEGORY_ID + " " +
+            "WHERE d." + DatabaseHelper.DailyTotalsTable.USER_ID + " = ? " +
+            "AND d." + DatabaseHelper.DailyTotalsTable.TYPE + " = ? " +
+            "GROUP BY d." + DatabaseHelper.DailyTotalsTable.CATEGORY_ID + " " +
+            "ORDER BY total DESC";
+
+    // type IN (...) lets SQLite seek (user_id, type, day range) of the primary key for each type
+    static final String SELECT_DAILY_TOTALS = "SELECT " + DatabaseHelper.DailyTotalsTable.TYPE + ", " +
+            DatabaseHelper.DailyTotalsTable.DAY + ", " +
+            "SUM(" + DatabaseHelper.DailyTotalsTable.TOTAL + ") " +
+            "FROM " + DatabaseHelper.DailyTotalsTable.TABLE_NAME + " " +
+            "WHERE " + DatabaseHelper.DailyTotalsTable.USER_ID + " = ? " +
+            "AND " + DatabaseHelper.DailyTotalsTable.TYPE + " IN ('" +
+            DatabaseHelper.CategoryType.INCOME + "', '" + DatabaseHelper.CategoryType.EXPENSE + "') " +
+            "AND " + DatabaseHelper.DailyTotalsTable.DAY + " >= ? " +
+            "AND " + DatabaseHelper.DailyTotalsTable.DAY + " < ? " +
+            "GROUP BY " + DatabaseHelper.DailyTotalsTable.TYPE + ", " + DatabaseHelper.DailyTotalsTable.DAY;
+
     private DatabaseHelper dbHelper;
 
     public ChartDao(DatabaseHelper dbHelper) {
@@ -23,25 +53,14 @@ public class ChartDao {
         List<CategoryTotal> categoryTotals = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        String query = "SELECT c." + DatabaseHelper.CategoryTable.NAME_COL + ", " +
-                "c." + DatabaseHelper.CategoryTable.ICON_NAME + ", " +
-                "SUM(t." + DatabaseHelper.TransactionTable.AMOUNT + ") as total " +
-                "FROM " + DatabaseHelper.TransactionTable.TABLE_NAME + " t " +
-                "INNER JOIN " + DatabaseHelper.CategoryTable.TABLE_NAME + " c " +
-                "ON t." + DatabaseHelper.TransactionTable.CATEGORY_ID + " = c." + DatabaseHelper.CategoryTable.ID + " " +
-                "WHERE t." + DatabaseHelper.TransactionTable.USER_ID + " = ? " +
-                "AND c." + DatabaseHelper.CategoryTable.TYPE + " = ? " +
-                "GROUP BY c." + DatabaseHelper.CategoryTable.ID + " " +
-                "ORDER BY total DESC";
-
         Cursor cursor = null;
         try {
-            cursor = db.rawQuery(query, new String[]{String.valueOf(userId), type});
+            cursor = db.rawQuery(SELECT_CATEGORY_TOTALS, new String[]{String.valueOf(userId), type});
 
             while (cursor.moveToNext()) {
                 String categoryName = cursor.getString(0);
                 String iconName = cursor.getString(1);
-                double total = cursor.getDouble(2);
+                Money total = Money.ofCents(cursor.getLong(2));
 
                 categoryTotals.add(new CategoryTotal(categoryName, iconName, total));
             }
@@ -56,77 +75,188 @@ public class ChartDao {
      * Get daily transaction totals for current month for line chart
      */
     public List<MonthlyTotal> getDailyTotalsCurrentMonth(int userId) {
-        List<MonthlyTotal> dailyTotals = new ArrayList<>();
+        long today = EpochDays.today();
+        return getDailyTotals(userId, EpochDays.startOfMonth(today), EpochDays.startOfNextMonth(today));
+    }
+
+    /**
+     * Get daily totals of a calendar month (month 1-12)
+     */
+    public List<MonthlyTotal> getDailyTotalsOfMonth(int userId, int year, int month) {
+        long firstDay = EpochDays.of(year, month, 1);
+        return getDailyTotals(userId, firstDay, EpochDays.startOfNextMonth(firstDay));
+    }
+
+    /**
+     * Get daily income / expense totals of the days in [fromDay, toDay) (epoch days)
+     *
+     * Returns a dense list: one entry per day of the range, zero filled when nothing happened.
+     * Read from the daily_totals rollup (one row per type, day and category), in primary key
+     * order (user_id, type, day), so the cost follows the days of the range
+     * and not the size of the ledger.
+     */
+    public List<MonthlyTotal> getDailyTotals(int userId, long fromDay, long toDay) {
+        int dayCount = (int) Math.max(0, toDay - fromDay);
+        long[] incomeByDay = new long[dayCount];
+        long[] expenseByDay = new long[dayCount];
+
         SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        // First, let's get all transactions and filter by date in Java to debug the issue
-        String query = "SELECT date, amount, c.type " +
-                "FROM " + DatabaseHelper.TransactionTable.TABLE_NAME + " t " +
-                "INNER JOIN " + DatabaseHelper.CategoryTable.TABLE_NAME + " c " +
-                "ON t." + DatabaseHelper.TransactionTable.CATEGORY_ID + " = c." + DatabaseHelper.CategoryTable.ID + " " +
-                "WHERE t." + DatabaseHelper.TransactionTable.USER_ID + " = ? " +
-                "ORDER BY date ASC";
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery(SELECT_DAILY_TOTALS, new String[]{
+                    String.valueOf(userId), String.valueOf(fromDay), String.valueOf(toDay)});
+
+            while (cursor.moveToNext()) {
+                String type = cursor.getString(0);
+                int index = (int) (cursor.getLong(1) - fromDay);
+                long total = cursor.getLong(2);
+
+                if (DatabaseHelper.CategoryType.INCOME.equals(type)) {
+                    incomeByDay[index] = total;
+                } else {
+                    expenseByDay[index] = total;
+                }
+            }
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+
+        List<MonthlyTotal> dailyTotals = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            dailyTotals.add(new MonthlyTotal(EpochDays.format(fromDay + i),
+                    Money.ofCents(incomeByDay[i]), Money.ofCents(expenseByDay[i])));
+        }
+        return dailyTotals;
+    }
+
+    /**
+     * Monthly income / expense totals of the last 12 months (current month included), oldest first
+     */
+    public List<MonthlyTotal> getLast12MonthsTotals(int userId) {
+        int[] today = EpochDays.toDate(EpochDays.today());
+        // 11 months back from the current one
+        int first = today[0] * 12 + (today[1] - 1) - 11;
+        return getMonthlyTotals(userId, first / 12, first % 12 + 1, 12);
+    }
+
+    /**
+     * Monthly income / expense totals of monthCount months starting at (fromYear, fromMonth 1-12)
+     *
+     * Returns a dense list labeled "yyyy-MM", zero filled for the months without transactions.
+     * Read from the monthly_totals rollup (primary key range user_id, type, month):
+     * a five years series groups at most 60 months x categories rollup rows, whatever the ledger size.
+     */
+    public List<MonthlyTotal> getMonthlyTotals(int userId, int fromYear, int fromMonth, int monthCount) {
+        int count = Math.max(0, monthCount);
+        long[] incomeByMonth = new long[count];
+        long[] expenseByMonth = new long[count];
+
+        // months counted from year 0, so consecutive months differ by one across years
+        int firstIndex = fromYear * 12 + (fromMonth - 1);
+        int lastIndex = firstIndex + count - 1;
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        String query = "SELECT " + DatabaseHelper.MonthlyTotalsTable.TYPE + ", " +
+                DatabaseHelper.MonthlyTotalsTable.MONTH + ", " +
+                "SUM(" + DatabaseHelper.MonthlyTotalsTable.TOTAL + ") " +
+                "FROM " + DatabaseHelper.MonthlyTotalsTable.TABLE_NAME + " " +
+                "WHERE " + DatabaseHelper.MonthlyTotalsTable.USER_ID + " = ? " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.TYPE + " IN ('" +
+                DatabaseHelper.CategoryType.INCOME + "', '" + DatabaseHelper.CategoryType.EXPENSE + "') " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.MONTH + " >= ? " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.MONTH + " <= ? " +
+                "GROUP BY " + DatabaseHelper.MonthlyTotalsTable.TYPE + ", " + DatabaseHelper.MonthlyTotalsTable.MONTH;
 
         Cursor cursor = null;
         try {
-            cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
-              // Get current year-month for filtering - force US locale to avoid Arabic numerals
-            java.text.SimpleDateFormat monthFormat = new java.text.SimpleDateFormat("yyyy-MM", java.util.Locale.US);
-            String currentMonth = monthFormat.format(new java.util.Date());
-            
-            // Group transactions by date
-            java.util.Map<String, Double> incomeByDate = new java.util.HashMap<>();
-            java.util.Map<String, Double> expenseByDate = new java.util.HashMap<>();
-            
+            cursor = db.rawQuery(query, new String[]{
+                    String.valueOf(userId),
+                    String.valueOf(yearMonthKey(firstIndex)),
+                    String.valueOf(yearMonthKey(lastIndex))});
+
             while (cursor.moveToNext()) {
-                String date = cursor.getString(0);
-                double amount = cursor.getDouble(1);
-                String type = cursor.getString(2);
-                
-                // Handle both date formats: YYYY-MM-DD and DD-MM-YYYY
-                String normalizedDate = null;
-                try {
-                    if (date.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                        // Already in YYYY-MM-DD format
-                        normalizedDate = date;
-                    } else if (date.matches("\\d{2}-\\d{2}-\\d{4}")) {
-                        // Convert DD-MM-YYYY to YYYY-MM-DD
-                        String[] parts = date.split("-");
-                        normalizedDate = parts[2] + "-" + parts[1] + "-" + parts[0];
-                    }
-                    
-                    // Only include transactions from current month
-                    if (normalizedDate != null && normalizedDate.startsWith(currentMonth)) {
-                        if ("income".equals(type)) {
-                            incomeByDate.put(normalizedDate, incomeByDate.getOrDefault(normalizedDate, 0.0) + amount);
-                        } else {
-                            expenseByDate.put(normalizedDate, expenseByDate.getOrDefault(normalizedDate, 0.0) + amount);
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip malformed dates
-                    continue;
+                String type = cursor.getString(0);
+                int month = cursor.getInt(1);
+                int index = (month / 100) * 12 + (month % 100 - 1) - firstIndex;
+                long total = cursor.getLong(2);
+
+                if (DatabaseHelper.CategoryType.INCOME.equals(type)) {
+                    incomeByMonth[index] = total;
+                } else {
+                    expenseByMonth[index] = total;
                 }
             }
-            
-            // Get all unique dates and create MonthlyTotal objects
-            java.util.Set<String> allDates = new java.util.HashSet<>();
-            allDates.addAll(incomeByDate.keySet());
-            allDates.addAll(expenseByDate.keySet());
-            
-            java.util.List<String> sortedDates = new java.util.ArrayList<>(allDates);
-            java.util.Collections.sort(sortedDates);
-            
-            for (String date : sortedDates) {
-                double income = incomeByDate.getOrDefault(date, 0.0);
-                double expense = expenseByDate.getOrDefault(date, 0.0);
-                dailyTotals.add(new MonthlyTotal(date, income, expense));
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+
+        List<MonthlyTotal> monthlyTotals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int monthIndex = firstIndex + i;
+            String label = String.format(Locale.US, "%04d-%02d", monthIndex / 12, monthIndex % 12 + 1);
+            monthlyTotals.add(new MonthlyTotal(label,
+                    Money.ofCents(incomeByMonth[i]), Money.ofCents(expenseByMonth[i])));
+        }
+        return monthlyTotals;
+    }
+
+    /**
+     * Yearly income / expense totals of the years [fromYear, toYear], labeled "yyyy", zero filled.
+     * Regrouped from the monthly_totals rollup (12 months per year).
+     */
+    public List<MonthlyTotal> getYearlyTotals(int userId, int fromYear, int toYear) {
+        int count = Math.max(0, toYear - fromYear + 1);
+        long[] incomeByYear = new long[count];
+        long[] expenseByYear = new long[count];
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        // month is yyyyMM, month / 100 is its year
+        String query = "SELECT " + DatabaseHelper.MonthlyTotalsTable.TYPE + ", " +
+                DatabaseHelper.MonthlyTotalsTable.MONTH + " / 100 AS year, " +
+                "SUM(" + DatabaseHelper.MonthlyTotalsTable.TOTAL + ") " +
+                "FROM " + DatabaseHelper.MonthlyTotalsTable.TABLE_NAME + " " +
+                "WHERE " + DatabaseHelper.MonthlyTotalsTable.USER_ID + " = ? " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.TYPE + " IN ('" +
+                DatabaseHelper.CategoryType.INCOME + "', '" + DatabaseHelper.CategoryType.EXPENSE + "') " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.MONTH + " >= ? " +
+                "AND " + DatabaseHelper.MonthlyTotalsTable.MONTH + " <= ? " +
+                "GROUP BY " + DatabaseHelper.MonthlyTotalsTable.TYPE + ", year";
+
+        Cursor cursor = null;
+        try {
+            cursor = db.rawQuery(query, new String[]{
+                    String.valueOf(userId),
+                    String.valueOf(fromYear * 100 + 1),
+                    String.valueOf(toYear * 100 + 12)});
+
+            while (cursor.moveToNext()) {
+                String type = cursor.getString(0);
+                int index = cursor.getInt(1) - fromYear;
+                long total = cursor.getLong(2);
+
+                if (DatabaseHelper.CategoryType.INCOME.equals(type)) {
+                    incomeByYear[index] = total;
+                } else {
+                    expenseByYear[index] = total;
+                }
             }
-            
         } finally {
             if (cursor != null) cursor.close();
         }
 
-        return dailyTotals;
+        List<MonthlyTotal> yearlyTotals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            yearlyTotals.add(new MonthlyTotal(String.valueOf(fromYear + i),
+                    Money.ofCents(incomeByYear[i]), Money.ofCents(expenseByYear[i])));
+        }
+        return yearlyTotals;
+    }
+
+    // month counted from year 0 → yyyyMM key of monthly_totals
+    private static int yearMonthKey(int monthIndex) {
+        return (monthIndex / 12) * 100 + monthIndex % 12 + 1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.dto.DashboardSnapshot;
+import com.example.budgetmanager.dto.TransactionWithCategory;
+import com.example.budgetmanager.models.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DASHBOARD DAO - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Reads the whole home screen (user name, balance, lifetime totals, recent transactions)
+ * in ONE query instead of five (user, balance, income, expenses, list).
+ *
+ * KEY DESIGN DECISIONS:
+ * - A single SELECT runs on a single read snapshot: with WAL a write committed between
+ *   two separate queries could make the balance disagree with the list, here it can't.
+ * - No explicit transaction: Android's beginTransaction*() are all BEGIN IMMEDIATE / EXCLUSIVE
+ *   (they would take the write lock), one statement is already its own consistent read.
+ * - The users row (primary key) is LEFT JOINed to the recent transactions, its columns are
+ *   repeated on each row (a few bytes x 30) and a user without transactions still gives one row.
+ */
+public class DashboardDao {
+    private final DatabaseHelper dbHelper;
+
+    public DashboardDao(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Dashboard data of a user, the recent transactions newest first
+     * @return null if the user doesn't exist
+     */
+    public DashboardSnapshot getDashboardSnapshot(int userId, int recentLimit) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        // user columns are aliased, transactions already use "id" / "type" ...
+        String query = "SELECT " +
+                "u." + UserTable.NAME_COL + " AS user_name, " +
+                "u." + UserTable.BALANCE + " AS user_balance, " +
+                "u." + UserTable.TOTAL_INCOME + " AS user_income, " +
+                "u." + UserTable.TOTAL_EXPENSE + " AS user_expense, " +
+                "r.* " +
+                "FROM " + UserTable.TABLE_NAME + " u " +
+                "LEFT JOIN (" + TransactionDao.SELECT_WITH_CATEGORY +
+                "WHERE t." + TransactionTable.USER_ID + " = ? " +
+                TransactionDao.ORDER_NEWEST_FIRST +
+                "LIMIT ?) r ON 1 " +
+                "WHERE u." + UserTable.ID + " = ? " +
+                // the order of a subquery isn't kept by the join, sort the (at most recentLimit) rows again
+                "ORDER BY r." + TransactionTable.DAY + " DESC, r." + TransactionTable.ID + " DESC";
+
+        String id = String.valueOf(userId);
+        try (Cursor cursor = db.rawQuery(query, new String[]{id, String.valueOf(recentLimit), id})) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+
+            String userName = cursor.getString(cursor.getColumnIndexOrThrow("user_name"));
+            Money balance = Money.ofCents(cursor.getLong(cursor.getColumnIndexOrThrow("user_balance")));
+            Money income = Money.ofCents(cursor.getLong(cursor.getColumnIndexOrThrow("user_income")));
+            Money expense = Money.ofCents(cursor.getLong(cursor.getColumnIndexOrThrow("user_expense")));
+
+            // no transaction: the single row has NULL transaction columns
+            List<TransactionWithCategory> recent = new ArrayList<>();
+            int idIndex = cursor.getColumnIndexOrThrow(TransactionTable.ID);
+            if (!cursor.isNull(idIndex)) {
+                RowMapper.Reader<TransactionWithCategory> reader = RowMappers.TRANSACTION_WITH_CATEGORY.columns(cursor);
+                do {
+                    recent.add(reader.read(cursor));
+                } while (cursor.moveToNext());
+            }
+
+            return new DashboardSnapshot(userName, balance, income, expense, recent);
+        }
+    }
+}
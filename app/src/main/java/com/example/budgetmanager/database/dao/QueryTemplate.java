@@ -0,0 +1,112 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QUERY TEMPLATE - shared cursor handling of the DAOs
+ *
+ * Runs a query, resolves the mapper columns once, maps the rows
+ * and always closes the cursor (try-with-resources), even when a row fails.
+ * mapper() builds the RowMappers from their column names: the index lookup of every mapper
+ * is done here, once per cursor, the mappers only read by position.
+ * forEach() streams the rows to a handler instead of collecting them (exports):
+ * the cursor only holds its current CursorWindow, whatever the number of rows.
+ */
+public final class QueryTemplate {
+
+    private QueryTemplate() {
+    }
+
+    /**
+     * Receives the rows of forEach() one at a time
+     * @param <E> the exception the handler may throw (IOException for a writer), passed through
+     */
+    public interface RowHandler<E extends Exception> {
+        // called once before the first row, resolve the column indexes here
+        void columns(Cursor cursor);
+
+        // called for each row in order, return false to stop early
+        boolean handle(Cursor cursor) throws E;
+    }
+
+    /**
+     * Reads one row with the indexes of the mapper columns, in the order they were listed
+     */
+    @FunctionalInterface
+    public interface ColumnReader<T> {
+        T read(Cursor row, int[] column);
+    }
+
+    /**
+     * A RowMapper over the named columns: columns(cursor) resolves their indexes
+     * (getColumnIndexOrThrow) once, the reader gets them as column[0], column[1]...
+     */
+    public static <T> RowMapper<T> mapper(String[] columns, ColumnReader<T> reader) {
+        String[] names = columns.clone();
+        return cursor -> {
+            int[] column = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                column[i] = cursor.getColumnIndexOrThrow(names[i]);
+            }
+            return row -> reader.read(row, column);
+        };
+    }
+
+    /**
+     * All the rows of the query, mapped
+     */
+    public static <T> List<T> queryList(SQLiteDatabase db, String sql, String[] args, RowMapper<T> mapper) {
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            List<T> rows = new ArrayList<>(cursor.getCount());
+            RowMapper.Reader<T> reader = mapper.columns(cursor);
+            while (cursor.moveToNext()) {
+                rows.add(reader.read(cursor));
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * The first row of the query mapped, or null if there is none
+     */
+    public static <T> T queryFirst(SQLiteDatabase db, String sql, String[] args, RowMapper<T> mapper) {
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return mapper.columns(cursor).read(cursor);
+        }
+    }
+
+    /**
+     * Hand the rows of the query to the handler one by one, nothing is kept
+     * @return the number of rows handled
+     */
+    public static <E extends Exception> long forEach(SQLiteDatabase db, String sql, String[] args,
+                                                     RowHandler<E> handler) throws E {
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            handler.columns(cursor);
+            long rows = 0;
+            while (cursor.moveToNext()) {
+                rows++;
+                if (!handler.handle(cursor)) {
+                    break;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * First column of the first row as a long (SUM, COUNT...), 0 when there is no row or it is NULL
+     */
+    public static long queryLong(SQLiteDatabase db, String sql, String[] args) {
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
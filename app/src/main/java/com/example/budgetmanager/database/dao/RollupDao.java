@@ -0,0 +1,398 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.StatementCache;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.DatabaseHelper.DailyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.MonthlyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.models.Money;
+import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.utils.EpochDays;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ROLLUP DAO - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Maintains the pre-aggregated tables read by the charts and the dashboard, so those screens
+ * read a few rollup rows instead of summing the whole ledger on every resume:
+ * - daily_totals:   sum and count of the transactions per user, type, day and category
+ * - monthly_totals: the same per calendar month (yyyyMM), for the multi-year series
+ * - categories.total_cents / tx_count: the lifetime sum and count of each category,
+ *   read in O(1) by the categories grid and the category delete
+ * - users.total_income_cents / total_expense_cents: the lifetime totals of the dashboard,
+ *   read with the balance in one primary key lookup (UserDao.getBalanceSummary)
+ *
+ * KEY DESIGN DECISIONS:
+ * - Incremental: every transaction write applies its delta (+amount / -amount, +1 / -1)
+ *   in the SAME runInTransaction block as the write itself, the rollup commits or rolls back with it.
+ * - The rollup rows cascade with their category / user, a category delete only has to
+ *   take its total out of the user totals (removeCategory).
+ * - rebuild() recomputes a user's rollup from the transactions, to repair a drifted rollup.
+ * - Must be called inside a transaction (the two statements of a delta are not atomic alone).
+ *
+ * - The delta statements run through the StatementCache (compiled once, re-bound per write).
+ * - Batches (addTransactions) sum their deltas per rollup row first: 1000 imported rows of the
+ *   same month and category are one delta per row they touch, not 1000.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - "INSERT OR IGNORE" then "UPDATE": an upsert that works on API 24
+ *   (ON CONFLICT DO UPDATE needs SQLite 3.24, shipped from API 30)
+ */
+public class RollupDao {
+    // delta statements of one rollup table, daily_totals and monthly_totals share the columns
+    // (user_id, type, <period>, category_id, total_cents, count), the key is bound as (user_id, type, period, category_id)
+    private static final class RollupSql {
+        final String insertKey;
+        final String addDelta;
+        final String deleteEmpty;
+
+        RollupSql(String table, String periodColumn) {
+            String key = DailyTotalsTable.USER_ID + " = ? AND " + DailyTotalsTable.TYPE + " = ? AND " +
+                    periodColumn + " = ? AND " + DailyTotalsTable.CATEGORY_ID + " = ?";
+
+            insertKey = "INSERT OR IGNORE INTO " + table + " (" +
+                    DailyTotalsTable.USER_ID + ", " + DailyTotalsTable.TYPE + ", " +
+                    periodColumn + ", " + DailyTotalsTable.CATEGORY_ID +
+                    ") VALUES (?, ?, ?, ?)";
+            addDelta = "UPDATE " + table + " SET " +
+                    DailyTotalsTable.TOTAL + " = " + DailyTotalsTable.TOTAL + " + ?, " +
+                    DailyTotalsTable.COUNT + " = " + DailyTotalsTable.COUNT + " + ? " +
+                    "WHERE " + key;
+            deleteEmpty = "DELETE FROM " + table + " WHERE " + key +
+                    " AND " + DailyTotalsTable.COUNT + " <= 0";
+        }
+    }
+
+    private static final RollupSql DAILY = new RollupSql(DailyTotalsTable.TABLE_NAME, DailyTotalsTable.DAY);
+    private static final RollupSql MONTHLY = new RollupSql(MonthlyTotalsTable.TABLE_NAME, MonthlyTotalsTable.MONTH);
+
+    private static final String ADD_CATEGORY_TOTALS = "UPDATE " + CategoryTable.TABLE_NAME + " SET " +
+            CategoryTable.TOTAL + " = " + CategoryTable.TOTAL + " + ?, " +
+            CategoryTable.TX_COUNT + " = " + CategoryTable.TX_COUNT + " + ? " +
+            "WHERE " + CategoryTable.ID + " = ?";
+
+    private static final String ADD_USER_INCOME = "UPDATE " + UserTable.TABLE_NAME + " SET " +
+            UserTable.TOTAL_INCOME + " = " + UserTable.TOTAL_INCOME + " + ? WHERE " + UserTable.ID + " = ?";
+
+    private static final String ADD_USER_EXPENSE = "UPDATE " + UserTable.TABLE_NAME + " SET " +
+            UserTable.TOTAL_EXPENSE + " = " + UserTable.TOTAL_EXPENSE + " + ? WHERE " + UserTable.ID + " = ?";
+
+    // epoch day column → yyyyMM in SQL, same value as EpochDays.yearMonth()
+    private static final String YEAR_MONTH_OF_DAY =
+            "CAST(strftime('%Y%m', " + DailyTotalsTable.DAY + " * 86400, 'unixepoch') AS INTEGER)";
+
+    // every table a delta or a rebuild writes to (see TableChangeTracker)
+    private static final String[] ROLLUP_TABLES = {DailyTotalsTable.TABLE_NAME, MonthlyTotalsTable.TABLE_NAME,
+            CategoryTable.TABLE_NAME, UserTable.TABLE_NAME};
+
+    private final DatabaseHelper dbHelper;
+
+    public RollupDao(DatabaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Count a new transaction in the rollups
+     */
+    public void addTransaction(int userId, int categoryId, String type, long day, Money amount) {
+        applyDelta(userId, categoryId, type, day, amount.getCents(), 1);
+        dbHelper.getChangeTracker().markChanged(ROLLUP_TABLES);
+    }
+
+    /**
+     * Take a transaction out of the rollups with the values it was counted with
+     * (the row read before it was deleted)
+     */
+    public void removeTransaction(int userId, int categoryId, String type, long day, Money amount) {
+        applyDelta(userId, categoryId, type, day, -amount.getCents(), -1);
+        dbHelper.getChangeTracker().markChanged(ROLLUP_TABLES);
+    }
+
+    /**
+     * Count a batch of new transactions of one user in the rollups,
+     * each daily / monthly / category / user row gets the summed delta of the batch once
+     */
+    public void addTransactions(int userId, List<Transaction> transactions) {
+        Map<PeriodKey, long[]> days = new HashMap<>();
+        Map<PeriodKey, long[]> months = new HashMap<>();
+        Map<Integer, long[]> categories = new HashMap<>();
+        long incomeCents = 0;
+        long expenseCents = 0;
+
+        for (Transaction transaction : transactions) {
+            long cents = transaction.getAmount().getCents();
+            long day = EpochDays.parse(transaction.getDate());
+            String type = transaction.getType();
+            int categoryId = transaction.getCategoryId();
+
+            addTo(days, new PeriodKey(type, day, categoryId), cents);
+            addTo(months, new PeriodKey(type, EpochDays.yearMonth(day), categoryId), cents);
+            addTo(categories, categoryId, cents);
+            if (CategoryType.INCOME.equals(type)) {
+                incomeCents += cents;
+            } else {
+                expenseCents += cents;
+            }
+        }
+
+        StatementCache statements = dbHelper.getStatementCache();
+        for (Map.Entry<PeriodKey, long[]> entry : days.entrySet()) {
+            PeriodKey key = entry.getKey();
+            applyDelta(statements, DAILY, userId, key.type, key.period, key.categoryId,
+                    entry.getValue()[0], (int) entry.getValue()[1]);
+        }
+        for (Map.Entry<PeriodKey, long[]> entry : months.entrySet()) {
+            PeriodKey key = entry.getKey();
+            applyDelta(statements, MONTHLY, userId, key.type, key.period, key.categoryId,
+                    entry.getValue()[0], (int) entry.getValue()[1]);
+        }
+        for (Map.Entry<Integer, long[]> entry : categories.entrySet()) {
+            long[] delta = entry.getValue();
+            statements.executeUpdateDelete(ADD_CATEGORY_TOTALS, statement -> {
+                statement.bindLong(1, delta[0]);
+                statement.bindLong(2, delta[1]);
+                statement.bindLong(3, entry.getKey());
+            });
+        }
+        if (incomeCents != 0) {
+            addToUserTotal(statements, userId, CategoryType.INCOME, incomeCents);
+        }
+        if (expenseCents != 0) {
+            addToUserTotal(statements, userId, CategoryType.EXPENSE, expenseCents);
+        }
+        dbHelper.getChangeTracker().markChanged(ROLLUP_TABLES);
+    }
+
+    // add one transaction to the {cents, count} delta of its key
+    private static <K> void addTo(Map<K, long[]> deltas, K key, long cents) {
+        long[] delta = deltas.get(key);
+        if (delta == null) {
+            delta = new long[2];
+            deltas.put(key, delta);
+        }
+        delta[0] += cents;
+        delta[1]++;
+    }
+
+    // (type, day or month, category) of a rollup row of one user
+    private static final class PeriodKey {
+        final String type;
+        final long period;
+        final int categoryId;
+
+        PeriodKey(String type, long period, int categoryId) {
+            this.type = type;
+            this.period = period;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PeriodKey)) return false;
+            PeriodKey other = (PeriodKey) o;
+            return period == other.period && categoryId == other.categoryId && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, period, categoryId);
+        }
+    }
+
+    /**
+     * Remove a stored transaction from the rollups, with the values its row has in the database.
+     * Call it before the row is updated (old values) or deleted.
+     */
+    public void removeTransaction(int transactionId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        Cursor cursor = db.rawQuery("SELECT " + TransactionTable.USER_ID + ", " +
+                TransactionTable.CATEGORY_ID + ", " + TransactionTable.TYPE + ", " +
+                TransactionTable.DAY + ", " + TransactionTable.AMOUNT + " " +
+                "FROM " + TransactionTable.TABLE_NAME + " " +
+                "WHERE " + TransactionTable.ID + " = ?",
+                new String[]{String.valueOf(transactionId)});
+        try {
+            if (cursor.moveToFirst()) {
+                applyDelta(cursor.getInt(0), cursor.getInt(1), cursor.getString(2),
+                        cursor.getLong(3), -cursor.getLong(4), -1);
+                dbHelper.getChangeTracker().markChanged(ROLLUP_TABLES);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private void applyDelta(int userId, int categoryId, String type, long day, long deltaCents, int deltaCount) {
+        StatementCache statements = dbHelper.getStatementCache();
+
+        applyDelta(statements, DAILY, userId, type, day, categoryId, deltaCents, deltaCount);
+        applyDelta(statements, MONTHLY, userId, type, EpochDays.yearMonth(day), categoryId, deltaCents, deltaCount);
+
+        statements.executeUpdateDelete(ADD_CATEGORY_TOTALS, statement -> {
+            statement.bindLong(1, deltaCents);
+            statement.bindLong(2, deltaCount);
+            statement.bindLong(3, categoryId);
+        });
+
+        addToUserTotal(statements, userId, type, deltaCents);
+    }
+
+    /**
+     * Take a category being deleted out of the user totals
+     * (its transactions and rollup rows go with it through ON DELETE CASCADE)
+     */
+    public void removeCategory(int userId, String type, Money total) {
+        addToUserTotal(dbHelper.getStatementCache(), userId, type, -total.getCents());
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
+    }
+
+    private static void addToUserTotal(StatementCache statements, int userId, String type, long deltaCents) {
+        String sql = CategoryType.INCOME.equals(type) ? ADD_USER_INCOME : ADD_USER_EXPENSE;
+        statements.executeUpdateDelete(sql, statement -> {
+            statement.bindLong(1, deltaCents);
+            statement.bindLong(2, userId);
+        });
+    }
+
+    private static void applyDelta(StatementCache statements, RollupSql sql, int userId, String type,
+                                   long period, int categoryId, long deltaCents, int deltaCount) {
+        // make sure the row exists, then add the delta to it
+        statements.executeInsert(sql.insertKey, statement ->
+                bindKey(statement, 1, userId, type, period, categoryId));
+
+        statements.executeUpdateDelete(sql.addDelta, statement -> {
+            statement.bindLong(1, deltaCents);
+            statement.bindLong(2, deltaCount);
+            bindKey(statement, 3, userId, type, period, categoryId);
+        });
+
+        // a period / category without transactions left doesn't keep an empty row
+        if (deltaCount < 0) {
+            statements.executeUpdateDelete(sql.deleteEmpty, statement ->
+                    bindKey(statement, 1, userId, type, period, categoryId));
+        }
+    }
+
+    // bind (user_id, type, period, category_id) from index first
+    private static void bindKey(SQLiteStatement statement, int first, int userId, String type,
+                                long period, int categoryId) {
+        statement.bindLong(first, userId);
+        statement.bindString(first + 1, type);
+        statement.bindLong(first + 2, period);
+        statement.bindLong(first + 3, categoryId);
+    }
+
+    /**
+     * Recompute the rollups of a user from the transactions (repair).
+     * Must run inside runInTransaction so the readers never see the rollup half empty.
+     */
+    public void rebuild(int userId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        Object[] args = new Object[]{userId};
+
+        db.execSQL("DELETE FROM " + DailyTotalsTable.TABLE_NAME +
+                " WHERE " + DailyTotalsTable.USER_ID + " = ?", args);
+
+        db.execSQL("INSERT INTO " + DailyTotalsTable.TABLE_NAME + " (" +
+                DailyTotalsTable.USER_ID + ", " + DailyTotalsTable.DAY + ", " +
+                DailyTotalsTable.CATEGORY_ID + ", " + DailyTotalsTable.TYPE + ", " +
+                DailyTotalsTable.TOTAL + ", " + DailyTotalsTable.COUNT + ") " +
+                "SELECT " + TransactionTable.USER_ID + ", " + TransactionTable.DAY + ", " +
+                TransactionTable.CATEGORY_ID + ", " + TransactionTable.TYPE + ", " +
+                "SUM(" + TransactionTable.AMOUNT + "), COUNT(*) " +
+                "FROM " + TransactionTable.TABLE_NAME + " " +
+                "WHERE " + TransactionTable.USER_ID + " = ? " +
+                "GROUP BY " + TransactionTable.TYPE + ", " + TransactionTable.DAY + ", " +
+                TransactionTable.CATEGORY_ID, args);
+
+        // the months are regrouped from the fresh daily rows
+        db.execSQL("DELETE FROM " + MonthlyTotalsTable.TABLE_NAME +
+                " WHERE " + MonthlyTotalsTable.USER_ID + " = ?", args);
+
+        db.execSQL("INSERT INTO " + MonthlyTotalsTable.TABLE_NAME + " (" +
+                MonthlyTotalsTable.USER_ID + ", " + MonthlyTotalsTable.MONTH + ", " +
+                MonthlyTotalsTable.CATEGORY_ID + ", " + MonthlyTotalsTable.TYPE + ", " +
+                MonthlyTotalsTable.TOTAL + ", " + MonthlyTotalsTable.COUNT + ") " +
+                "SELECT " + DailyTotalsTable.USER_ID + ", " + YEAR_MONTH_OF_DAY + ", " +
+                DailyTotalsTable.CATEGORY_ID + ", " + DailyTotalsTable.TYPE + ", " +
+                "SUM(" + DailyTotalsTable.TOTAL + "), SUM(" + DailyTotalsTable.COUNT + ") " +
+                "FROM " + DailyTotalsTable.TABLE_NAME + " " +
+                "WHERE " + DailyTotalsTable.USER_ID + " = ? " +
+                "GROUP BY " + DailyTotalsTable.TYPE + ", " + YEAR_MONTH_OF_DAY + ", " +
+                DailyTotalsTable.CATEGORY_ID, args);
+
+        // category totals from the (category_id) index of the daily rows
+        String categoryRows = "FROM " + DailyTotalsTable.TABLE_NAME + " d " +
+                "WHERE d." + DailyTotalsTable.CATEGORY_ID + " = " +
+                CategoryTable.TABLE_NAME + "." + CategoryTable.ID;
+        db.execSQL("UPDATE " + CategoryTable.TABLE_NAME + " SET " +
+                CategoryTable.TOTAL + " = (SELECT IFNULL(SUM(d." + DailyTotalsTable.TOTAL + "), 0) " + categoryRows + "), " +
+                CategoryTable.TX_COUNT + " = (SELECT IFNULL(SUM(d." + DailyTotalsTable.COUNT + "), 0) " + categoryRows + ") " +
+                "WHERE " + CategoryTable.USER_ID + " = ?", args);
+
+        reconcileUserTotals(userId);
+        dbHelper.getChangeTracker().markChanged(ROLLUP_TABLES);
+    }
+
+    /**
+     * Recompute the lifetime totals of a user from the ledger itself (the transactions,
+     * not the other rollups) and store them.
+     * @return true if the stored totals had drifted from the ledger
+     */
+    public boolean reconcileUserTotals(int userId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        long income = 0;
+        long expense = 0;
+        Cursor cursor = db.rawQuery("SELECT " + TransactionTable.TYPE + ", SUM(" + TransactionTable.AMOUNT + ") " +
+                "FROM " + TransactionTable.TABLE_NAME + " " +
+                "WHERE " + TransactionTable.USER_ID + " = ? " +
+                "GROUP BY " + TransactionTable.TYPE,
+                new String[]{String.valueOf(userId)});
+        try {
+            while (cursor.moveToNext()) {
+                if (CategoryType.INCOME.equals(cursor.getString(0))) {
+                    income = cursor.getLong(1);
+                } else {
+                    expense = cursor.getLong(1);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        boolean drifted = false;
+        cursor = db.rawQuery("SELECT " + UserTable.TOTAL_INCOME + ", " + UserTable.TOTAL_EXPENSE + " " +
+                "FROM " + UserTable.TABLE_NAME + " WHERE " + UserTable.ID + " = ?",
+                new String[]{String.valueOf(userId)});
+        try {
+            if (cursor.moveToFirst()) {
+                drifted = cursor.getLong(0) != income || cursor.getLong(1) != expense;
+            }
+        } finally {
+            cursor.close();
+        }
+
+        if (drifted) {
+            db.execSQL("UPDATE " + UserTable.TABLE_NAME + " SET " +
+                    UserTable.TOTAL_INCOME + " = ?, " + UserTable.TOTAL_EXPENSE + " = ? " +
+                    "WHERE " + UserTable.ID + " = ?",
+                    new Object[]{income, expense, userId});
+            dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
+        }
+        return drifted;
+    }
+}
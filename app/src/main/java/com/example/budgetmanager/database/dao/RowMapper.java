@@ -0,0 +1,35 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.Cursor;
+
+/**
+ * ROW MAPPER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Turns the rows of a cursor into a model / DTO.
+ * A mapper is used in two steps:
+ * - columns(cursor): resolves the column indexes ONCE for this cursor (getColumnIndexOrThrow)
+ * - read(cursor):    reads the current row with the resolved indexes (plain getInt / getString)
+ *
+ * KEY DESIGN DECISIONS:
+ * - Before, every row called getColumnIndexOrThrow() for each column (a name lookup
+ *   per column per row), now it is one lookup per column per query.
+ * - The mappers are written by hand in RowMappers, next to the DAOs: they list their columns,
+ *   QueryTemplate.mapper() does the index lookup, the same code for every mapper.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Resolve the column indexes of this cursor and return the reader of its rows
+     */
+    Reader<T> columns(Cursor cursor);
+
+    /**
+     * Reads one row with indexes resolved for one cursor
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(Cursor cursor);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.budgetmanager.database.dao;
+
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.dto.TransactionWithCategory;
+import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
+import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.models.User;
+
+/**
+ * ROW MAPPERS - one RowMapper per model / DTO read by the DAOs
+ *
+ * Written by hand: each mapper lists its columns and reads them by position,
+ * QueryTemplate.mapper() resolves their indexes once per cursor.
+ * The column names are the ones of the contracts (plus the aliases of SELECT_WITH_CATEGORY).
+ */
+final class RowMappers {
+
+    private RowMappers() {
+    }
+
+    // users row: id, name, email, password, balance_cents
+    static final RowMapper<User> USER = QueryTemplate.mapper(new String[]{
+            UserTable.ID, UserTable.NAME_COL, UserTable.EMAIL, UserTable.PASSWORD, UserTable.BALANCE
+    }, (row, column) -> new User(
+            row.getInt(column[0]),
+            row.getString(column[1]),
+            row.getString(column[2]),
+            row.getString(column[3]),
+            Money.ofCents(row.getLong(column[4]))
+    ));
+
+    // categories row, with the maintained total / count
+    static final RowMapper<Category> CATEGORY = QueryTemplate.mapper(new String[]{
+            CategoryTable.ID, CategoryTable.NAME_COL, CategoryTable.ICON_NAME, CategoryTable.TYPE,
+            CategoryTable.USER_ID, CategoryTable.TOTAL, CategoryTable.TX_COUNT
+    }, (row, column) -> new Category(
+            row.getInt(column[0]),
+            row.getString(column[1]),
+            row.getString(column[2]),
+            row.getString(column[3]),
+            row.getInt(column[4]),
+            Money.ofCents(row.getLong(column[5])),
+            row.getInt(column[6])
+    ));
+
+    // transactions row
+    static final RowMapper<Transaction> TRANSACTION = QueryTemplate.mapper(new String[]{
+            TransactionTable.ID, TransactionTable.AMOUNT, TransactionTable.TYPE, TransactionTable.NOTE,
+            TransactionTable.DATE, TransactionTable.CATEGORY_ID, TransactionTable.USER_ID
+    }, (row, column) -> new Transaction(
+            row.getInt(column[0]),
+            Money.ofCents(row.getLong(column[1])),
+            row.getString(column[2]),
+            row.getString(column[3]),
+            row.getString(column[4]),
+            row.getInt(column[5]),
+            row.getInt(column[6])
+    ));
+
+    // rows of TransactionDao.SELECT_WITH_CATEGORY
+    static final RowMapper<TransactionWithCategory> TRANSACTION_WITH_CATEGORY = QueryTemplate.mapper(new String[]{
+            TransactionTable.ID, TransactionTable.AMOUNT, TransactionTable.TYPE, TransactionTable.NOTE,
+            TransactionTable.DATE, TransactionTable.DAY, TransactionTable.CATEGORY_ID,
+            "category_name", "category_icon"
+    }, (row, column) -> new TransactionWithCategory(
+            row.getInt(column[0]),
+            Money.ofCents(row.getLong(column[1])),
+            row.getString(column[2]),
+            row.getString(column[3]),
+            row.getString(column[4]),
+            row.getLong(column[5]),
+            row.getInt(column[6]),
+            row.getString(column[7]),
+            row.getString(column[8])
+    ));
+}
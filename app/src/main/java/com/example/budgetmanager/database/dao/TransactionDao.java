@@ -1,19 +1,23 @@
 package com.example.budgetmanager.database.dao;
 
-import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.StatementCache;
 import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.DatabaseHelper.DailyTotalsTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionSearchTable;
+import com.example.budgetmanager.dto.TransactionAggregate;
 import com.example.budgetmanager.dto.TransactionWithCategory;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.utils.EpochDays;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * TRANSACTION DAO - Data Access Object for Transaction entity
@@ -21,6 +25,99 @@ import java.util.Locale;
  * Handles all database operations for transactions, including JOIN queries.
  */
 public class TransactionDao {
+    // transaction columns + category name/icon, shared by the list queries (and DashboardDao)
+    private static final String COLUMNS_WITH_CATEGORY =
+            "t." + TransactionTable.ID + ", " +
+            "t." + TransactionTable.AMOUNT + ", " +
+            "t." + TransactionTable.TYPE + ", " +
+            "t." + TransactionTable.NOTE + ", " +
+            "t." + TransactionTable.DATE + ", " +
+            "t." + TransactionTable.DAY + ", " +
+            "t." + TransactionTable.CATEGORY_ID + ", " +
+            "c." + CategoryTable.NAME_COL + " as category_name, " +
+            "c." + CategoryTable.ICON_NAME + " as category_icon ";
+
+    private static final String JOIN_CATEGORY = "JOIN " + CategoryTable.TABLE_NAME + " c " +
+            "ON t." + TransactionTable.CATEGORY_ID + " = c." + CategoryTable.ID + " ";
+
+    static final String SELECT_WITH_CATEGORY = "SELECT " + COLUMNS_WITH_CATEGORY +
+            "FROM " + TransactionTable.TABLE_NAME + " t " + JOIN_CATEGORY;
+
+    // newest first, id breaks the ties between transactions of the same day
+    static final String ORDER_NEWEST_FIRST =
+            "ORDER BY t." + TransactionTable.DAY + " DESC, t." + TransactionTable.ID + " DESC ";
+
+    // hot list queries, also checked by QueryPlanTest (EXPLAIN QUERY PLAN, androidTest)
+
+    // newest transactions of a user, seek on (user_id, day)
+    static final String SELECT_RECENT = SELECT_WITH_CATEGORY +
+            "WHERE t." + TransactionTable.USER_ID + " = ? " +
+            ORDER_NEWEST_FIRST;
+
+    // (day, id) < (afterDay, afterId) without row values (SQLite 3.15, newer than API 24):
+    // "day <= ?" gives the index range, the OR only filters the rows of afterDay itself
+    static final String SELECT_PAGE_AFTER = SELECT_WITH_CATEGORY +
+            "WHERE t." + TransactionTable.USER_ID + " = ? " +
+            "AND t." + TransactionTable.DAY + " <= ? " +
+            "AND (t." + TransactionTable.DAY + " < ? OR t." + TransactionTable.ID + " < ?) " +
+            ORDER_NEWEST_FIRST +
+            "LIMIT ?";
+
+    static final String SELECT_PAGE_BEFORE = SELECT_WITH_CATEGORY +
+            "WHERE t." + TransactionTable.USER_ID + " = ? " +
+            "AND t." + TransactionTable.DAY + " >= ? " +
+            "AND (t." + TransactionTable.DAY + " > ? OR t." + TransactionTable.ID + " > ?) " +
+            "ORDER BY t." + TransactionTable.DAY + " ASC, t." + TransactionTable.ID + " ASC " +
+            "LIMIT ?";
+
+    static final String SELECT_BETWEEN = SELECT_WITH_CATEGORY +
+            "WHERE t." + TransactionTable.USER_ID + " = ? " +
+            "AND t." + TransactionTable.DAY + " >= ? " +
+            "AND t." + TransactionTable.DAY + " < ? " +
+            ORDER_NEWEST_FIRST;
+
+    // primary key range (user_id, type, day) of the rollup
+    static final String SUM_DAILY_TOTALS = "SELECT SUM(" + DailyTotalsTable.TOTAL + ") " +
+            "FROM " + DailyTotalsTable.TABLE_NAME + " " +
+            "WHERE " + DailyTotalsTable.USER_ID + " = ? " +
+            "AND " + DailyTotalsTable.TYPE + " = ? " +
+            "AND " + DailyTotalsTable.DAY + " >= ? " +
+            "AND " + DailyTotalsTable.DAY + " < ?";
+
+    // search results per page, and the most recent matches ranked (the pages stop there)
+    public static final int SEARCH_PAGE_SIZE = 50;
+    public static final int SEARCH_MAX_RESULTS = 1000;
+
+    // hits of a row = number of matched terms in offsets() ("column term offset size" per hit)
+    private static final String SEARCH_HITS = "(LENGTH(offsets(" + TransactionSearchTable.TABLE_NAME + ")) - " +
+            "LENGTH(REPLACE(offsets(" + TransactionSearchTable.TABLE_NAME + "), ' ', '')) + 1) / 4";
+
+    // hot writes, compiled once by the StatementCache
+    private static final String INSERT_TRANSACTION = "INSERT INTO " + TransactionTable.TABLE_NAME + " (" +
+            TransactionTable.AMOUNT + ", " + TransactionTable.TYPE + ", " + TransactionTable.NOTE + ", " +
+            TransactionTable.DATE + ", " + TransactionTable.DAY + ", " + TransactionTable.CATEGORY_ID + ", " +
+            TransactionTable.USER_ID + ", " + TransactionTable.CREATED_AT +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_TRANSACTION = "UPDATE " + TransactionTable.TABLE_NAME + " SET " +
+            TransactionTable.AMOUNT + " = ?, " + TransactionTable.NOTE + " = ?, " +
+            TransactionTable.DATE + " = ?, " + TransactionTable.DAY + " = ?, " +
+            TransactionTable.USER_ID + " = ? " +
+            "WHERE " + TransactionTable.ID + " = ?";
+
+    private static final String FTS = TransactionSearchTable.TABLE_NAME;
+
+    // matches (docid = transaction id) of one user, the SEARCH_MAX_RESULTS newest ranked, one page of them
+    static final String SEARCH = SELECT_WITH_CATEGORY +
+            "JOIN (SELECT " + FTS + "." + TransactionSearchTable.DOCID + " AS match_id, " + SEARCH_HITS + " AS hits " +
+            "FROM " + FTS + " JOIN " + TransactionTable.TABLE_NAME + " u " +
+            "ON u." + TransactionTable.ID + " = " + FTS + "." + TransactionSearchTable.DOCID + " " +
+            "WHERE " + FTS + " MATCH ? AND u." + TransactionTable.USER_ID + " = ? " +
+            "ORDER BY " + FTS + "." + TransactionSearchTable.DOCID + " DESC LIMIT " + SEARCH_MAX_RESULTS + ") m " +
+            "ON m.match_id = t." + TransactionTable.ID + " " +
+            "ORDER BY m.hits DESC, t." + TransactionTable.DAY + " DESC, t." + TransactionTable.ID + " DESC " +
+            "LIMIT ? OFFSET ?";
+
     private final DatabaseHelper dbHelper;
     
     public TransactionDao(DatabaseHelper dbHelper) {
@@ -34,27 +131,8 @@ public class TransactionDao {
         String query = "SELECT * FROM " + TransactionTable.TABLE_NAME + " WHERE "
                 + TransactionTable.ID + " = ?";
 
-        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(id)});
-        // check if there is a result
-        if (cursor.moveToFirst()) {
-            // order is amount type note date category_id user_id
-            Transaction transaction = new Transaction(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(TransactionTable.ID)),
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(TransactionTable.AMOUNT)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.TYPE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.NOTE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.DATE)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(TransactionTable.CATEGORY_ID)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(TransactionTable.USER_ID))
-                    );
-            cursor.close();
-              
-            return transaction;
-        } else {
-            cursor.close();
-
-            return null;
-        }
+        // null if there is no result
+        return QueryTemplate.queryFirst(db, query, new String[]{String.valueOf(id)}, RowMappers.TRANSACTION);
     }
 
 
@@ -64,27 +142,11 @@ public class TransactionDao {
      * This is the key method for displaying transactions in the UI
      */
     public List<TransactionWithCategory> getTransactionsWithCategory(int userId, int limit) {
-        // initialize list to store transactions
-        List<TransactionWithCategory> transactions = new ArrayList<>();
-
         // get readable database
         SQLiteDatabase db = dbHelper.getReadableDatabase();
 
         // JOIN query to get transaction data + category name 
-        String query = "SELECT " +
-                "t." + TransactionTable.ID + ", " +
-                "t." + TransactionTable.AMOUNT + ", " +
-                "t." + TransactionTable.TYPE + ", " +
-                "t." + TransactionTable.NOTE + ", " +
-                "t." + TransactionTable.DATE + ", " +
-                "t." + TransactionTable.CATEGORY_ID + ", " +
-                "c." + CategoryTable.NAME_COL + " as category_name, " +
-                "c." + CategoryTable.ICON_NAME + " as category_icon " +
-                "FROM " + TransactionTable.TABLE_NAME + " t " +
-                "JOIN " + CategoryTable.TABLE_NAME + " c " +
-                "ON t." + TransactionTable.CATEGORY_ID + " = c." + CategoryTable.ID + " " +
-                "WHERE t." + TransactionTable.USER_ID + " = ? " +
-                "ORDER BY t." + TransactionTable.DATE + " DESC ";
+        String query = SELECT_RECENT;
 
         String[] values = new String[]{String.valueOf(userId)};
 
@@ -95,92 +157,268 @@ public class TransactionDao {
         }
 
 
-        Cursor cursor = db.rawQuery(query, values);
-
-        while (cursor.moveToNext()) {
-            TransactionWithCategory transaction = new TransactionWithCategory(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(TransactionTable.ID)),
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(TransactionTable.AMOUNT)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.TYPE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.NOTE)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(TransactionTable.DATE)),
-                    cursor.getInt(cursor.getColumnIndexOrThrow(TransactionTable.CATEGORY_ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow("category_name")),
-                    cursor.getString(cursor.getColumnIndexOrThrow("category_icon"))
-            );
-            transactions.add(transaction);
-        }
+        return QueryTemplate.queryList(db, query, values, RowMappers.TRANSACTION_WITH_CATEGORY);
+    }
+
+    /**
+     * First page of the history: the pageSize newest transactions
+     */
+    public List<TransactionWithCategory> getTransactionsPage(int userId, int pageSize) {
+        return getTransactionsWithCategory(userId, pageSize);
+    }
+
+    /**
+     * Next page of the history (keyset / seek pagination): the pageSize transactions
+     * that follow (afterDay, afterId) in newest first order, i.e. pass the day and id
+     * of the last row of the previous page.
+     *
+     * No OFFSET: SQLite seeks the (user_id, day) index straight to afterDay, whose entries
+     * end with the rowid (= id), so they are ordered by (day, id) like the pages.
+     * Page 500 costs the same as page 1, and rows inserted meanwhile never shift a page.
+     */
+    public List<TransactionWithCategory> getTransactionsPage(int userId, long afterDay, int afterId, int pageSize) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        String day = String.valueOf(afterDay);
+        return QueryTemplate.queryList(db, SELECT_PAGE_AFTER, new String[]{
+                String.valueOf(userId), day, day, String.valueOf(afterId), String.valueOf(pageSize)},
+                RowMappers.TRANSACTION_WITH_CATEGORY);
+    }
+
+    /**
+     * Previous page of the history: the pageSize transactions just before (beforeDay, beforeId)
+     * in newest first order, i.e. pass the day and id of the first row of the current page.
+     * Used to reload the pages dropped from the top of a bounded history window.
+     *
+     * Same seek as getTransactionsPage, walking the index upward (oldest first) from beforeDay,
+     * the rows are returned reversed so the page reads newest first like the others.
+     */
+    public List<TransactionWithCategory> getTransactionsPageBefore(int userId, long beforeDay, int beforeId, int pageSize) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        cursor.close();
-          
-        return transactions;
+        String day = String.valueOf(beforeDay);
+        List<TransactionWithCategory> page = QueryTemplate.queryList(db, SELECT_PAGE_BEFORE, new String[]{
+                String.valueOf(userId), day, day, String.valueOf(beforeId), String.valueOf(pageSize)},
+                RowMappers.TRANSACTION_WITH_CATEGORY);
+
+        Collections.reverse(page);
+        return page;
     }
 
+    /**
+     * First page of a filtered query, newest first (see TransactionQuery for the filters and the index used)
+     */
+    public List<TransactionWithCategory> queryTransactions(TransactionQuery query, int pageSize) {
+        return queryTransactionsPage(query, null, 0, pageSize);
+    }
 
     /**
-     * Get total income for a user
+     * Next page of a filtered query: the rows after (afterDay, afterId), the last row of the previous page
+     * (keyset, same (day, id) order as the history pages)
      */
-    public double getTotalIncome(int userId) {
+    public List<TransactionWithCategory> queryTransactions(TransactionQuery query, long afterDay, int afterId, int pageSize) {
+        return queryTransactionsPage(query, afterDay, afterId, pageSize);
+    }
+
+    private List<TransactionWithCategory> queryTransactionsPage(TransactionQuery query, Long afterDay, int afterId, int pageSize) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        
-        String query = "SELECT SUM(" + TransactionTable.AMOUNT + ") " +
-                "FROM " + TransactionTable.TABLE_NAME + " " +
-                "WHERE " + TransactionTable.USER_ID + " = ? " +
-                "AND " + TransactionTable.TYPE + " = 'income'";
 
-        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
-        
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+        List<String> args = new ArrayList<>();
+        String sql = pageSql(query, afterDay, afterId, pageSize, args);
+        return QueryTemplate.queryList(db, sql, args.toArray(new String[0]), RowMappers.TRANSACTION_WITH_CATEGORY);
+    }
+
+    /**
+     * Statement of one page of a filtered query, its values appended to args in placeholder order
+     * @param afterDay null for the first page
+     */
+    static String pageSql(TransactionQuery query, Long afterDay, int afterId, int pageSize, List<String> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS_WITH_CATEGORY)
+                .append("FROM ").append(TransactionTable.TABLE_NAME).append(" t ")
+                .append("INDEXED BY ").append(query.pageIndexName()).append(' ')
+                .append(JOIN_CATEGORY);
+        query.appendWhere(sql, args);
+
+        if (afterDay != null) {
+            String day = String.valueOf(afterDay);
+            sql.append("AND t.").append(TransactionTable.DAY).append(" <= ? ")
+                    .append("AND (t.").append(TransactionTable.DAY).append(" < ? OR t.")
+                    .append(TransactionTable.ID).append(" < ?) ");
+            args.add(day);
+            args.add(day);
+            args.add(String.valueOf(afterId));
         }
-        
-        cursor.close();
-          
-        return total;
+        sql.append(ORDER_NEWEST_FIRST).append("LIMIT ?");
+        args.add(String.valueOf(pageSize));
+        return sql.toString();
     }
-    
+
     /**
-     * Get total expenses for a user
+     * Count, income / expense sums and min / max amount of every row matching the query,
+     * one statement over the same filters as the pages, through the most selective index
+     * (TransactionQuery.aggregateIndexName, covering with the type index)
      */
-    public double getTotalExpenses(int userId) {
+    public TransactionAggregate aggregateTransactions(TransactionQuery query) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        
-        String query = "SELECT SUM(" + TransactionTable.AMOUNT + ") " +
-                "FROM " + TransactionTable.TABLE_NAME + " " +
-                "WHERE " + TransactionTable.USER_ID + " = ? " +
-                "AND " + TransactionTable.TYPE + " = 'expense'";
-        
-        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
-        
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+
+        List<String> args = new ArrayList<>();
+        String sql = aggregateSql(query, args);
+        try (Cursor cursor = db.rawQuery(sql, args.toArray(new String[0]))) {
+            if (!cursor.moveToFirst()) {
+                return new TransactionAggregate(0, Money.ZERO, Money.ZERO, Money.ZERO, Money.ZERO);
+            }
+            return new TransactionAggregate(cursor.getLong(0), Money.ofCents(cursor.getLong(1)),
+                    Money.ofCents(cursor.getLong(2)), Money.ofCents(cursor.getLong(3)), Money.ofCents(cursor.getLong(4)));
         }
-        
-        cursor.close();
-          
-        return total;
     }
+
+    /**
+     * Statement of aggregateTransactions, its values appended to args in placeholder order
+     */
+    static String aggregateSql(TransactionQuery query, List<String> args) {
+        String amount = "t." + TransactionTable.AMOUNT;
+        String type = "t." + TransactionTable.TYPE;
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*), ")
+                .append("IFNULL(SUM(CASE WHEN ").append(type).append(" = '").append(CategoryType.INCOME)
+                .append("' THEN ").append(amount).append(" END), 0), ")
+                .append("IFNULL(SUM(CASE WHEN ").append(type).append(" = '").append(CategoryType.EXPENSE)
+                .append("' THEN ").append(amount).append(" END), 0), ")
+                .append("IFNULL(MIN(").append(amount).append("), 0), IFNULL(MAX(").append(amount).append("), 0) ")
+                .append("FROM ").append(TransactionTable.TABLE_NAME).append(" t ")
+                .append("INDEXED BY ").append(query.aggregateIndexName()).append(' ');
+        query.appendWhere(sql, args);
+        return sql.toString();
+    }
+
+    /**
+     * Full-text search of the notes and category names (transactions_fts), ranked:
+     * most matched terms first, then newest first. Every word of the query is a prefix ("dent" finds "dentist").
+     *
+     * The SEARCH_MAX_RESULTS newest matches are read from the full-text index in docid (= id) order,
+     * only those are ranked and paged: a common prefix matching half the ledger still sorts
+     * 1000 rows, not 50k. Past them there is no page, refining the query finds older rows.
+     *
+     * @param page 0 based, SEARCH_PAGE_SIZE rows per page
+     */
+    public List<TransactionWithCategory> searchTransactions(int userId, String query, int page) {
+        String match = toMatchQuery(query);
+        if (match.isEmpty() || page * SEARCH_PAGE_SIZE >= SEARCH_MAX_RESULTS) {
+            return Collections.emptyList();
+        }
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        return QueryTemplate.queryList(db, SEARCH, new String[]{
+                match, String.valueOf(userId), String.valueOf(SEARCH_PAGE_SIZE),
+                String.valueOf(page * SEARCH_PAGE_SIZE)}, RowMappers.TRANSACTION_WITH_CATEGORY);
+    }
+
+    /**
+     * User text → FTS query: each word becomes a prefix term ("dent*"), terms are ANDed.
+     * Words are split like the "simple" tokenizer of the index splits the notes: ASCII letters / digits
+     * and every non ASCII character are word characters, the rest (quotes, operators...) separates words,
+     * so what the user types can't break the query syntax. The tokenizer folds the ASCII case itself.
+     */
+    static String toMatchQuery(String query) {
+        StringBuilder match = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        String text = query == null ? "" : query;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean wordChar = c >= 0x80 || (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (wordChar) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(word).append('*');
+                word.setLength(0);
+            }
+        }
+        return match.toString();
+    }
+
+    /**
+     * Stream every transaction of a user (SELECT_WITH_CATEGORY columns), oldest first,
+     * to a handler without building a list (exports of the whole ledger)
+     * @return the number of rows handled
+     */
+    public <E extends Exception> long forEachTransaction(int userId, QueryTemplate.RowHandler<E> handler) throws E {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        // oldest first: a re-import replays the balance in the order it happened
+        String query = SELECT_WITH_CATEGORY +
+                "WHERE t." + TransactionTable.USER_ID + " = ? " +
+                "ORDER BY t." + TransactionTable.DAY + " ASC, t." + TransactionTable.ID + " ASC";
+
+        return QueryTemplate.forEach(db, query, new String[]{String.valueOf(userId)}, handler);
+    }
+
+    /**
+     * Transactions of a user dated in [fromDay, toDay) (epoch days), newest first.
+     * Month / week / custom ranges are an index range scan on (user_id, day).
+     */
+    public List<TransactionWithCategory> getTransactionsBetween(int userId, long fromDay, long toDay) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        return QueryTemplate.queryList(db, SELECT_BETWEEN, new String[]{
+                String.valueOf(userId), String.valueOf(fromDay), String.valueOf(toDay)},
+                RowMappers.TRANSACTION_WITH_CATEGORY);
+    }
+
+    /**
+     * Total of one type (income / expense) dated in [fromDay, toDay),
+     * summed from the daily_totals rollup (primary key range user_id, type, day)
+     */
+    public Money getTotalBetween(int userId, String type, long fromDay, long toDay) {
+        return sumDailyTotals(userId, type, fromDay, toDay);
+    }
+
+    /**
+     * Get total income for a user, summed from the daily_totals rollup
+     */
+    public Money getTotalIncome(int userId) {
+        return sumDailyTotals(userId, CategoryType.INCOME, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get total expenses for a user, summed from the daily_totals rollup
+     */
+    public Money getTotalExpenses(int userId) {
+        return sumDailyTotals(userId, CategoryType.EXPENSE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // one row per active day and category instead of one per transaction,
+    // the all time totals use the whole int range as day bounds
+    private Money sumDailyTotals(int userId, String type, long fromDay, long toDay) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        // SUM of no row is NULL, read as 0
+        long totalCents = QueryTemplate.queryLong(db, SUM_DAILY_TOTALS, new String[]{
+                String.valueOf(userId), type, String.valueOf(fromDay), String.valueOf(toDay)});
+
+        return Money.ofCents(totalCents);
+    }
+
     /**
      * Create a new transaction
+     * (compiled once, see StatementCache)
      */
     public long createTransaction(Transaction transaction) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        // the date is stored as its epoch day plus the normalized "yyyy-MM-dd" text
+        long day = EpochDays.parse(transaction.getDate());
 
-        // use content values for formatting data to be inserted into the database
-        ContentValues values = new ContentValues();
-        values.put(TransactionTable.AMOUNT, transaction.getAmount());
-        values.put(TransactionTable.TYPE, transaction.getType());
-        values.put(TransactionTable.NOTE, transaction.getNote());
-        values.put(TransactionTable.DATE, transaction.getDate());
-        values.put(TransactionTable.CATEGORY_ID, transaction.getCategoryId());
-        values.put(TransactionTable.USER_ID, transaction.getUserId());        values.put(TransactionTable.CREATED_AT,
-                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US)
-                        .format(new Date()));
-
-        long id = db.insert(TransactionTable.TABLE_NAME, null, values);
-          
+        long id = dbHelper.getStatementCache().executeInsert(INSERT_TRANSACTION, statement -> {
+            statement.bindLong(1, transaction.getAmount().getCents());
+            StatementCache.bindStringOrNull(statement, 2, transaction.getType());
+            StatementCache.bindStringOrNull(statement, 3, transaction.getNote());
+            statement.bindString(4, EpochDays.format(day));
+            statement.bindLong(5, day);
+            statement.bindLong(6, transaction.getCategoryId());
+            statement.bindLong(7, transaction.getUserId());
+            statement.bindLong(8, System.currentTimeMillis());
+        });
+        dbHelper.getChangeTracker().markChanged(TransactionTable.TABLE_NAME);
         return id;
     }
 
@@ -188,27 +426,21 @@ public class TransactionDao {
     /**
      * Update an existing transaction
      * the updated fields are amount, note, and date
+     * @return the number of updated rows
      */
     public long updateTransaction(Transaction transaction) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase(); // get writable database
+        long day = EpochDays.parse(transaction.getDate());
 
-        // use content values for formatting data
-        ContentValues values = new ContentValues();
-        values.put(TransactionTable.AMOUNT, transaction.getAmount());
-        values.put(TransactionTable.NOTE, transaction.getNote());
-        values.put(TransactionTable.DATE, transaction.getDate());
-        values.put(TransactionTable.USER_ID, transaction.getUserId());
-
-        // update the database
-        long id = db.update(
-                TransactionTable.TABLE_NAME,
-                values,
-                TransactionTable.ID + "=?",
-                new String[]{String.valueOf(transaction.getId())}
-        );
-
-          
-        return id;
+        int rowsAffected = dbHelper.getStatementCache().executeUpdateDelete(UPDATE_TRANSACTION, statement -> {
+            statement.bindLong(1, transaction.getAmount().getCents());
+            StatementCache.bindStringOrNull(statement, 2, transaction.getNote());
+            statement.bindString(3, EpochDays.format(day));
+            statement.bindLong(4, day);
+            statement.bindLong(5, transaction.getUserId());
+            statement.bindLong(6, transaction.getId());
+        });
+        dbHelper.getChangeTracker().markChanged(TransactionTable.TABLE_NAME);
+        return rowsAffected;
     }
 
     /**
@@ -223,7 +455,7 @@ public class TransactionDao {
                 new String[]{String.valueOf(id)}
         );
         
-          
+        dbHelper.getChangeTracker().markChanged(TransactionTable.TABLE_NAME);
         return rowsAffected;
     }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.example.budgetmanager.database.dao;
+
+import com.example.budgetmanager.database.DatabaseHelper.IndexName;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.models.Money;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TRANSACTION QUERY - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * A filter over the transactions of one user, built once and run by TransactionDao as a page
+ * (queryTransactions) or as totals (aggregateTransactions). Every filter is optional:
+ *   TransactionQuery query = new TransactionQuery.Builder(userId)
+ *           .dayRange(EpochDays.startOfMonth(today), EpochDays.startOfNextMonth(today))
+ *           .type(CategoryType.EXPENSE)
+ *           .categories(Arrays.asList(3, 7))
+ *           .amountRange(Money.ofCents(1000), null)
+ *           .noteContains("rent")
+ *           .build();
+ *
+ * KEY DESIGN DECISIONS:
+ * - Compiles to ONE parameterized statement (values are always bound, never concatenated),
+ *   the filtering happens in SQLite, no row is read into Java just to be dropped.
+ * - The index is chosen here and forced with INDEXED BY (without ANALYZE statistics the
+ *   planner can't tell a 3 days range from a 3 years one), one per kind of statement:
+ *   - pages (pageIndexName): always (user_id, day), its entries end with the rowid so the rows come
+ *     in the (day, id) order of the keyset pages. A page reads the user's rows newest first until it
+ *     has pageSize matches and stops, never sorts. The category / type indexes are not in (day, id)
+ *     order, every page would read and sort all the rows of those categories to return 50.
+ *   - totals (aggregateIndexName), no order, the most selective filter:
+ *     1. a day range of at most NARROW_RANGE_DAYS → (user_id, [type,] day) index, a few index pages
+ *     2. else a category set → (category_id, amount_cents) index, a category is a slice of one user's ledger
+ *     3. else a type → (user_id, type, day, amount_cents), covering for the totals
+ *     4. else → (user_id, day)
+ *   The other filters are checked on the rows the index gives.
+ * - Immutable once built, the same query serves every page and the totals.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - INDEXED BY: makes SQLite use that index (the statement fails to prepare if it can't)
+ * - LIKE ... ESCAPE '\': substring match, % and _ typed by the user are escaped; case-insensitive for ASCII
+ */
+public final class TransactionQuery {
+    // day ranges up to this long are read through a day index whatever the other filters
+    static final int NARROW_RANGE_DAYS = 92;
+
+    private final int userId;
+    private final Long fromDay;          // inclusive, null = no lower bound
+    private final Long toDay;            // exclusive, null = no upper bound
+    private final Set<Integer> categoryIds;
+    private final String type;
+    private final Money minAmount;       // inclusive
+    private final Money maxAmount;       // inclusive
+    private final String noteContains;
+
+    private TransactionQuery(Builder builder) {
+        this.userId = builder.userId;
+        this.fromDay = builder.fromDay;
+        this.toDay = builder.toDay;
+        this.categoryIds = Collections.unmodifiableSet(new LinkedHashSet<>(builder.categoryIds));
+        this.type = builder.type;
+        this.minAmount = builder.minAmount;
+        this.maxAmount = builder.maxAmount;
+        this.noteContains = builder.noteContains;
+    }
+
+    public int getUserId() { return userId; }
+    public Long getFromDay() { return fromDay; }
+    public Long getToDay() { return toDay; }
+    public Set<Integer> getCategoryIds() { return categoryIds; }
+    public String getType() { return type; }
+    public Money getMinAmount() { return minAmount; }
+    public Money getMaxAmount() { return maxAmount; }
+    public String getNoteContains() { return noteContains; }
+
+    /**
+     * The index the pages are forced to use: (user_id, day), in the (day, id) order of the pages
+     */
+    String pageIndexName() {
+        return IndexName.TRANSACTIONS_USER_DAY;
+    }
+
+    /**
+     * The index the totals statement is forced to use (see the rules in the class comment)
+     */
+    String aggregateIndexName() {
+        boolean narrowRange = fromDay != null && toDay != null && toDay - fromDay <= NARROW_RANGE_DAYS;
+        if (narrowRange) {
+            return type != null ? IndexName.TRANSACTIONS_USER_TYPE_DAY_AMOUNT : IndexName.TRANSACTIONS_USER_DAY;
+        }
+        if (!categoryIds.isEmpty()) {
+            return IndexName.TRANSACTIONS_CATEGORY_AMOUNT;
+        }
+        if (type != null) {
+            return IndexName.TRANSACTIONS_USER_TYPE_DAY_AMOUNT;
+        }
+        return IndexName.TRANSACTIONS_USER_DAY;
+    }
+
+    /**
+     * Append "WHERE ..." over the alias t and its values (in placeholder order)
+     */
+    void appendWhere(StringBuilder sql, List<String> args) {
+        sql.append("WHERE t.").append(TransactionTable.USER_ID).append(" = ? ");
+        args.add(String.valueOf(userId));
+
+        if (type != null) {
+            sql.append("AND t.").append(TransactionTable.TYPE).append(" = ? ");
+            args.add(type);
+        }
+        if (fromDay != null) {
+            sql.append("AND t.").append(TransactionTable.DAY).append(" >= ? ");
+            args.add(String.valueOf(fromDay));
+        }
+        if (toDay != null) {
+            sql.append("AND t.").append(TransactionTable.DAY).append(" < ? ");
+            args.add(String.valueOf(toDay));
+        }
+        if (!categoryIds.isEmpty()) {
+            sql.append("AND t.").append(TransactionTable.CATEGORY_ID).append(" IN (");
+            boolean first = true;
+            for (Integer categoryId : categoryIds) {
+                sql.append(first ? "?" : ", ?");
+                args.add(String.valueOf(categoryId));
+                first = false;
+            }
+            sql.append(") ");
+        }
+        if (minAmount != null) {
+            sql.append("AND t.").append(TransactionTable.AMOUNT).append(" >= ? ");
+            args.add(String.valueOf(minAmount.getCents()));
+        }
+        if (maxAmount != null) {
+            sql.append("AND t.").append(TransactionTable.AMOUNT).append(" <= ? ");
+            args.add(String.valueOf(maxAmount.getCents()));
+        }
+        if (noteContains != null) {
+            sql.append("AND t.").append(TransactionTable.NOTE).append(" LIKE ? ESCAPE '\\' ");
+            args.add("%" + escapeLike(noteContains) + "%");
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Builds a TransactionQuery, only the user is required
+     */
+    public static final class Builder {
+        private final int userId;
+        private Long fromDay;
+        private Long toDay;
+        private final Set<Integer> categoryIds = new LinkedHashSet<>();
+        private String type;
+        private Money minAmount;
+        private Money maxAmount;
+        private String noteContains;
+
+        public Builder(int userId) {
+            this.userId = userId;
+        }
+
+        // epoch days, from inclusive and to exclusive (like the chart ranges), null = open
+        public Builder dayRange(Long fromDay, Long toDay) {
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            return this;
+        }
+
+        // any of these categories, an empty collection = every category
+        public Builder categories(Collection<Integer> categoryIds) {
+            this.categoryIds.clear();
+            this.categoryIds.addAll(categoryIds);
+            return this;
+        }
+
+        // CategoryType.INCOME / EXPENSE, null = both
+        public Builder type(String type) {
+            this.type = type;
+            return this;
+        }
+
+        // inclusive bounds, null = open
+        public Builder amountRange(Money minAmount, Money maxAmount) {
+            this.minAmount = minAmount;
+            this.maxAmount = maxAmount;
+            return this;
+        }
+
+        // substring of the note, blank = no filter
+        public Builder noteContains(String text) {
+            this.noteContains = text == null || text.trim().isEmpty() ? null : text.trim();
+            return this;
+        }
+
+        public TransactionQuery build() {
+            return new TransactionQuery(this);
+        }
+    }
+}
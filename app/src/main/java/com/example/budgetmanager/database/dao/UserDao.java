@@ -1,14 +1,11 @@
 package com.example.budgetmanager.database.dao;
 
 import android.content.ContentValues;
-import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.models.User;
-import at.favre.lib.crypto.bcrypt.BCrypt;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 /**
  * USER DAO - DEVELOPER GUIDE
@@ -20,6 +17,16 @@ import java.util.Date;
  * METHODS: Your existing functions migrated with contract references
  */
 public class UserDao {
+    // hot write (every transaction create / update / delete), compiled once by the StatementCache
+    private static final String ADD_TO_BALANCE = "UPDATE " + UserTable.TABLE_NAME + " SET " +
+            UserTable.BALANCE + " = " + UserTable.BALANCE + " + ? WHERE " + UserTable.ID + " = ?";
+
+    // user columns read by the RowMappers.USER mapper
+    private static final String SELECT_USER = "SELECT " +
+            UserTable.ID + ", " + UserTable.NAME_COL + ", " + UserTable.EMAIL + ", " +
+            UserTable.PASSWORD + ", " + UserTable.BALANCE + " " +
+            "FROM " + UserTable.TABLE_NAME + " ";
+
     private final DatabaseHelper dbHelper;
 
     public UserDao(DatabaseHelper dbHelper) {
@@ -28,69 +35,17 @@ public class UserDao {
     
     // get user by id
     public User getUserById(int id) {
-        // get readable database 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        // build the query for the user with the given id
-        Cursor cursor = db.query(
-                UserTable.TABLE_NAME,
-                new String[]{
-                        UserTable.ID,
-                        UserTable.NAME_COL,
-                        UserTable.EMAIL,
-                        UserTable.PASSWORD,
-                        UserTable.BALANCE
-                },
-                UserTable.ID + "=?",
-                new String[]{String.valueOf(id)}, null, null, null, null
-        );
-        User user = null;
-        if (cursor.moveToFirst()) {
-            user = new User(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(UserTable.ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.NAME_COL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.EMAIL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.PASSWORD)),
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(UserTable.BALANCE))
-            );
-        }
-        cursor.close();
-         
-        return user;
+        return QueryTemplate.queryFirst(db, SELECT_USER + "WHERE " + UserTable.ID + " = ?",
+                new String[]{String.valueOf(id)}, RowMappers.USER);
     }
     /**
      * Get user by email - authentication use case
      */
     public User getUserByEmail(String email) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        // build the query for the user with the given email
-        Cursor cursor = db.query(
-                UserTable.TABLE_NAME,
-                new String[]{
-                        UserTable.ID,
-                        UserTable.NAME_COL,
-                        UserTable.EMAIL,
-                        UserTable.PASSWORD,
-                        UserTable.BALANCE
-                },
-                UserTable.EMAIL + "=?",
-                new String[]{email}, null, null, null, null
-        );
-
-        // if user exit,  get with the cursor
-        User user = null;
-        if (cursor.moveToFirst()) {
-            user = new User(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(UserTable.ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.NAME_COL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.EMAIL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.PASSWORD)),
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(UserTable.BALANCE))
-            );
-        }
-        cursor.close();
-         
-        return user;
+        return QueryTemplate.queryFirst(db, SELECT_USER + "WHERE " + UserTable.EMAIL + " = ?",
+                new String[]{email}, RowMappers.USER);
     }
 
     /**
@@ -98,60 +53,46 @@ public class UserDao {
      */
     public User getUserByName(String name) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        // build the query for the user with the given name
-        Cursor cursor = db.query(
-                UserTable.TABLE_NAME,
-                new String[]{
-                        UserTable.ID,
-                        UserTable.NAME_COL,
-                        UserTable.EMAIL,
-                        UserTable.PASSWORD,
-                        UserTable.BALANCE
-                },
-                UserTable.NAME_COL + "=?",
-                new String[]{name}, null, null, null, null
-        );
-
-        User user = null;
-        if (cursor.moveToFirst()) {
-            user = new User(
-                    cursor.getInt(cursor.getColumnIndexOrThrow(UserTable.ID)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.NAME_COL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.EMAIL)),
-                    cursor.getString(cursor.getColumnIndexOrThrow(UserTable.PASSWORD)),
-                    cursor.getDouble(cursor.getColumnIndexOrThrow(UserTable.BALANCE))
-            );
-        }
-        cursor.close();
-         
-        return user;
+        return QueryTemplate.queryFirst(db, SELECT_USER + "WHERE " + UserTable.NAME_COL + " = ?",
+                new String[]{name}, RowMappers.USER);
     }
     
     /**
      * Get user balance
      */
-    public double getUserBalance(int userId) {
+    public Money getUserBalance(int userId) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
 
-        // build the query for the user with the given id
-        Cursor cursor = db.query(
-                UserTable.TABLE_NAME,
-                new String[]{UserTable.BALANCE},
-                UserTable.ID + "=?",
-                new String[]{String.valueOf(userId)}, null, null, null, null
-        );
+        // 0 if the user doesn't exist
+        long balanceCents = QueryTemplate.queryLong(db,
+                "SELECT " + UserTable.BALANCE + " FROM " + UserTable.TABLE_NAME +
+                " WHERE " + UserTable.ID + " = ?",
+                new String[]{String.valueOf(userId)});
+        return Money.ofCents(balanceCents);
+    }
+    /**
+     * Balance and lifetime totals in one primary key lookup
+     * Returns a simple array: [totalIncome, totalExpenses, balance]
+     */
+    public Money[] getBalanceSummary(int userId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        String query = "SELECT " + UserTable.TOTAL_INCOME + ", " + UserTable.TOTAL_EXPENSE + ", " +
+                UserTable.BALANCE + " FROM " + UserTable.TABLE_NAME + " WHERE " + UserTable.ID + " = ?";
 
-        double balance = 0.0;
-        if (cursor.moveToFirst()) {
-            balance = cursor.getDouble(cursor.getColumnIndexOrThrow(UserTable.BALANCE));
-        }
-        cursor.close();
-         
-        return balance;
+        // positional mapper, the columns are the ones selected just above
+        Money[] summary = QueryTemplate.queryFirst(db, query, new String[]{String.valueOf(userId)},
+                cursor -> row -> new Money[]{
+                        Money.ofCents(row.getLong(0)),
+                        Money.ofCents(row.getLong(1)),
+                        Money.ofCents(row.getLong(2))
+                });
+
+        return summary != null ? summary : new Money[]{Money.ZERO, Money.ZERO, Money.ZERO};
     }
+
     /**
-     * Create new user with password hashing
+     * Create new user, its password already hashed (PasswordHasher, off the writer thread)
      */
     public long createUser(User user) {
         SQLiteDatabase db = dbHelper.getWritableDatabase();
@@ -159,20 +100,13 @@ public class UserDao {
         ContentValues values = new ContentValues();
         values.put(UserTable.NAME_COL, user.getName());
         values.put(UserTable.EMAIL, user.getEmail());
-        String password = user.getPassword();
-
-
-        // 10 is the cost factor (equivalent to log_rounds)
-        String hashedPassword = BCrypt.withDefaults().hashToString(10, password.toCharArray());
-        values.put(UserTable.PASSWORD, hashedPassword);
+        values.put(UserTable.PASSWORD, user.getPassword());
         
-        // Set creation timestamp
-        values.put(UserTable.CREATED_AT,
-                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss")
-                        .format(new Date() ));
+        // Set creation timestamp (epoch millis)
+        values.put(UserTable.CREATED_AT, System.currentTimeMillis());
 
         long id = db.insert(UserTable.TABLE_NAME, null, values);
-         
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
         return id;
     }
 
@@ -193,7 +127,7 @@ public class UserDao {
                 new String[]{String.valueOf(user.getId())}
         );
 
-
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
         return rowsAffected;
     }
 
@@ -201,16 +135,12 @@ public class UserDao {
 
 
     /**
-     * Update user password with hashing
+     * Update user password, given as its hash (PasswordHasher)
      */
-    public int updateUserPassword(int userId, String newPassword) {
+    public int updateUserPassword(int userId, String passwordHash) {
         SQLiteDatabase db = dbHelper.getWritableDatabase();
         ContentValues values = new ContentValues();
-
-        // Hash new password
-        String hashedPassword = BCrypt.withDefaults().hashToString(10, newPassword.toCharArray());
-
-        values.put(UserTable.PASSWORD, hashedPassword);
+        values.put(UserTable.PASSWORD, passwordHash);
 
         int rowsAffected = db.update(
                 UserTable.TABLE_NAME,
@@ -219,27 +149,21 @@ public class UserDao {
                 new String[]{String.valueOf(userId)}
         );
 
-         
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
         return rowsAffected;
     }
 
     /**
-     * Update user balance
+     * Move the balance by a delta (negative for expenses), relative to the stored value.
+     * The only balance write: an absolute value read before the transaction would undo a write queued meanwhile
+     * (compiled once, see StatementCache)
      */
-    public int updateUserBalance(int userId, double newBalance) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-
-        values.put(UserTable.BALANCE, newBalance);
-
-        int rowsAffected = db.update(
-                UserTable.TABLE_NAME,
-                values,
-                UserTable.ID + " = ?",
-                new String[]{String.valueOf(userId)}
-        );
-
-         
+    public int addToUserBalance(int userId, Money delta) {
+        int rowsAffected = dbHelper.getStatementCache().executeUpdateDelete(ADD_TO_BALANCE, statement -> {
+            statement.bindLong(1, delta.getCents());
+            statement.bindLong(2, userId);
+        });
+        dbHelper.getChangeTracker().markChanged(UserTable.TABLE_NAME);
         return rowsAffected;
     }
 
@@ -0,0 +1,90 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * MIGRATION - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * One step of the schema history, it upgrades the database from (version - 1) to version.
+ * Steps are chained in order by MigrationRunner, so a user can jump several versions at once.
+ *
+ * A step has three phases, each one committed on its own:
+ * - migrate():       schema changes (CREATE / ALTER / INDEX), one short transaction
+ * - backfillBatch(): data rewrite, called repeatedly with a bounded batch until it returns 0,
+ *                    every batch is its own transaction so a large ledger never holds one long lock
+ * - finish():        final swap / cleanup once every row has been backfilled
+ *
+ * KEY DESIGN DECISIONS:
+ * - SQL inside a step is frozen: it must not use the table contracts of DatabaseHelper,
+ *   because those describe the LATEST schema and a step runs against an older one.
+ * - backfillBatch() must be resumable: select the pending rows from the data itself
+ *   (e.g. "WHERE new_col IS NULL") so an interrupted upgrade continues where it stopped.
+ */
+public abstract class Migration {
+    private final int version;
+
+    protected Migration(int version) {
+        this.version = version;
+    }
+
+    // version reached once this step is done
+    public int getVersion() { return version; }
+
+    /**
+     * Schema changes for this version
+     */
+    public abstract void migrate(SQLiteDatabase db);
+
+    /**
+     * Process at most batchSize rows, return how many rows were processed (0 when done)
+     */
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        return 0;
+    }
+
+    /**
+     * Called once the backfill is complete
+     */
+    public void finish(SQLiteDatabase db) {
+    }
+
+    /**
+     * Run "UPDATE table SET setClause" on at most batchSize rows matching pendingWhere
+     * and return the number of updated rows.
+     * pendingWhere must stop matching a row once it is updated, otherwise the batches never end.
+     */
+    protected static int updateInBatch(SQLiteDatabase db, String table, String setClause,
+                                       String pendingWhere, int batchSize) {
+        String sql = "UPDATE " + table + " SET " + setClause +
+                " WHERE rowid IN (SELECT rowid FROM " + table +
+                " WHERE " + pendingWhere + " LIMIT " + batchSize + ")";
+
+        SQLiteStatement statement = db.compileStatement(sql);
+        try {
+            return statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Copy the next batchSize rows (by id) of source into target and return how many were copied.
+     * Used to rebuild a table with a new column type: the resume point is the highest id
+     * already copied, so no extra bookkeeping is needed.
+     *
+     * @param targetColumns column list of the target, e.g. "id, amount_cents"
+     * @param sourceSelect  matching expressions over the source, e.g. "id, CAST(ROUND(amount * 100) AS INTEGER)"
+     */
+    protected static int copyInBatch(SQLiteDatabase db, String source, String target,
+                                     String targetColumns, String sourceSelect, int batchSize) {
+        db.execSQL("INSERT INTO " + target + " (" + targetColumns + ") " +
+                "SELECT " + sourceSelect + " FROM " + source +
+                " WHERE id > (SELECT IFNULL(MAX(id), 0) FROM " + target + ")" +
+                " ORDER BY id LIMIT " + batchSize);
+
+        return (int) DatabaseUtils.longForQuery(db, "SELECT changes()", null);
+    }
+}
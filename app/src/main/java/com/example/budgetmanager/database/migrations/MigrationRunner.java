@@ -0,0 +1,152 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * MIGRATION RUNNER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Replaces the old "drop every table and recreate" upgrade with an ordered chain of
+ * Migration steps keyed by their target version. Existing ledgers are always kept.
+ *
+ * DATA FLOW:
+ * onCreate()  → recordVersion(db, latest)   : a fresh database needs no step
+ * onUpgrade() → recordVersion(db, oldVersion): only remembers where the data is
+ * DatabaseHelper.runPendingMigrations() → runPending(db) : runs every missing step,
+ *   on the writer thread after the open (DatabaseExecutor.startMigrations, at process start)
+ *
+ * KEY DESIGN DECISIONS:
+ * - SQLiteOpenHelper wraps onUpgrade() in ONE transaction, a 500k rows rewrite inside it
+ *   would hold the lock for seconds. So the steps run after the open instead, where every
+ *   schema change and every backfill batch is a separate short transaction.
+ * - Not in onOpen() either: the thread that happens to open the database first (a screen
+ *   query) would wait for the whole backfill. The other work waits on DatabaseExecutor instead.
+ * - The progress is stored in the schema_state table (version + backfilling flag),
+ *   so an upgrade killed half way resumes on next open instead of starting over.
+ */
+public final class MigrationRunner {
+
+    // rows rewritten per backfill transaction
+    static final int BATCH_SIZE = 1000;
+
+    // === SCHEMA STATE TABLE CONTRACT ===
+    static class StateTable {
+        static final String TABLE_NAME = "schema_state";
+        static final String ID = "id";
+        static final String VERSION = "version";
+        static final String BACKFILLING = "backfilling";
+    }
+
+    // ordered chain of steps keyed by version
+    private static final SortedMap<Integer, Migration> MIGRATIONS = new TreeMap<>();
+
+    static {
+        register(new MigrationV2Indexes());
+        register(new MigrationV3MoneyCents());
+        register(new MigrationV4EpochDays());
+        register(new MigrationV5DailyTotals());
+        register(new MigrationV6MonthlyTotals());
+        register(new MigrationV7CategoryTotals());
+        register(new MigrationV8UserTotals());
+        register(new MigrationV9TransactionSearch());
+    }
+
+    private MigrationRunner() {
+    }
+
+    private static void register(Migration migration) {
+        MIGRATIONS.put(migration.getVersion(), migration);
+    }
+
+    /**
+     * Create the state table and remember the version the data is in.
+     * An existing state is kept: it is more precise than SQLite's user_version
+     * when a previous upgrade was interrupted.
+     */
+    public static void recordVersion(SQLiteDatabase db, int version) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + StateTable.TABLE_NAME + " (" +
+                StateTable.ID + " INTEGER PRIMARY KEY CHECK (" + StateTable.ID + " = 1)," +
+                StateTable.VERSION + " INTEGER NOT NULL," +
+                StateTable.BACKFILLING + " INTEGER NOT NULL DEFAULT 0" +
+                ");");
+        db.execSQL("INSERT OR IGNORE INTO " + StateTable.TABLE_NAME + " (" +
+                StateTable.ID + ", " + StateTable.VERSION + ", " + StateTable.BACKFILLING +
+                ") VALUES (1, ?, 0)", new Object[]{version});
+    }
+
+    /**
+     * Run every step newer than the recorded state, resuming an unfinished backfill first
+     */
+    public static void runPending(SQLiteDatabase db) {
+        int currentVersion;
+        boolean backfilling;
+
+        Cursor cursor = db.rawQuery("SELECT " + StateTable.VERSION + ", " + StateTable.BACKFILLING +
+                " FROM " + StateTable.TABLE_NAME + " WHERE " + StateTable.ID + " = 1", null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return;
+            }
+            currentVersion = cursor.getInt(0);
+            backfilling = cursor.getInt(1) == 1;
+        } finally {
+            cursor.close();
+        }
+
+        for (Migration migration : MIGRATIONS.tailMap(currentVersion).values()) {
+            int version = migration.getVersion();
+
+            // already fully applied
+            if (version == currentVersion && !backfilling) {
+                continue;
+            }
+
+            // schema phase (skipped when resuming an interrupted backfill)
+            if (version > currentVersion) {
+                db.beginTransaction();
+                try {
+                    migration.migrate(db);
+                    writeState(db, version, true);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            // backfill phase, one short transaction per batch
+            int processed;
+            do {
+                db.beginTransaction();
+                try {
+                    processed = migration.backfillBatch(db, BATCH_SIZE);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            } while (processed > 0);
+
+            // finish phase
+            db.beginTransaction();
+            try {
+                migration.finish(db);
+                writeState(db, version, false);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            currentVersion = version;
+            backfilling = false;
+        }
+    }
+
+    private static void writeState(SQLiteDatabase db, int version, boolean backfilling) {
+        db.execSQL("UPDATE " + StateTable.TABLE_NAME + " SET " +
+                StateTable.VERSION + " = ?, " + StateTable.BACKFILLING + " = ? " +
+                "WHERE " + StateTable.ID + " = 1", new Object[]{version, backfilling ? 1 : 0});
+    }
+}
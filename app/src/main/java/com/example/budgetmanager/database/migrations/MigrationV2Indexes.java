@@ -0,0 +1,25 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 2 - secondary indexes for the DAO queries (no data change)
+ */
+class MigrationV2Indexes extends Migration {
+
+    MigrationV2Indexes() {
+        super(2);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_date " +
+                "ON transactions (user_id, date DESC)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_type_amount " +
+                "ON transactions (user_id, type, amount)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_category_amount " +
+                "ON transactions (category_id, amount)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_categories_user_type " +
+                "ON categories (user_id, type)");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 3 - money stored as INTEGER cents instead of REAL
+ *
+ * - users: new balance_cents column, the old REAL balance column is left unused
+ *   (a users rebuild would cascade-delete every category and transaction)
+ * - transactions: rebuilt as transactions_v3 with amount_cents INTEGER,
+ *   rows copied by id in batches, then swapped in with its indexes
+ */
+class MigrationV3MoneyCents extends Migration {
+
+    // REAL → cents, rounded so 0.1 + 0.2 style values land on the right cent
+    private static final String AMOUNT_TO_CENTS = "CAST(ROUND(amount * 100) AS INTEGER)";
+    private static final String BALANCE_TO_CENTS = "CAST(ROUND(balance * 100) AS INTEGER)";
+
+    MigrationV3MoneyCents() {
+        super(3);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE users ADD COLUMN balance_cents INTEGER NOT NULL DEFAULT 0");
+
+        db.execSQL("CREATE TABLE IF NOT EXISTS transactions_v3 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "amount_cents INTEGER NOT NULL," +
+                "type TEXT NOT NULL CHECK (type IN ('income', 'expense'))," +
+                "note TEXT," +
+                "date TEXT NOT NULL," +
+                "category_id INTEGER NOT NULL," +
+                "user_id INTEGER NOT NULL," +
+                "created_at TEXT NOT NULL," +
+                "FOREIGN KEY(category_id) REFERENCES categories(id) ON DELETE CASCADE," +
+                "FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE" +
+                ")");
+    }
+
+    @Override
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        // balances first (one row per user), pending while the cents don't match the REAL value
+        int users = updateInBatch(db, "users", "balance_cents = " + BALANCE_TO_CENTS,
+                "balance_cents <> " + BALANCE_TO_CENTS, batchSize);
+        if (users > 0) {
+            return users;
+        }
+
+        return copyInBatch(db, "transactions", "transactions_v3",
+                "id, amount_cents, type, note, date, category_id, user_id, created_at",
+                "id, " + AMOUNT_TO_CENTS + ", type, note, date, category_id, user_id, created_at",
+                batchSize);
+    }
+
+    @Override
+    public void finish(SQLiteDatabase db) {
+        // keep the AUTOINCREMENT counter so ids of deleted rows are never reused
+        db.execSQL("DELETE FROM sqlite_sequence WHERE name = 'transactions_v3'");
+        db.execSQL("INSERT INTO sqlite_sequence (name, seq) " +
+                "SELECT 'transactions_v3', seq FROM sqlite_sequence WHERE name = 'transactions'");
+
+        // transactions is only a child table, dropping it never cascades
+        db.execSQL("DROP TABLE transactions");
+        db.execSQL("ALTER TABLE transactions_v3 RENAME TO transactions");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_date " +
+                "ON transactions (user_id, date DESC)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_type_amount " +
+                "ON transactions (user_id, type, amount_cents)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_category_amount " +
+                "ON transactions (category_id, amount_cents)");
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 4 - transaction dates as INTEGER epoch days, created_at as epoch millis
+ *
+ * - transactions: rebuilt as transactions_v4 with day INTEGER NOT NULL and created_at INTEGER NOT NULL,
+ *   the same columns as a fresh install. Rows copied by id in batches: day computed from the
+ *   free-form date text ("yyyy-MM-dd" or the older "dd-MM-yyyy"), the text itself normalized
+ *   to "yyyy-MM-dd". Then swapped in with day-ordered indexes.
+ * - created_at of users and categories: "yyyy-MM-dd HH:mm:ss" local time → epoch millis, in place
+ *   (a rebuild of users would cascade-delete every category and transaction, these columns keep
+ *   their TEXT affinity, Cursor.getLong() reads the digits the same way)
+ */
+class MigrationV4EpochDays extends Migration {
+
+    private static final String ISO_DATE = "[0-9][0-9][0-9][0-9]-[0-9][0-9]-[0-9][0-9]";
+    private static final String DAY_FIRST_DATE = "[0-9][0-9]-[0-9][0-9]-[0-9][0-9][0-9][0-9]";
+
+    // "dd-MM-yyyy" → "yyyy-MM-dd"
+    private static final String DAY_FIRST_TO_ISO =
+            "substr(date, 7, 4) || '-' || substr(date, 4, 2) || '-' || substr(date, 1, 2)";
+
+    private static final String NORMALIZED_DATE =
+            "CASE WHEN date GLOB '" + DAY_FIRST_DATE + "' THEN " + DAY_FIRST_TO_ISO + " ELSE date END";
+
+    // julianday() of a date is its midnight UTC, 2440587.5 is 1970-01-01.
+    // unreadable dates fall back to the creation day, then to day 0, so every row leaves the pending set
+    private static final String EPOCH_DAY =
+            "COALESCE(" +
+            "CASE WHEN date GLOB '" + ISO_DATE + "' THEN CAST(julianday(date) - 2440587.5 AS INTEGER) " +
+            "WHEN date GLOB '" + DAY_FIRST_DATE + "' THEN CAST(julianday(" + DAY_FIRST_TO_ISO + ") - 2440587.5 AS INTEGER) END, " +
+            "CAST(julianday(substr(created_at, 1, 10)) - 2440587.5 AS INTEGER), 0)";
+
+    // the old created_at was written in local time, 'utc' converts it before taking the seconds
+    private static final String CREATED_AT_MILLIS =
+            "COALESCE(CAST(strftime('%s', created_at, 'utc') AS INTEGER) * 1000, 0)";
+
+    // old text timestamps contain '-', the converted millis don't
+    private static final String OLD_CREATED_AT = "created_at LIKE '%-%'";
+
+    MigrationV4EpochDays() {
+        super(4);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS transactions_v4 (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "amount_cents INTEGER NOT NULL," +
+                "type TEXT NOT NULL CHECK (type IN ('income', 'expense'))," +
+                "note TEXT," +
+                "date TEXT NOT NULL," +
+                "day INTEGER NOT NULL," +
+                "category_id INTEGER NOT NULL," +
+                "user_id INTEGER NOT NULL," +
+                "created_at INTEGER NOT NULL," +
+                "FOREIGN KEY(category_id) REFERENCES categories(id) ON DELETE CASCADE," +
+                "FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE" +
+                ")");
+    }
+
+    @Override
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        int processed = updateInBatch(db, "users",
+                "created_at = " + CREATED_AT_MILLIS, OLD_CREATED_AT, batchSize);
+        if (processed > 0) {
+            return processed;
+        }
+
+        processed = updateInBatch(db, "categories",
+                "created_at = " + CREATED_AT_MILLIS, OLD_CREATED_AT, batchSize);
+        if (processed > 0) {
+            return processed;
+        }
+
+        // the expressions read the untouched source row, so EPOCH_DAY still sees the text created_at
+        return copyInBatch(db, "transactions", "transactions_v4",
+                "id, amount_cents, type, note, date, day, category_id, user_id, created_at",
+                "id, amount_cents, type, note, " + NORMALIZED_DATE + ", " + EPOCH_DAY + ", " +
+                        "category_id, user_id, " + CREATED_AT_MILLIS,
+                batchSize);
+    }
+
+    @Override
+    public void finish(SQLiteDatabase db) {
+        // keep the AUTOINCREMENT counter so ids of deleted rows are never reused
+        db.execSQL("DELETE FROM sqlite_sequence WHERE name = 'transactions_v4'");
+        db.execSQL("INSERT INTO sqlite_sequence (name, seq) " +
+                "SELECT 'transactions_v4', seq FROM sqlite_sequence WHERE name = 'transactions'");
+
+        // the date-ordered indexes of version 3 go with the old table
+        db.execSQL("DROP TABLE transactions");
+        db.execSQL("ALTER TABLE transactions_v4 RENAME TO transactions");
+
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_day " +
+                "ON transactions (user_id, day)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_type_day_amount " +
+                "ON transactions (user_id, type, day, amount_cents)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_category_amount " +
+                "ON transactions (category_id, amount_cents)");
+    }
+}
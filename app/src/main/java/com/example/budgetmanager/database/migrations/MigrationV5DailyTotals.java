@@ -0,0 +1,48 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 5 - daily_totals rollup (sum and count of the transactions per user, type, day and category)
+ *
+ * - the table is filled one user at a time: the resume point is the highest user_id
+ *   already in daily_totals, the next user is the lowest user_id of transactions above it
+ * - a batch is a single INSERT ... SELECT GROUP BY, so its size follows the user's ledger
+ *   and not batchSize, a grouped insert is still far shorter than the row by row rewrites of v3 / v4
+ */
+class MigrationV5DailyTotals extends Migration {
+
+    MigrationV5DailyTotals() {
+        super(5);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS daily_totals (" +
+                "user_id INTEGER NOT NULL," +
+                "day INTEGER NOT NULL," +
+                "category_id INTEGER NOT NULL," +
+                "type TEXT NOT NULL," +
+                "total_cents INTEGER NOT NULL DEFAULT 0," +
+                "count INTEGER NOT NULL DEFAULT 0," +
+                "PRIMARY KEY (user_id, type, day, category_id)," +
+                "FOREIGN KEY(category_id) REFERENCES categories(id) ON DELETE CASCADE," +
+                "FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE" +
+                ") WITHOUT ROWID");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_daily_totals_category " +
+                "ON daily_totals (category_id)");
+    }
+
+    @Override
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        db.execSQL("INSERT INTO daily_totals (user_id, day, category_id, type, total_cents, count) " +
+                "SELECT user_id, day, category_id, type, SUM(amount_cents), COUNT(*) " +
+                "FROM transactions " +
+                "WHERE user_id = (SELECT MIN(user_id) FROM transactions " +
+                "WHERE user_id > (SELECT IFNULL(MAX(user_id), 0) FROM daily_totals)) " +
+                "GROUP BY user_id, type, day, category_id");
+
+        return (int) DatabaseUtils.longForQuery(db, "SELECT changes()", null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 6 - monthly_totals rollup (same as daily_totals, keyed by month yyyyMM)
+ *
+ * - filled from daily_totals, complete since version 5, so a user is at most
+ *   31 x categories rows per month to group instead of all their transactions
+ * - one user per batch, the resume point is the highest user_id already in monthly_totals
+ */
+class MigrationV6MonthlyTotals extends Migration {
+
+    // epoch day → yyyyMM
+    private static final String YEAR_MONTH =
+            "CAST(strftime('%Y%m', day * 86400, 'unixepoch') AS INTEGER)";
+
+    MigrationV6MonthlyTotals() {
+        super(6);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS monthly_totals (" +
+                "user_id INTEGER NOT NULL," +
+                "month INTEGER NOT NULL," +
+                "category_id INTEGER NOT NULL," +
+                "type TEXT NOT NULL," +
+                "total_cents INTEGER NOT NULL DEFAULT 0," +
+                "count INTEGER NOT NULL DEFAULT 0," +
+                "PRIMARY KEY (user_id, type, month, category_id)," +
+                "FOREIGN KEY(category_id) REFERENCES categories(id) ON DELETE CASCADE," +
+                "FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE" +
+                ") WITHOUT ROWID");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_monthly_totals_category " +
+                "ON monthly_totals (category_id)");
+    }
+
+    @Override
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        db.execSQL("INSERT INTO monthly_totals (user_id, month, category_id, type, total_cents, count) " +
+                "SELECT user_id, " + YEAR_MONTH + ", category_id, type, SUM(total_cents), SUM(count) " +
+                "FROM daily_totals " +
+                "WHERE user_id = (SELECT MIN(user_id) FROM daily_totals " +
+                "WHERE user_id > (SELECT IFNULL(MAX(user_id), 0) FROM monthly_totals)) " +
+                "GROUP BY user_id, type, " + YEAR_MONTH + ", category_id");
+
+        return (int) DatabaseUtils.longForQuery(db, "SELECT changes()", null);
+    }
+}
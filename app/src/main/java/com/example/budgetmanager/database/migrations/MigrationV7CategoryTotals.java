@@ -0,0 +1,27 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 7 - running total_cents / tx_count columns on categories
+ *
+ * Filled in migrate() from daily_totals (complete since version 5): a user has a few dozen
+ * categories and each one is summed from the (category_id) index of the rollup,
+ * so the whole update stays a short transaction and needs no batching.
+ */
+class MigrationV7CategoryTotals extends Migration {
+
+    MigrationV7CategoryTotals() {
+        super(7);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE categories ADD COLUMN total_cents INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("ALTER TABLE categories ADD COLUMN tx_count INTEGER NOT NULL DEFAULT 0");
+
+        db.execSQL("UPDATE categories SET " +
+                "total_cents = (SELECT IFNULL(SUM(total_cents), 0) FROM daily_totals WHERE category_id = categories.id), " +
+                "tx_count = (SELECT IFNULL(SUM(count), 0) FROM daily_totals WHERE category_id = categories.id)");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 8 - cached lifetime total_income_cents / total_expense_cents on users
+ *
+ * Filled in migrate() from daily_totals (complete since version 5),
+ * one primary key range per user and type, so no batching is needed.
+ */
+class MigrationV8UserTotals extends Migration {
+
+    MigrationV8UserTotals() {
+        super(8);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE users ADD COLUMN total_income_cents INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("ALTER TABLE users ADD COLUMN total_expense_cents INTEGER NOT NULL DEFAULT 0");
+
+        db.execSQL("UPDATE users SET " +
+                "total_income_cents = (SELECT IFNULL(SUM(total_cents), 0) FROM daily_totals " +
+                "WHERE user_id = users.id AND type = 'income'), " +
+                "total_expense_cents = (SELECT IFNULL(SUM(total_cents), 0) FROM daily_totals " +
+                "WHERE user_id = users.id AND type = 'expense')");
+    }
+}
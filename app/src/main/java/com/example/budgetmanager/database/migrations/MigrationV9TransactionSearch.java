@@ -0,0 +1,54 @@
+package com.example.budgetmanager.database.migrations;
+
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 9 - transactions_fts, FTS4 full-text index of the notes and category names
+ *
+ * - backfilled by id ranges: the resume point is the highest docid already indexed
+ * - the sync triggers are created in finish(), once every existing row is indexed,
+ *   so the resume point only ever comes from the backfill itself
+ */
+class MigrationV9TransactionSearch extends Migration {
+
+    MigrationV9TransactionSearch() {
+        super(9);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts4(note, category_name)");
+    }
+
+    @Override
+    public int backfillBatch(SQLiteDatabase db, int batchSize) {
+        db.execSQL("INSERT INTO transactions_fts (docid, note, category_name) " +
+                "SELECT t.id, t.note, c.name FROM transactions t " +
+                "JOIN categories c ON c.id = t.category_id " +
+                "WHERE t.id > IFNULL((SELECT docid FROM transactions_fts ORDER BY docid DESC LIMIT 1), 0) " +
+                "ORDER BY t.id LIMIT " + batchSize);
+
+        return (int) DatabaseUtils.longForQuery(db, "SELECT changes()", null);
+    }
+
+    @Override
+    public void finish(SQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_insert " +
+                "AFTER INSERT ON transactions BEGIN " +
+                "INSERT INTO transactions_fts (docid, note, category_name) VALUES (new.id, new.note, " +
+                "(SELECT name FROM categories WHERE id = new.category_id)); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_update " +
+                "AFTER UPDATE OF note, category_id ON transactions BEGIN " +
+                "UPDATE transactions_fts SET note = new.note, " +
+                "category_name = (SELECT name FROM categories WHERE id = new.category_id) " +
+                "WHERE docid = new.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_delete " +
+                "AFTER DELETE ON transactions BEGIN " +
+                "DELETE FROM transactions_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_category_rename " +
+                "AFTER UPDATE OF name ON categories BEGIN " +
+                "UPDATE transactions_fts SET category_name = new.name " +
+                "WHERE docid IN (SELECT id FROM transactions WHERE category_id = new.id); END");
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.budgetmanager.dto;
 
+import com.example.budgetmanager.models.Money;
+
 public class CategoryTotal {
     private String categoryName;
     private String iconName;
-    private double total;
+    private Money total;
     private double percentage;
 
-    public CategoryTotal(String categoryName, String iconName, double total) {
+    public CategoryTotal(String categoryName, String iconName, Money total) {
         this.categoryName = categoryName;
         this.iconName = iconName;
         this.total = total;
@@ -15,7 +17,7 @@ public class CategoryTotal {
     // Getters and setters
     public String getCategoryName() { return categoryName; }
     public String getIconName() { return iconName; }
-    public double getTotal() { return total; }
+    public Money getTotal() { return total; }
     public double getPercentage() { return percentage; }
     public void setPercentage(double percentage) { this.percentage = percentage; }
 }
@@ -0,0 +1,35 @@
+package com.example.budgetmanager.dto;
+
+import com.example.budgetmanager.models.Money;
+
+import java.util.List;
+
+/**
+ * VIEW DTO - Everything the dashboard (MainActivity) shows
+ *
+ * Read by DashboardDao in one query, so the header, the totals and the recent
+ * transactions all come from the same database snapshot and can't disagree.
+ */
+public class DashboardSnapshot {
+    private final String userName;
+    private final Money balance;
+    private final Money totalIncome;
+    private final Money totalExpenses;
+    private final List<TransactionWithCategory> recentTransactions;
+
+    public DashboardSnapshot(String userName, Money balance, Money totalIncome, Money totalExpenses,
+                             List<TransactionWithCategory> recentTransactions) {
+        this.userName = userName;
+        this.balance = balance;
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.recentTransactions = recentTransactions;
+    }
+
+    // Getters
+    public String getUserName() { return userName; }
+    public Money getBalance() { return balance; }
+    public Money getTotalIncome() { return totalIncome; }
+    public Money getTotalExpenses() { return totalExpenses; }
+    public List<TransactionWithCategory> getRecentTransactions() { return recentTransactions; }
+}
@@ -0,0 +1,56 @@
+package com.example.budgetmanager.dto;
+
+/**
+ * IMPORT PROGRESS DTO - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Where a CSV import stands after a committed batch (and at the end of the import):
+ * rows read / imported / skipped, bytes read and speed.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Immutable snapshot, one per committed batch, safe to hand to the main thread.
+ * - checkpointOffset: file offset after the last committed row, stored by the caller
+ *   to resume an interrupted import there (CsvTransactionImporter.importCsv startOffset).
+ * - totalBytes is -1 when the size of the source is unknown (no percentage then).
+ */
+public class ImportProgress {
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsSkipped;
+    private final long checkpointOffset;
+    private final long totalBytes;
+    private final long elapsedMillis;
+    private final String firstError;   // reason of the first skipped row, null if none
+
+    public ImportProgress(long rowsRead, long rowsImported, long rowsSkipped, long checkpointOffset,
+                          long totalBytes, long elapsedMillis, String firstError) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsSkipped = rowsSkipped;
+        this.checkpointOffset = checkpointOffset;
+        this.totalBytes = totalBytes;
+        this.elapsedMillis = elapsedMillis;
+        this.firstError = firstError;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsSkipped() { return rowsSkipped; }
+    public long getCheckpointOffset() { return checkpointOffset; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public String getFirstError() { return firstError; }
+
+    // rows read per second since the import (or its resume) started
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+
+    // 0..100 from the bytes read, -1 when the size is unknown
+    public int getPercent() {
+        if (totalBytes <= 0) {
+            return -1;
+        }
+        return (int) Math.min(100, checkpointOffset * 100 / totalBytes);
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.budgetmanager.dto;
 
+import com.example.budgetmanager.models.Money;
+
 
 public class MonthlyTotal {
     private String date;
-    private double income;
-    private double expense;
+    private Money income;
+    private Money expense;
 
-    public MonthlyTotal(String date, double income, double expense) {
+    public MonthlyTotal(String date, Money income, Money expense) {
         this.date = date;
         this.income = income;
         this.expense = expense;
@@ -14,6 +16,6 @@ public class MonthlyTotal {
 
     // Getters
     public String getDate() { return date; }
-    public double getIncome() { return income; }
-    public double getExpense() { return expense; }
+    public Money getIncome() { return income; }
+    public Money getExpense() { return expense; }
 }
@@ -0,0 +1,32 @@
+package com.example.budgetmanager.dto;
+
+import com.example.budgetmanager.models.Money;
+
+/**
+ * Totals of the transactions matching a TransactionQuery, read in one statement
+ * (TransactionDao.aggregateTransactions): how many, how much in and out, smallest and largest amount.
+ */
+public class TransactionAggregate {
+    private final long count;
+    private final Money income;
+    private final Money expense;
+    private final Money minAmount;   // ZERO when count is 0
+    private final Money maxAmount;   // ZERO when count is 0
+
+    public TransactionAggregate(long count, Money income, Money expense, Money minAmount, Money maxAmount) {
+        this.count = count;
+        this.income = income;
+        this.expense = expense;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    public long getCount() { return count; }
+    public Money getIncome() { return income; }
+    public Money getExpense() { return expense; }
+    public Money getMinAmount() { return minAmount; }
+    public Money getMaxAmount() { return maxAmount; }
+
+    // income - expense of the matching rows
+    public Money getNet() { return income.minus(expense); }
+}
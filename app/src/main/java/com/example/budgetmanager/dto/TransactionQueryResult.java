@@ -0,0 +1,20 @@
+package com.example.budgetmanager.dto;
+
+import java.util.List;
+
+/**
+ * First page of a TransactionQuery with the totals of all its rows,
+ * the next pages are read with TransactionService.queryTransactionsAfter.
+ */
+public class TransactionQueryResult {
+    private final List<TransactionWithCategory> page;
+    private final TransactionAggregate aggregate;
+
+    public TransactionQueryResult(List<TransactionWithCategory> page, TransactionAggregate aggregate) {
+        this.page = page;
+        this.aggregate = aggregate;
+    }
+
+    public List<TransactionWithCategory> getPage() { return page; }
+    public TransactionAggregate getAggregate() { return aggregate; }
+}
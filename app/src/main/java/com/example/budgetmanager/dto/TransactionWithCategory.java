@@ -1,5 +1,7 @@
 package com.example.budgetmanager.dto;
 
+import com.example.budgetmanager.models.Money;
+
 /**
  * VIEW DTO - For displaying transactions with category names
  * 
@@ -8,22 +10,24 @@ package com.example.budgetmanager.dto;
  */
 public class TransactionWithCategory {
     private int id;
-    private double amount;
+    private Money amount;
     private String type;
     private String note;
     private String date;
+    private long day;             // epoch day of date, the page key with id (see TransactionDao.getTransactionsPage)
     private int categoryId;
     private String categoryName;  // From JOIN with categories table
     private String categoryIcon;  // From JOIN with categories table
     
     // Constructor for JOIN query results
-    public TransactionWithCategory(int id, double amount, String type, String note,
-                                   String date, int categoryId, String categoryName, String categoryIcon) {
+    public TransactionWithCategory(int id, Money amount, String type, String note,
+                                   String date, long day, int categoryId, String categoryName, String categoryIcon) {
         this.id = id;
         this.amount = amount;
         this.type = type;
         this.note = note;
         this.date = date;
+        this.day = day;
         this.categoryId = categoryId;
         this.categoryName = categoryName;
         this.categoryIcon = categoryIcon;
@@ -31,10 +35,11 @@ public class TransactionWithCategory {
 
     // Getters
     public int getId() { return id; }
-    public double getAmount() { return amount; }
+    public Money getAmount() { return amount; }
     public String getType() { return type; }
     public String getNote() { return note; }
     public String getDate() { return date; }
+    public long getDay() { return day; }
     public int getCategoryId() { return categoryId; }
     public String getCategoryName() { return categoryName; }
     public String getCategoryIcon() { return categoryIcon; }
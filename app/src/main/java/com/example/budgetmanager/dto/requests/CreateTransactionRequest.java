@@ -1,5 +1,7 @@
 package com.example.budgetmanager.dto.requests;
 
+import com.example.budgetmanager.models.Money;
+
 /**
  * CREATE TRANSACTION REQUEST DTO - DEVELOPER GUIDE
  *
@@ -17,13 +19,13 @@ package com.example.budgetmanager.dto.requests;
  * - The UI sends categoryId (not categoryName) because the dropdown already has the Category object.
  */
 public class CreateTransactionRequest {
-    private final double amount;
+    private final Money amount;
     private final String type;      // "income" or "expense"
     private final String note;
     private final String date;      // ISO-8601 format (e.g., "2025-11-25")
     private final int categoryId;   // Foreign key to categories table
     
-    public CreateTransactionRequest(double amount, String type, String note, 
+    public CreateTransactionRequest(Money amount, String type, String note, 
                                    String date, int categoryId) {
         this.amount = amount;
         this.type = type;
@@ -33,7 +35,7 @@ public class CreateTransactionRequest {
     }
     
     // Getters only (immutable)
-    public double getAmount() { return amount; }
+    public Money getAmount() { return amount; }
     public String getType() { return type; }
     public String getNote() { return note; }
     public String getDate() { return date; }
@@ -1,4 +1,6 @@
 package com.example.budgetmanager.dto.requests;
+
+import com.example.budgetmanager.models.Money;
 /**
  * CREATE TRANSACTION REQUEST DTO - DEVELOPER GUIDE
  * PURPOSE: Encapsulate data for transaction creation requests
@@ -7,7 +9,7 @@ package com.example.budgetmanager.dto.requests;
  */
 public class UpdateTransactionRequest {
     // to be updated fields
-    private final double amount;
+    private final Money amount;
     private final String note;
     private final String date;
     private final String type;
@@ -17,7 +19,7 @@ public class UpdateTransactionRequest {
     private final int id; 
 
     // constructor
-    public UpdateTransactionRequest(double amount, String note, 
+    public UpdateTransactionRequest(Money amount, String note, 
                                    String date, int id, String type) {
         this.amount = amount;
         this.note = note;
@@ -27,7 +29,7 @@ public class UpdateTransactionRequest {
     }
 
     // getters
-    public double getAmount() { return amount; }
+    public Money getAmount() { return amount; }
     public String getNote() { return note; }
     public String getDate() { return date; }
     public int getId() { return id; }
@@ -0,0 +1,196 @@
+package com.example.budgetmanager.importexport;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * BACKUP READER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Reads a file written by BackupWriter (layout documented there) block by block,
+ * from a ByteBuffer, normally the memory mapped backup file.
+ *
+ * KEY DESIGN DECISIONS:
+ * - nextBlock() checks the length and the CRC32 of the block before any record of it is decoded.
+ * - The payload is copied once from the mapping into a reused array: CRC32 of a ByteBuffer
+ *   needs API 26, and decoding varints from an array is cheaper than ByteBuffer.get() per byte.
+ * - Every problem (bad magic, bad checksum, truncated file, a field past the end of its block)
+ *   is a CorruptBackupException holding the index of the block, never a silent stop.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - MappedByteBuffer: the file mapped in memory by FileChannel.map(), the kernel pages it in on access
+ */
+public final class BackupReader {
+
+    /**
+     * The file is not a backup, or one of its blocks is damaged
+     */
+    public static final class CorruptBackupException extends IOException {
+        private final int blockIndex;
+
+        CorruptBackupException(int blockIndex, String message) {
+            super(message);
+            this.blockIndex = blockIndex;
+        }
+
+        // 0 based index of the damaged block, -1 for the file header
+        public int getBlockIndex() {
+            return blockIndex;
+        }
+    }
+
+    private final ByteBuffer file;
+    private final CRC32 crc = new CRC32();
+    private final int start;
+
+    private byte[] payload = new byte[64 * 1024];
+    private int position;
+    private int length;
+    private int kind;
+    private int records;
+    private int blockIndex = -1;
+
+    public BackupReader(ByteBuffer file) throws IOException {
+        this.file = file;
+        byte[] magic = new byte[BackupWriter.MAGIC.length];
+        if (file.remaining() < magic.length + 1) {
+            throw new CorruptBackupException(-1, "Not a backup file");
+        }
+        file.get(magic);
+        for (int i = 0; i < magic.length; i++) {
+            if (magic[i] != BackupWriter.MAGIC[i]) {
+                throw new CorruptBackupException(-1, "Not a backup file");
+            }
+        }
+        int version = file.get() & 0xFF;
+        if (version != BackupWriter.VERSION) {
+            throw new CorruptBackupException(-1, "Unsupported backup version " + version);
+        }
+        start = file.position();
+    }
+
+    /**
+     * Go back to the first block (second pass over a verified file)
+     */
+    public void rewind() {
+        file.position(start);
+        blockIndex = -1;
+        length = 0;
+        position = 0;
+    }
+
+    /**
+     * Read and check the next block
+     * @return its kind, BackupWriter.BLOCK_END after the last one
+     */
+    public int nextBlock() throws IOException {
+        blockIndex++;
+        try {
+            kind = file.get() & 0xFF;
+            long count = readVarint(file);
+            long size = readVarint(file);
+            if (count > Integer.MAX_VALUE || size > BackupWriter.MAX_BLOCK_BYTES || size > file.remaining() - 4) {
+                throw corrupt("bad block length");
+            }
+            records = (int) count;
+            length = (int) size;
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            file.get(payload, 0, length);
+            int expected = file.getInt();
+
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != expected) {
+                throw corrupt("checksum mismatch");
+            }
+        } catch (BufferUnderflowException e) {
+            throw corrupt("file truncated");
+        }
+        position = 0;
+
+        if (kind == BackupWriter.BLOCK_END) {
+            // the count of blocks before the end, catches a block lost whole
+            if (readVarint() != blockIndex) {
+                throw corrupt("block count mismatch");
+            }
+        }
+        return kind;
+    }
+
+    public int getBlockIndex() {
+        return blockIndex;
+    }
+
+    // records in the current block
+    public int getRecordCount() {
+        return records;
+    }
+
+    public int readByte() throws CorruptBackupException {
+        if (position >= length) {
+            throw corrupt("record past the end of the block");
+        }
+        return payload[position++] & 0xFF;
+    }
+
+    public long readVarint() throws CorruptBackupException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    public long readSignedVarint() throws CorruptBackupException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() throws CorruptBackupException {
+        long size = readVarint();
+        if (size == 0) {
+            return null;
+        }
+        int bytes = (int) (size - 1);
+        if (size - 1 > length - position) {
+            throw corrupt("string past the end of the block");
+        }
+        String value = new String(payload, position, bytes, StandardCharsets.UTF_8);
+        position += bytes;
+        return value;
+    }
+
+    /**
+     * Call after the last record of a block: every payload byte must have been read
+     */
+    public void endBlock() throws CorruptBackupException {
+        if (position != length) {
+            throw corrupt("unread bytes at the end of the block");
+        }
+    }
+
+    private CorruptBackupException corrupt(String reason) {
+        return new CorruptBackupException(blockIndex, "Block " + blockIndex + ": " + reason);
+    }
+
+    private long readVarint(ByteBuffer buffer) throws CorruptBackupException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.budgetmanager.importexport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * BACKUP WRITER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Writes the binary backup format to a channel, one block at a time.
+ * The records of a block are encoded into an in-memory payload, then the block
+ * (header, payload, checksum) goes to the channel in one gathering write.
+ *
+ * FILE LAYOUT (version 1):
+ *   file   = MAGIC "BMBK" , version (1 byte) , block* , end block
+ *   block  = kind (1 byte) , record count (varint) , payload length (varint) , payload , CRC32 of the payload (4 bytes)
+ *   end    = a block of kind BLOCK_END, its payload holds the number of blocks before it (varint)
+ * Every block is length prefixed and checked on its own: a damaged block is found and
+ * reported by its index, a missing end block means a truncated file.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Numbers are varints (7 bits per byte), signed ones zigzag encoded first: small values
+ *   (day deltas, cents, ids) take 1-3 bytes instead of 8.
+ * - Strings: varint (UTF-8 length + 1) then the bytes, 0 stands for null.
+ * - The payload buffer is reused and grows by doubling, a block is bounded by the caller (record count).
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - Varint: 7 value bits per byte, the high bit set on every byte but the last (as in protobuf)
+ * - ZigZag: maps signed to unsigned so small negatives stay small (0,-1,1,-2 → 0,1,2,3)
+ * - GatheringByteChannel.write(ByteBuffer[]): writes several buffers in one call (FileChannel)
+ */
+public final class BackupWriter {
+    public static final byte[] MAGIC = {'B', 'M', 'B', 'K'};
+    public static final int VERSION = 1;
+
+    public static final int BLOCK_END = 0;
+    public static final int BLOCK_USER = 1;
+    public static final int BLOCK_CATEGORIES = 2;
+    public static final int BLOCK_TRANSACTIONS = 3;
+
+    // a reader rejects a block length above this (a damaged length field)
+    public static final int MAX_BLOCK_BYTES = 16 * 1024 * 1024;
+
+    private final GatheringByteChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer header = ByteBuffer.allocate(1 + 10 + 10);
+    private final ByteBuffer checksum = ByteBuffer.allocate(4);
+
+    private byte[] payload = new byte[64 * 1024];
+    private int length;
+    private int kind = -1;
+    private int records;
+    private int blocks;
+
+    public BackupWriter(GatheringByteChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer start = ByteBuffer.allocate(MAGIC.length + 1);
+        start.put(MAGIC).put((byte) VERSION).flip();
+        writeFully(start);
+    }
+
+    /**
+     * Start a block of the given kind, ends the open one first
+     */
+    public void beginBlock(int kind) throws IOException {
+        endBlock();
+        this.kind = kind;
+        records = 0;
+        length = 0;
+    }
+
+    // records in the open block
+    public int getRecordCount() {
+        return records;
+    }
+
+    // call after the fields of each record
+    public void endRecord() {
+        records++;
+    }
+
+    public void putByte(int value) {
+        ensure(1);
+        payload[length++] = (byte) value;
+    }
+
+    // unsigned varint, value >= 0
+    public void putVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            payload[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        payload[length++] = (byte) value;
+    }
+
+    // zigzag varint, any sign
+    public void putSignedVarint(long value) {
+        putVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void putString(String value) {
+        if (value == null) {
+            putVarint(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length + 1L);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, payload, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * Write the open block (if any) to the channel
+     */
+    public void endBlock() throws IOException {
+        if (kind == -1) {
+            return;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+
+        header.clear();
+        header.put((byte) kind);
+        putVarint(header, records);
+        putVarint(header, length);
+        header.flip();
+        checksum.clear();
+        checksum.putInt((int) crc.getValue()).flip();
+
+        writeFully(header, ByteBuffer.wrap(payload, 0, length), checksum);
+        blocks++;
+        kind = -1;
+    }
+
+    /**
+     * Write the end block, the file is complete after it. Does not close the channel.
+     */
+    public void finish() throws IOException {
+        endBlock();
+        int before = blocks;
+        beginBlock(BLOCK_END);
+        putVarint(before);
+        endBlock();
+    }
+
+    private void ensure(int more) {
+        if (length + more > payload.length) {
+            payload = Arrays.copyOf(payload, Math.max(payload.length * 2, length + more));
+        }
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void writeFully(ByteBuffer... buffers) throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.budgetmanager.importexport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CSV READER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Reads a CSV file record by record from an InputStream, through one fixed buffer,
+ * so a file of any size is read in constant memory (the file is never loaded whole).
+ *
+ * KEY DESIGN DECISIONS:
+ * - Parses the raw UTF-8 bytes: the separators (, " CR LF) are ASCII and never appear inside
+ *   a multi-byte character, only the finished fields are decoded to String.
+ * - Byte offsets: getOffset() is the position right after the last record returned,
+ *   a stored offset lets a later import skipTo() it and resume there.
+ * - RFC 4180 quoting: "a, b" is one field, "" inside quotes is a quote, quoted fields may hold line breaks.
+ * - One record list reused between calls, and a field limit so a broken quote
+ *   can't make a field grow to the size of the file.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - BOM: the 3 bytes EF BB BF some editors write at the start of a UTF-8 file, skipped
+ * - CRLF / LF: both line endings end a record
+ */
+public final class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FIELD_BYTES = 64 * 1024;
+
+    private final InputStream in;
+    private final char separator;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    // file offset of buffer[0]
+    private long bufferStart;
+    // file offset after the last record returned
+    private long offset;
+
+    private byte[] field = new byte[256];
+    private int fieldLength;
+    private final List<String> record = new ArrayList<>();
+
+    public CsvReader(InputStream in, char separator) {
+        this.in = in;
+        this.separator = separator;
+    }
+
+    /**
+     * The next non blank record, or null at the end of the file.
+     * The returned list is reused by the next call.
+     */
+    public List<String> readRecord() throws IOException {
+        if (bufferStart == 0 && position == 0) {
+            skipByteOrderMark();
+        }
+
+        while (true) {
+            record.clear();
+            fieldLength = 0;
+            int c = next();
+            if (c == -1) {
+                return null;
+            }
+
+            boolean inQuotes = false;
+            boolean quotedField = false;
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field before offset " + currentOffset());
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            next();
+                            append('"');
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else {
+                        append(c);
+                    }
+                } else if (c == separator) {
+                    endField();
+                    quotedField = false;
+                } else if (c == '\n' || c == -1) {
+                    endField();
+                    break;
+                } else if (c == '\r') {
+                    // CRLF: the LF ends the record, a lone CR too
+                    if (peek() == '\n') {
+                        next();
+                    }
+                    endField();
+                    break;
+                } else if (c == '"' && fieldLength == 0 && !quotedField) {
+                    inQuotes = true;
+                    quotedField = true;
+                } else {
+                    append(c);
+                }
+                c = next();
+            }
+
+            offset = currentOffset();
+            // blank line
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            return record;
+        }
+    }
+
+    /**
+     * File offset right after the last record returned (the resume point)
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Move forward to a file offset returned by getOffset() of an earlier read of the same file
+     */
+    public void skipTo(long target) throws IOException {
+        long bufferEnd = bufferStart + limit;
+        if (target <= bufferEnd) {
+            position = (int) Math.max(position, target - bufferStart);
+        } else {
+            long remaining = target - bufferEnd;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    // skip() may give up early, reading always moves forward
+                    if (in.read() == -1) {
+                        break;
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+            bufferStart = target - remaining;
+            position = 0;
+            limit = 0;
+        }
+        offset = currentOffset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (peek() == 0xEF) {
+            fill();
+            if (limit - position >= 3 && (buffer[position + 1] & 0xFF) == 0xBB
+                    && (buffer[position + 2] & 0xFF) == 0xBF) {
+                position += 3;
+            }
+        }
+    }
+
+    private long currentOffset() {
+        return bufferStart + position;
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    // keep the unread bytes at the start of the buffer and read more after them
+    private boolean fill() throws IOException {
+        int unread = limit - position;
+        if (unread > 0 && position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, unread);
+        }
+        bufferStart += position;
+        position = 0;
+        limit = unread;
+
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read > 0) {
+            limit += read;
+        }
+        return limit > 0;
+    }
+
+    private void append(int b) throws IOException {
+        if (fieldLength == field.length) {
+            if (fieldLength >= MAX_FIELD_BYTES) {
+                throw new IOException("Field longer than " + MAX_FIELD_BYTES + " bytes before offset " + currentOffset());
+            }
+            field = Arrays.copyOf(field, fieldLength * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private void endField() {
+        record.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.budgetmanager.importexport;
+
+import android.content.Context;
+
+import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.dao.CategoryDao;
+import com.example.budgetmanager.dto.ImportProgress;
+import com.example.budgetmanager.dto.requests.CreateTransactionRequest;
+import com.example.budgetmanager.dto.results.Result;
+import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
+import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.services.TransactionService;
+import com.example.budgetmanager.utils.EpochDays;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV TRANSACTION IMPORTER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Loads the transactions of a CSV file (bank export, or our own export) into the user's ledger.
+ * Pipeline: CsvReader (one record at a time) → CreateTransactionRequest → batch of BATCH_SIZE rows
+ * → TransactionService.createTransactions on the writer thread (one SQL transaction per batch)
+ * → progress callback.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Constant memory: only the read buffer and one batch are held, whatever the file size.
+ * - Columns found by header name (date, amount, category; optional type and note / description),
+ *   in any order. Without a type column the sign of the amount decides: negative = expense.
+ * - Category names → ids through a HashMap of the user's categories loaded once (name + type),
+ *   unknown categories skip the row.
+ * - Checkpoint: after each committed batch the listener gets the file offset after that batch.
+ *   Passing it back as startOffset resumes the import there, without inserting the rows twice.
+ *   A batch that rolled back stops the import before its offset is reported: a resumed import
+ *   starts again at that batch, no row is skipped.
+ * - Invalid rows are skipped and counted (the first reason is kept), they don't stop the import.
+ * - Interrupting the thread stops at the next batch boundary, the last checkpoint stays valid.
+ * - Reads and parses on the calling thread (DatabaseExecutor.file()), the listener is called there too.
+ *   Each batch is written by the writer thread (writeAndWait), the only thread that writes.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - Accepted dates: yyyy-MM-dd, dd-MM-yyyy, and the same with "/" (see EpochDays.parse)
+ * - Amounts: plain decimals with a dot ("1234.5", "-12.00")
+ */
+public class CsvTransactionImporter {
+
+    // rows committed per SQL transaction
+    public static final int BATCH_SIZE = 500;
+
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_AMOUNT = "amount";
+    private static final String COLUMN_TYPE = "type";
+    private static final String COLUMN_CATEGORY = "category";
+    private static final String COLUMN_NOTE = "note";
+    private static final String COLUMN_DESCRIPTION = "description";
+
+    /**
+     * Called after every committed batch, on the importing thread
+     */
+    public interface ProgressListener {
+        void onProgress(ImportProgress progress);
+    }
+
+    private final TransactionService transactionService;
+    private final CategoryDao categoryDao;
+    private final Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+
+    public CsvTransactionImporter(TransactionService transactionService, CategoryDao categoryDao, Context context) {
+        this.transactionService = transactionService;
+        this.categoryDao = categoryDao;
+        this.context = context;
+    }
+
+    /**
+     * Import a CSV stream for a user
+     * @param totalBytes size of the source, -1 if unknown
+     * @param startOffset 0, or the checkpoint of an interrupted import of the same source
+     * @return the final progress (the totals of this run), or the error that stopped the import
+     */
+    public Result<ImportProgress> importCsv(InputStream in, long totalBytes, long startOffset,
+                                            int userId, ProgressListener listener) {
+        long startNanos = System.nanoTime();
+        Map<String, Category> categories = loadCategories(userId);
+
+        try (CsvReader reader = new CsvReader(in, ',')) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                return Result.error(context.getString(R.string.error_import_header));
+            }
+
+            int dateColumn = -1, amountColumn = -1, typeColumn = -1, categoryColumn = -1, noteColumn = -1;
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (name.equals(COLUMN_DATE)) dateColumn = i;
+                else if (name.equals(COLUMN_AMOUNT)) amountColumn = i;
+                else if (name.equals(COLUMN_TYPE)) typeColumn = i;
+                else if (name.equals(COLUMN_CATEGORY)) categoryColumn = i;
+                else if (name.equals(COLUMN_NOTE) || name.equals(COLUMN_DESCRIPTION)) noteColumn = i;
+            }
+            if (dateColumn == -1 || amountColumn == -1 || categoryColumn == -1) {
+                return Result.error(context.getString(R.string.error_import_header));
+            }
+
+            if (startOffset > reader.getOffset()) {
+                reader.skipTo(startOffset);
+            }
+
+            Counters counters = new Counters();
+            List<CreateTransactionRequest> batch = new ArrayList<>(BATCH_SIZE);
+
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                counters.rowsRead++;
+                try {
+                    batch.add(toRequest(record, dateColumn, amountColumn, typeColumn, categoryColumn,
+                            noteColumn, categories));
+                } catch (IllegalArgumentException | ArithmeticException | IndexOutOfBoundsException e) {
+                    // bad date / amount, unknown category or a short row
+                    counters.skip(context.getString(R.string.error_import_row, counters.rowsRead, e.getMessage()));
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    if (!commit(batch, userId, counters)) {
+                        return batchNotCommitted();
+                    }
+                    listener.onProgress(counters.toProgress(reader.getOffset(), totalBytes, startNanos));
+
+                    if (Thread.currentThread().isInterrupted()) {
+                        return Result.error(context.getString(R.string.error_import_interrupted));
+                    }
+                }
+            }
+
+            if (!batch.isEmpty() && !commit(batch, userId, counters)) {
+                return batchNotCommitted();
+            }
+
+            ImportProgress done = counters.toProgress(reader.getOffset(), totalBytes, startNanos);
+            listener.onProgress(done);
+            return Result.success(done);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Result.error(context.getString(R.string.error_import_failed, e.getMessage()));
+        }
+    }
+
+    /**
+     * Insert a batch in one SQL transaction on the writer thread, count its results, then empty it
+     * @return false if nothing of the batch was inserted: interrupted before it was written,
+     *         or it failed and rolled back
+     */
+    private boolean commit(List<CreateTransactionRequest> batch, int userId, Counters counters) {
+        List<Result<Transaction>> results = executor.writeAndWait(
+                () -> transactionService.createTransactions(batch, userId));
+        if (results == null) {
+            return false;
+        }
+        for (Result<Transaction> result : results) {
+            if (result.isSuccess()) {
+                counters.rowsImported++;
+            } else {
+                // rejected by the service (balance, category type...)
+                counters.skip(result.getError());
+            }
+        }
+        batch.clear();
+        return true;
+    }
+
+    // the import stops, its last checkpoint is the one of the last committed batch
+    private Result<ImportProgress> batchNotCommitted() {
+        if (Thread.currentThread().isInterrupted()) {
+            return Result.error(context.getString(R.string.error_import_interrupted));
+        }
+        return Result.error(context.getString(R.string.error_import_failed,
+                context.getString(R.string.error_create_transaction_failed)));
+    }
+
+    /**
+     * One CSV record → request
+     * @throws IllegalArgumentException for an invalid date / amount or an unknown category
+     */
+    private CreateTransactionRequest toRequest(List<String> record, int dateColumn, int amountColumn,
+                                               int typeColumn, int categoryColumn, int noteColumn,
+                                               Map<String, Category> categories) {
+        // normalized "yyyy-MM-dd", "/" separated dates as well
+        long day = EpochDays.parse(record.get(dateColumn).trim().replace('/', '-'));
+        Money amount = Money.parse(record.get(amountColumn));
+
+        String type;
+        if (typeColumn != -1 && typeColumn < record.size() && !record.get(typeColumn).trim().isEmpty()) {
+            type = record.get(typeColumn).trim().toLowerCase(Locale.ROOT);
+        } else {
+            type = amount.isNegative() ? CategoryType.EXPENSE : CategoryType.INCOME;
+        }
+        if (amount.isNegative()) {
+            amount = Money.ZERO.minus(amount);
+        }
+
+        Category category = categories.get(categoryKey(type, record.get(categoryColumn)));
+        if (category == null) {
+            throw new IllegalArgumentException(context.getString(R.string.error_category_not_found));
+        }
+
+        String note = noteColumn != -1 && noteColumn < record.size() ? record.get(noteColumn) : null;
+        return new CreateTransactionRequest(amount, type, note, EpochDays.format(day), category.getId());
+    }
+
+    // the user's categories by (type, lower case name), loaded once per import
+    private Map<String, Category> loadCategories(int userId) {
+        Map<String, Category> categories = new HashMap<>();
+        for (Category category : categoryDao.getCategories(userId)) {
+            categories.put(categoryKey(category.getType(), category.getName()), category);
+        }
+        return categories;
+    }
+
+    private static String categoryKey(String type, String name) {
+        return type + '\u0000' + name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // running totals of one import
+    private static final class Counters {
+        long rowsRead;
+        long rowsImported;
+        long rowsSkipped;
+        String firstError;
+
+        void skip(String error) {
+            rowsSkipped++;
+            if (firstError == null) {
+                firstError = error;
+            }
+        }
+
+        ImportProgress toProgress(long offset, long totalBytes, long startNanos) {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            return new ImportProgress(rowsRead, rowsImported, rowsSkipped, offset, totalBytes, elapsedMillis, firstError);
+        }
+    }
+}
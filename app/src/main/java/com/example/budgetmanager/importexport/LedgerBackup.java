@@ -0,0 +1,351 @@
+package com.example.budgetmanager.importexport;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+
+import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.dao.BackupDao;
+import com.example.budgetmanager.database.dao.QueryTemplate;
+import com.example.budgetmanager.database.dao.RollupDao;
+import com.example.budgetmanager.dto.results.Result;
+import com.example.budgetmanager.importexport.BackupReader.CorruptBackupException;
+import com.example.budgetmanager.models.User;
+import com.example.budgetmanager.utils.EpochDays;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LEDGER BACKUP - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Backs up a user's data (profile, categories, transactions) to a compact binary snapshot
+ * (format in BackupWriter) and restores it, replacing the user's current ledger.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Backup: the rows are streamed from the cursors into the blocks (BackupDao.forEach...), inside
+ *   one read snapshot (DatabaseHelper.runInReadSnapshot) so the balance, categories and transactions
+ *   come from the same commit. A deferred read on its own connection: the writes made during a
+ *   long backup are not held back, they just aren't part of it.
+ * - Transactions: TRANSACTION_BLOCK_RECORDS per block, ordered by day. The day and created_at
+ *   are deltas from the previous row of the block (a block decodes alone), the date text is not
+ *   stored (it is EpochDays.format(day)), categories are referenced by their id in the snapshot.
+ * - Restore maps the file in memory, then makes two passes over it:
+ *   1. verify: every checksum and every record is decoded and checked, nothing is written.
+ *      A damaged block is reported with its number and the ledger is left untouched.
+ *   2. write: one runInTransaction on the writer thread, ledger deleted, rows inserted block by
+ *      block with the compiled inserts, rollups rebuilt from the restored rows. Any failure rolls it all back.
+ * - Categories and transactions get new ids on restore, the ids of the file are only references.
+ * - The password and email are not part of the restore: the data goes into the signed in account.
+ * - Runs on the calling thread (DatabaseExecutor.file()), the restore hands its write to the writer.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - FileChannel.map(READ_ONLY): the file as a ByteBuffer without read() copies, paged in by the kernel
+ */
+public class LedgerBackup {
+    // transactions per block: a damaged block loses at most this many rows, and bounds the block buffer
+    private static final int TRANSACTION_BLOCK_RECORDS = 4096;
+
+    private static final int TYPE_INCOME = 0;
+    private static final int TYPE_EXPENSE = 1;
+
+    private final DatabaseHelper dbHelper;
+    private final BackupDao backupDao;
+    private final RollupDao rollupDao;
+    private final Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+
+    public LedgerBackup(DatabaseHelper dbHelper, Context context) {
+        this.dbHelper = dbHelper;
+        this.backupDao = new BackupDao(dbHelper);
+        this.rollupDao = new RollupDao(dbHelper);
+        this.context = context;
+    }
+
+    /**
+     * Write the snapshot of a user to the channel (not closed)
+     * @return the number of transactions written
+     */
+    public Result<Long> backup(int userId, GatheringByteChannel channel) {
+        try {
+            return Result.success(dbHelper.runInReadSnapshot(snapshot -> writeSnapshot(snapshot, userId, channel)));
+        } catch (IOException | SQLiteException e) {
+            e.printStackTrace();
+            return Result.error(context.getString(R.string.error_backup_failed, e.getMessage()));
+        }
+    }
+
+    /**
+     * Replace the ledger of a user with the snapshot of the file
+     * @return the number of transactions restored
+     */
+    public Result<Long> restore(int userId, FileChannel channel) {
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return Result.error(context.getString(R.string.error_backup_format));
+            }
+            ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            BackupReader reader = new BackupReader(file);
+
+            // pass 1, nothing written
+            readSnapshot(reader, new RecordSink());
+            reader.rewind();
+
+            Long restored = executor.writeAndWait(() -> dbHelper.runInTransaction(() -> {
+                backupDao.deleteLedger(userId);
+                long count;
+                try {
+                    count = readSnapshot(reader, new RestoreSink(userId));
+                } catch (IOException e) {
+                    // verified by pass 1, the same bytes can't fail now
+                    throw new IllegalStateException(e);
+                }
+                rollupDao.rebuild(userId);
+                return count;
+            }));
+            if (restored == null) {
+                return Result.error(context.getString(R.string.error_backup_failed, ""));
+            }
+            return Result.success(restored);
+        } catch (CorruptBackupException e) {
+            e.printStackTrace();
+            if (e.getBlockIndex() < 0) {
+                return Result.error(context.getString(R.string.error_backup_format));
+            }
+            return Result.error(context.getString(R.string.error_backup_corrupt, e.getBlockIndex() + 1));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Result.error(context.getString(R.string.error_backup_failed, e.getMessage()));
+        }
+    }
+
+    // ---------------------------------------------------------------- backup
+
+    private long writeSnapshot(SQLiteDatabase snapshot, int userId, GatheringByteChannel channel) throws IOException {
+        User user = backupDao.getUser(snapshot, userId);
+        if (user == null) {
+            throw new IOException("User " + userId + " not found");
+        }
+        BackupWriter writer = new BackupWriter(channel);
+
+        writer.beginBlock(BackupWriter.BLOCK_USER);
+        writer.putString(user.getName());
+        writer.putString(user.getEmail());
+        writer.putSignedVarint(user.getBalance().getCents());
+        writer.endRecord();
+
+        writer.beginBlock(BackupWriter.BLOCK_CATEGORIES);
+        backupDao.forEachCategory(snapshot, userId, new QueryTemplate.RowHandler<IOException>() {
+            private int id, name, icon, type, createdAt;
+
+            @Override
+            public void columns(Cursor cursor) {
+                id = cursor.getColumnIndexOrThrow(CategoryTable.ID);
+                name = cursor.getColumnIndexOrThrow(CategoryTable.NAME_COL);
+                icon = cursor.getColumnIndexOrThrow(CategoryTable.ICON_NAME);
+                type = cursor.getColumnIndexOrThrow(CategoryTable.TYPE);
+                createdAt = cursor.getColumnIndexOrThrow(CategoryTable.CREATED_AT);
+            }
+
+            @Override
+            public boolean handle(Cursor row) {
+                writer.putVarint(row.getLong(id));
+                writer.putString(row.getString(name));
+                writer.putString(row.getString(icon));
+                writer.putByte(typeCode(row.getString(type)));
+                writer.putVarint(row.getLong(createdAt));
+                writer.endRecord();
+                return true;
+            }
+        });
+
+        TransactionBlocks transactions = new TransactionBlocks(writer);
+        backupDao.forEachTransaction(snapshot, userId, transactions);
+
+        writer.finish();
+        return transactions.written;
+    }
+
+    // transaction rows → blocks of TRANSACTION_BLOCK_RECORDS, deltas restart with each block
+    private static final class TransactionBlocks implements QueryTemplate.RowHandler<IOException> {
+        private final BackupWriter writer;
+        private int amount, type, note, day, categoryId, createdAt;
+        private long previousDay, previousCreatedAt;
+        private long written;
+
+        TransactionBlocks(BackupWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columns(Cursor cursor) {
+            amount = cursor.getColumnIndexOrThrow(TransactionTable.AMOUNT);
+            type = cursor.getColumnIndexOrThrow(TransactionTable.TYPE);
+            note = cursor.getColumnIndexOrThrow(TransactionTable.NOTE);
+            day = cursor.getColumnIndexOrThrow(TransactionTable.DAY);
+            categoryId = cursor.getColumnIndexOrThrow(TransactionTable.CATEGORY_ID);
+            createdAt = cursor.getColumnIndexOrThrow(TransactionTable.CREATED_AT);
+        }
+
+        @Override
+        public boolean handle(Cursor row) throws IOException {
+            if (written % TRANSACTION_BLOCK_RECORDS == 0) {
+                writer.beginBlock(BackupWriter.BLOCK_TRANSACTIONS);
+                previousDay = 0;
+                previousCreatedAt = 0;
+            }
+            long rowDay = row.getLong(day);
+            long rowCreatedAt = row.getLong(createdAt);
+
+            writer.putSignedVarint(rowDay - previousDay);
+            writer.putSignedVarint(row.getLong(amount));
+            writer.putByte(typeCode(row.getString(type)));
+            writer.putVarint(row.getLong(categoryId));
+            writer.putString(row.getString(note));
+            writer.putSignedVarint(rowCreatedAt - previousCreatedAt);
+            writer.endRecord();
+
+            previousDay = rowDay;
+            previousCreatedAt = rowCreatedAt;
+            written++;
+            return true;
+        }
+    }
+
+    private static int typeCode(String type) {
+        return CategoryType.EXPENSE.equals(type) ? TYPE_EXPENSE : TYPE_INCOME;
+    }
+
+    // ---------------------------------------------------------------- restore
+
+    /**
+     * Decode every block and hand the records to the sink
+     * @return the number of transactions
+     */
+    private long readSnapshot(BackupReader reader, RecordSink sink) throws IOException {
+        boolean userSeen = false;
+        // category ids of the file, checked for every transaction
+        Set<Long> categories = new HashSet<>();
+        long transactions = 0;
+
+        int kind;
+        while ((kind = reader.nextBlock()) != BackupWriter.BLOCK_END) {
+            int records = reader.getRecordCount();
+            switch (kind) {
+                case BackupWriter.BLOCK_USER:
+                    if (records != 1 || userSeen) {
+                        throw new CorruptBackupException(reader.getBlockIndex(), "bad user block");
+                    }
+                    String name = reader.readString();
+                    reader.readString(); // email, informative only
+                    sink.user(name, reader.readSignedVarint());
+                    userSeen = true;
+                    break;
+
+                case BackupWriter.BLOCK_CATEGORIES:
+                    for (int i = 0; i < records; i++) {
+                        long id = reader.readVarint();
+                        String categoryName = reader.readString();
+                        String icon = reader.readString();
+                        String type = readType(reader);
+                        long createdAt = reader.readVarint();
+                        if (categoryName == null || icon == null || !categories.add(id)) {
+                            throw new CorruptBackupException(reader.getBlockIndex(), "bad category");
+                        }
+                        sink.category(id, categoryName, icon, type, createdAt);
+                    }
+                    break;
+
+                case BackupWriter.BLOCK_TRANSACTIONS:
+                    long day = 0;
+                    long createdAt = 0;
+                    for (int i = 0; i < records; i++) {
+                        day += reader.readSignedVarint();
+                        long cents = reader.readSignedVarint();
+                        String type = readType(reader);
+                        long categoryId = reader.readVarint();
+                        String note = reader.readString();
+                        createdAt += reader.readSignedVarint();
+                        if (cents <= 0 || !categories.contains(categoryId)) {
+                            throw new CorruptBackupException(reader.getBlockIndex(), "bad transaction");
+                        }
+                        sink.transaction(cents, type, note, day, categoryId, createdAt);
+                    }
+                    transactions += records;
+                    break;
+
+                default:
+                    throw new CorruptBackupException(reader.getBlockIndex(), "unknown block kind " + kind);
+            }
+            reader.endBlock();
+        }
+
+        if (!userSeen) {
+            throw new CorruptBackupException(reader.getBlockIndex(), "no user block");
+        }
+        return transactions;
+    }
+
+    private static String readType(BackupReader reader) throws CorruptBackupException {
+        int code = reader.readByte();
+        if (code == TYPE_INCOME) return CategoryType.INCOME;
+        if (code == TYPE_EXPENSE) return CategoryType.EXPENSE;
+        throw new CorruptBackupException(reader.getBlockIndex(), "bad type " + code);
+    }
+
+    /**
+     * Receives the decoded records, the base class ignores them (verify pass)
+     */
+    private static class RecordSink {
+        void user(String name, long balanceCents) {
+        }
+
+        void category(long id, String name, String iconName, String type, long createdAt) {
+        }
+
+        void transaction(long cents, String type, String note, long day, long categoryId, long createdAt) {
+        }
+    }
+
+    // write pass, inside the restore transaction
+    private final class RestoreSink extends RecordSink {
+        private final int userId;
+        // category id in the file → id of the restored row
+        private final Map<Long, Long> categoryIds = new HashMap<>();
+
+        RestoreSink(int userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        void user(String name, long balanceCents) {
+            backupDao.updateUser(userId, name, balanceCents);
+        }
+
+        @Override
+        void category(long id, String name, String iconName, String type, long createdAt) {
+            // a failed insert throws, the restore transaction rolls back
+            categoryIds.put(id, backupDao.insertCategory(userId, name, iconName, type, createdAt));
+        }
+
+        @Override
+        void transaction(long cents, String type, String note, long day, long categoryId, long createdAt) {
+            backupDao.insertTransaction(userId, cents, type, note, EpochDays.format(day),
+                    day, categoryIds.get(categoryId), createdAt);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.budgetmanager.importexport;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.dao.QueryTemplate;
+import com.example.budgetmanager.database.dao.TransactionDao;
+import com.example.budgetmanager.dto.results.Result;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TRANSACTION EXPORTER - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Writes the whole ledger of a user to an output stream as CSV or JSON, optionally gzip compressed.
+ * The rows go straight from the cursor to the stream: the exporter never holds more than the
+ * cursor's current CursorWindow plus the write buffers, whatever the size of the ledger.
+ *
+ * KEY DESIGN DECISIONS:
+ * - TransactionDao.forEachTransaction streams the rows (oldest first), no List is built.
+ * - No model object per row: the columns are read from the cursor and written through one reused StringBuilder.
+ * - CSV columns date,amount,type,category,note: the header CsvTransactionImporter reads back.
+ * - JSON: one array of objects, amounts as exact decimal numbers (cents written with 2 decimals, no double).
+ * - Cancellation: the export stops at the next row once the thread is interrupted
+ *   (Future.cancel(true) on the executor running it) and reports it.
+ * - Runs on the calling thread, start it on a background executor.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - CursorWindow: the block of rows (2 MB) a SQLite cursor keeps in memory, refilled as it moves
+ * - GZIPOutputStream: deflate compression, finish() writes the trailer (done by close())
+ * - Writer stack: BufferedWriter → OutputStreamWriter (UTF-8) → [GZIPOutputStream] → BufferedOutputStream → target
+ */
+public class TransactionExporter {
+
+    public enum Format { CSV, JSON }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // progress callback every N rows
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    /**
+     * Rows written so far, called on the exporting thread
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsWritten);
+    }
+
+    private final TransactionDao transactionDao;
+    private final Context context;
+
+    public TransactionExporter(TransactionDao transactionDao, Context context) {
+        this.transactionDao = transactionDao;
+        this.context = context;
+    }
+
+    /**
+     * Export every transaction of the user to out (closed at the end)
+     * @return the number of rows written, or the error (failure / cancelled)
+     */
+    public Result<Long> export(int userId, OutputStream out, Format format, boolean gzip, ProgressListener listener) {
+        try (Writer writer = openWriter(out, gzip)) {
+            RowWriter rows = new RowWriter(writer, format, listener);
+            rows.begin();
+            transactionDao.forEachTransaction(userId, rows);
+            if (rows.cancelled) {
+                return Result.error(context.getString(R.string.error_export_cancelled));
+            }
+            rows.end();
+            return Result.success(rows.written);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Result.error(context.getString(R.string.error_export_failed, e.getMessage()));
+        }
+    }
+
+    private static Writer openWriter(OutputStream out, boolean gzip) throws IOException {
+        OutputStream stream = new BufferedOutputStream(out, BUFFER_SIZE);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Writes each cursor row in the chosen format
+     */
+    private static final class RowWriter implements QueryTemplate.RowHandler<IOException> {
+        private final Writer writer;
+        private final Format format;
+        private final ProgressListener listener;
+        private final StringBuilder line = new StringBuilder(256);
+        private long written;
+        private boolean cancelled;
+
+        private int amount, type, note, date, categoryName;
+
+        RowWriter(Writer writer, Format format, ProgressListener listener) {
+            this.writer = writer;
+            this.format = format;
+            this.listener = listener;
+        }
+
+        void begin() throws IOException {
+            writer.write(format == Format.CSV ? "date,amount,type,category,note\n" : "[");
+        }
+
+        void end() throws IOException {
+            if (format == Format.JSON) {
+                writer.write(written == 0 ? "]\n" : "\n]\n");
+            }
+        }
+
+        @Override
+        public void columns(Cursor cursor) {
+            amount = cursor.getColumnIndexOrThrow(TransactionTable.AMOUNT);
+            type = cursor.getColumnIndexOrThrow(TransactionTable.TYPE);
+            note = cursor.getColumnIndexOrThrow(TransactionTable.NOTE);
+            date = cursor.getColumnIndexOrThrow(TransactionTable.DATE);
+            categoryName = cursor.getColumnIndexOrThrow("category_name");
+        }
+
+        @Override
+        public boolean handle(Cursor row) throws IOException {
+            if (Thread.currentThread().isInterrupted()) {
+                cancelled = true;
+                return false;
+            }
+
+            line.setLength(0);
+            if (format == Format.CSV) {
+                appendCsv(row.getString(date));
+                line.append(',');
+                appendCents(row.getLong(amount));
+                line.append(',');
+                appendCsv(row.getString(type));
+                line.append(',');
+                appendCsv(row.getString(categoryName));
+                line.append(',');
+                appendCsv(row.getString(note));
+                line.append('\n');
+            } else {
+                line.append(written == 0 ? "\n" : ",\n");
+                line.append("{\"date\":");
+                appendJson(row.getString(date));
+                line.append(",\"amount\":");
+                appendCents(row.getLong(amount));
+                line.append(",\"type\":");
+                appendJson(row.getString(type));
+                line.append(",\"category\":");
+                appendJson(row.getString(categoryName));
+                line.append(",\"note\":");
+                appendJson(row.getString(note));
+                line.append('}');
+            }
+            writer.append(line);
+
+            written++;
+            if (listener != null && written % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(written);
+            }
+            return true;
+        }
+
+        // 1234 → "12.34", -5 → "-0.05"
+        private void appendCents(long cents) {
+            if (cents < 0) {
+                line.append('-');
+                cents = -cents;
+            }
+            line.append(cents / 100).append('.');
+            long fraction = cents % 100;
+            if (fraction < 10) {
+                line.append('0');
+            }
+            line.append(fraction);
+        }
+
+        // quoted only when needed (separator, quote or line break), quotes doubled
+        private void appendCsv(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private void appendJson(String value) {
+            if (value == null) {
+                line.append("null");
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': line.append("\\\""); break;
+                    case '\\': line.append("\\\\"); break;
+                    case '\n': line.append("\\n"); break;
+                    case '\r': line.append("\\r"); break;
+                    case '\t': line.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            line.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
@@ -6,6 +6,8 @@ public class Category {
     private String iconName;
     private String type; // "income" or "expense"
     private int userId;  // Which user owns this category
+    private Money total = Money.ZERO; // lifetime sum of its transactions (maintained column)
+    private int transactionCount;     // lifetime count of its transactions (maintained column)
 
     public Category(String name, String iconName, String type, int userId) {
         this.name = name;
@@ -20,6 +22,12 @@ public class Category {
         this.type = type;
         this.userId = userId;
     }
+    public Category(int id, String name, String iconName, String type, int userId,
+                    Money total, int transactionCount) {
+        this(id, name, iconName, type, userId);
+        this.total = total;
+        this.transactionCount = transactionCount;
+    }
     public Category(String name, String type, int userId) {
         this.name = name;
         this.type = type;
@@ -41,4 +49,7 @@ public class Category {
     public void setType(String type) { this.type = type; }
 
     public int getUserId() {  return userId; }
+
+    public Money getTotal() { return total; }
+    public int getTransactionCount() { return transactionCount; }
 }
\ No newline at end of file
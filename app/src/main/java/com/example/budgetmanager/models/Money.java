@@ -0,0 +1,98 @@
+package com.example.budgetmanager.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * MONEY VALUE TYPE - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * A fixed-point amount stored as a whole number of cents (long).
+ * Every amount of the app (transactions, balances, totals) goes through this type,
+ * and the database stores the same cents in INTEGER columns.
+ *
+ * KEY DESIGN DECISIONS:
+ * - double can't represent 0.10 exactly, summing thousands of them drifts,
+ *   and comparing a balance with an amount could fail by 0.0000001.
+ *   Integer cents stay exact at any ledger size, and SQLite SUM() over INTEGER is exact too.
+ * - Immutable: plus()/minus() return a new instance.
+ * - toDouble() exists only for display and charts (MPAndroidChart works with float).
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - BigDecimal: used once, when parsing user input, to round "12.345" to 1235 cents (HALF_UP)
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    // factory from the stored value
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Parse user input ("12", "12.5", "12.50") into cents
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Money parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim())
+                .movePointRight(2)
+                .setScale(0, RoundingMode.HALF_UP);
+        return ofCents(value.longValueExact());
+    }
+
+    public long getCents() { return cents; }
+
+    public Money plus(Money other) {
+        return ofCents(cents + other.cents);
+    }
+
+    public Money minus(Money other) {
+        return ofCents(cents - other.cents);
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    // display / chart value only, never use it for arithmetic
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    // "12.50", used to prefill the amount inputs
+    public String toPlainString() {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return cents == ((Money) o).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+}
@@ -16,7 +16,7 @@ package com.example.budgetmanager.models;
  */
 public class Transaction {
     private int id;
-    private double amount;
+    private Money amount; // fixed-point, stored as cents
     private String type; // "income" or "expense"
     private String note;
     private String date;
@@ -24,7 +24,7 @@ public class Transaction {
     private int userId;
     
     // Constructor for creating new transactions (without ID)
-    public Transaction(double amount, String type, String note, String date, int categoryId, int userId) {
+    public Transaction(Money amount, String type, String note, String date, int categoryId, int userId) {
         this.amount = amount;
         this.type = type;
         this.note = note;
@@ -34,7 +34,7 @@ public class Transaction {
     }
 
     // Constructor for retrieving existing transactions (with ID)
-    public Transaction(int id, double amount, String type, String note, String date, int categoryId, int userId) {
+    public Transaction(int id, Money amount, String type, String note, String date, int categoryId, int userId) {
         this.id = id;
         this.amount = amount;
         this.type = type;
@@ -46,8 +46,8 @@ public class Transaction {
     // getter setter 
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
     public String getNote() { return note; }
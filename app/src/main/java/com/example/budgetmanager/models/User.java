@@ -2,7 +2,7 @@ package com.example.budgetmanager.models;
 
 
 public class User {
-    private  double balance;
+    private Money balance = Money.ZERO;
     private int id;
     private String name;
     private String email;
@@ -21,7 +21,7 @@ public class User {
      * Constructor for EXISTING users (loaded from database)
      * Database provides the auto-generated ID
      */
-    public User(int id, String name, String email, String password, double balance) {
+    public User(int id, String name, String email, String password, Money balance) {
         this.id = id;
         this.name = name;
         this.email = email;
@@ -42,6 +42,6 @@ public class User {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
 }
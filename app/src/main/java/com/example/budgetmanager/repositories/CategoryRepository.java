@@ -0,0 +1,40 @@
+package com.example.budgetmanager.repositories;
+
+import android.content.Context;
+
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.dao.CategoryDao;
+import com.example.budgetmanager.models.Category;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CATEGORY REPOSITORY - the categories of a user (names, icons, running totals) kept in memory,
+ * served while the categories table is unchanged. Same rules as TransactionRepository.
+ */
+public class CategoryRepository {
+    private static final int MAX_CACHED = 4;
+
+    private static CategoryRepository instance;
+
+    public static synchronized CategoryRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new CategoryRepository(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    private final CategoryDao categoryDao;
+    private final VersionedCache<List<Category>> categories;
+
+    private CategoryRepository(DatabaseHelper dbHelper) {
+        categoryDao = new CategoryDao(dbHelper);
+        categories = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED, CategoryTable.TABLE_NAME);
+    }
+
+    public List<Category> getCategories(int userId) {
+        return categories.get(() -> Collections.unmodifiableList(categoryDao.getCategories(userId)), userId);
+    }
+}
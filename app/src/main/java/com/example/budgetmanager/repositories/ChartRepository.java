@@ -0,0 +1,57 @@
+package com.example.budgetmanager.repositories;
+
+import android.content.Context;
+
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.DailyTotalsTable;
+import com.example.budgetmanager.database.dao.ChartDao;
+import com.example.budgetmanager.dto.CategoryTotal;
+import com.example.budgetmanager.dto.MonthlyTotal;
+import com.example.budgetmanager.utils.EpochDays;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CHART REPOSITORY - the series of the stats screen kept in memory, served while the rollup
+ * (and category names) are unchanged. Same rules as TransactionRepository.
+ * The month of the daily series is part of its key: a new month is a new entry, not a stale one.
+ */
+public class ChartRepository {
+    private static final int MAX_CACHED = 4;
+
+    private static ChartRepository instance;
+
+    public static synchronized ChartRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChartRepository(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    private final ChartDao chartDao;
+    private final VersionedCache<List<CategoryTotal>> categoryTotals;
+    private final VersionedCache<List<MonthlyTotal>> dailyTotals;
+
+    private ChartRepository(DatabaseHelper dbHelper) {
+        chartDao = new ChartDao(dbHelper);
+        categoryTotals = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED,
+                DailyTotalsTable.TABLE_NAME, CategoryTable.TABLE_NAME);
+        dailyTotals = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED,
+                DailyTotalsTable.TABLE_NAME);
+    }
+
+    // per category totals of one type (see ChartDao.getCategoryTotals)
+    public List<CategoryTotal> getCategoryTotals(int userId, String type) {
+        return categoryTotals.get(() -> Collections.unmodifiableList(
+                chartDao.getCategoryTotals(userId, type)), userId, type);
+    }
+
+    // one entry per day of the current month, zero filled (see ChartDao.getDailyTotals)
+    public List<MonthlyTotal> getDailyTotalsCurrentMonth(int userId) {
+        long firstDay = EpochDays.startOfMonth(EpochDays.today());
+        return dailyTotals.get(() -> Collections.unmodifiableList(
+                chartDao.getDailyTotals(userId, firstDay, EpochDays.startOfNextMonth(firstDay))), userId, firstDay);
+    }
+}
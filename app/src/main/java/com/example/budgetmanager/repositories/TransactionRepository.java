@@ -0,0 +1,76 @@
+package com.example.budgetmanager.repositories;
+
+import android.content.Context;
+
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryTable;
+import com.example.budgetmanager.database.DatabaseHelper.TransactionTable;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.database.dao.DashboardDao;
+import com.example.budgetmanager.database.dao.TransactionDao;
+import com.example.budgetmanager.dto.DashboardSnapshot;
+import com.example.budgetmanager.dto.TransactionWithCategory;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TRANSACTION REPOSITORY - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Read side of the transactions for the screens (through their ViewModels): the dashboard
+ * snapshot and the first history page, kept in memory for the whole process.
+ *
+ * KEY DESIGN DECISIONS:
+ * - One instance per process (like DatabaseHelper): the cache outlives the activities, a screen
+ *   recreated (rotation, theme, language) or opened again renders from it without a query.
+ * - An entry is served while the tables it was read from keep their version (VersionedCache,
+ *   TableChangeTracker): any committed write to them makes the next read go to SQLite.
+ * - Reads only: the writes keep going through TransactionService (Result<T>, rollups in the same
+ *   transaction), their table versions invalidate the cache.
+ * - Cached lists are unmodifiable, they are shared by every screen reading them.
+ */
+public class TransactionRepository {
+    private static final int MAX_CACHED = 4;
+
+    private static TransactionRepository instance;
+
+    public static synchronized TransactionRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new TransactionRepository(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    private final DashboardDao dashboardDao;
+    private final TransactionDao transactionDao;
+
+    // the snapshot reads the user row, its recent transactions and their category (name, icon)
+    private final VersionedCache<DashboardSnapshot> dashboards;
+    private final VersionedCache<List<TransactionWithCategory>> firstPages;
+
+    private TransactionRepository(DatabaseHelper dbHelper) {
+        dashboardDao = new DashboardDao(dbHelper);
+        transactionDao = new TransactionDao(dbHelper);
+        dashboards = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED,
+                UserTable.TABLE_NAME, TransactionTable.TABLE_NAME, CategoryTable.TABLE_NAME);
+        firstPages = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED,
+                TransactionTable.TABLE_NAME, CategoryTable.TABLE_NAME);
+    }
+
+    /**
+     * Dashboard data of a user (see DashboardDao)
+     * @return null if the user doesn't exist
+     */
+    public DashboardSnapshot getDashboardSnapshot(int userId, int recentLimit) {
+        return dashboards.get(() -> dashboardDao.getDashboardSnapshot(userId, recentLimit), userId, recentLimit);
+    }
+
+    /**
+     * Newest page of the history (see TransactionDao.getTransactionsPage), the next pages are not cached
+     */
+    public List<TransactionWithCategory> getFirstTransactionsPage(int userId, int pageSize) {
+        return firstPages.get(() -> Collections.unmodifiableList(
+                transactionDao.getTransactionsPage(userId, pageSize)), userId, pageSize);
+    }
+}
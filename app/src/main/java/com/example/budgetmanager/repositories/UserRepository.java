@@ -0,0 +1,41 @@
+package com.example.budgetmanager.repositories;
+
+import android.content.Context;
+
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.DatabaseHelper.UserTable;
+import com.example.budgetmanager.database.dao.UserDao;
+import com.example.budgetmanager.models.User;
+
+/**
+ * USER REPOSITORY - the profile row of a user kept in memory, served while the users table
+ * is unchanged. Same rules as TransactionRepository.
+ * The User is shared with every reader: copy it before changing a field.
+ */
+public class UserRepository {
+    private static final int MAX_CACHED = 2;
+
+    private static UserRepository instance;
+
+    public static synchronized UserRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserRepository(DatabaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    private final UserDao userDao;
+    private final VersionedCache<User> users;
+
+    private UserRepository(DatabaseHelper dbHelper) {
+        userDao = new UserDao(dbHelper);
+        users = new VersionedCache<>(dbHelper.getChangeTracker(), MAX_CACHED, UserTable.TABLE_NAME);
+    }
+
+    /**
+     * @return null if the user doesn't exist
+     */
+    public User getUser(int userId) {
+        return users.get(() -> userDao.getUserById(userId), userId);
+    }
+}
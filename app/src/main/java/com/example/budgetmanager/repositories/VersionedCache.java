@@ -0,0 +1,77 @@
+package com.example.budgetmanager.repositories;
+
+import com.example.budgetmanager.database.TableChangeTracker;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VERSIONED CACHE - the last results of one repository read, valid while its tables are unchanged
+ *
+ * Each entry remembers the table version (TableChangeTracker) read just before its query:
+ * a get() with the same key and the same version returns it without touching SQLite,
+ * any committed write to one of the tables makes it stale and the next get() reloads.
+ * Bounded, least recently used entries are dropped first (a few users / types / months).
+ */
+final class VersionedCache<V> {
+
+    /**
+     * Runs the DAO query of a missing or stale entry
+     */
+    @FunctionalInterface
+    interface Loader<V> {
+        V load();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long version;
+
+        Entry(V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private final TableChangeTracker changeTracker;
+    private final String[] tables;
+    private final Map<List<Object>, Entry<V>> entries;
+
+    VersionedCache(TableChangeTracker changeTracker, int maxEntries, String... tables) {
+        this.changeTracker = changeTracker;
+        this.tables = tables;
+        // access order: the eldest entry is the least recently read
+        this.entries = new LinkedHashMap<List<Object>, Entry<V>>(maxEntries + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The cached value of this key if its tables didn't change since it was loaded, else load it.
+     * The query runs outside the lock, a null result (e.g. user not found) is not cached.
+     */
+    V get(Loader<V> loader, Object... keyParts) {
+        List<Object> key = Arrays.asList(keyParts);
+        // read before the query: a write committed while it runs makes the entry stale right away
+        long version = changeTracker.getVersion(tables);
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                return entry.value;
+            }
+        }
+
+        V value = loader.load();
+        if (value != null) {
+            synchronized (this) {
+                entries.put(key, new Entry<>(value, version));
+            }
+        }
+        return value;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.budgetmanager.services;
 import android.content.Context;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseExecutor.Callback;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.CategoryDao;
 import com.example.budgetmanager.database.dao.UserDao;
@@ -12,8 +14,9 @@ import com.example.budgetmanager.dto.requests.RegisterRequest;
 import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.Category;
 import com.example.budgetmanager.models.User;
+import com.example.budgetmanager.utils.PasswordHasher;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
+import java.util.concurrent.Future;
 // Your class code here...
 
 
@@ -31,6 +34,11 @@ import at.favre.lib.crypto.bcrypt.BCrypt;
  * - Manages password security
  * - NEVER touches UI directly (returns results for Activities to handle)
  *
+ * THREADING:
+ * - The async login / register run on DatabaseExecutor.compute(), the BCrypt thread:
+ *   the hash costs 100ms+ and must not hold the writer (or the UI). The insert of register()
+ *   goes back to the writer once the password is hashed; cancelling before that saves nothing.
+ *
  * DEPENDENCY INJECTION:
  * - Receives DatabaseHelper in constructor (not created internally)
  * - This allows mocking DatabaseHelper for unit testing
@@ -45,6 +53,7 @@ public class AuthService {
 
     private UserDao userDao;
     private Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
     
     public AuthService(UserDao userDao, Context context) {
         this.userDao = userDao;
@@ -66,15 +75,35 @@ public class AuthService {
         }
 
         // Business logic - password verification
-        if (!BCrypt.verifyer().verify(request.getPassword().toCharArray(), user.getPassword()).verified) {
+        if (!PasswordHasher.verify(request.getPassword(), user.getPassword())) {
             return Result.error(context.getString(R.string.error_invalid_credentials));
         }
 
         return Result.success(user);
     }
 
+    // login() on the hashing thread (one indexed lookup + the hash check, no write),
+    // the result on the main thread; cancel(true) drops it
+    public Future<Result<User>> login(LoginRequest request, Callback<Result<User>> callback) {
+        return executor.compute(() -> login(request),
+                DatabaseExecutor.orError(callback, context.getString(R.string.login_failed)));
+    }
+
 
     public Result<User> register(RegisterRequest request) {
+        return createAccount(request, PasswordHasher.hash(request.getPassword()));
+    }
+
+    // hashes on the hashing thread, then creates the account on the writer thread;
+    // cancel(true) during the hash: nothing is written
+    public Future<Result<User>> register(RegisterRequest request, Callback<Result<User>> callback) {
+        return executor.compute(() -> {
+            String passwordHash = PasswordHasher.hash(request.getPassword());
+            return executor.writeAndWait(() -> createAccount(request, passwordHash));
+        }, DatabaseExecutor.orError(callback, context.getString(R.string.error_registration_failed)));
+    }
+
+    private Result<User> createAccount(RegisterRequest request, String passwordHash) {
         // Business logic - check if user already exists
         User existingUser = userDao.getUserByEmail(request.getEmail());
 
@@ -82,8 +111,8 @@ public class AuthService {
             return Result.error(context.getString(R.string.error_user_exists));
         }
 
-        // Business logic - create user (hashing handled in DatabaseHelper)
-        User newUser = new User(request.getName(), request.getEmail(), request.getPassword());
+        // Business logic - create user (the password is stored as its hash)
+        User newUser = new User(request.getName(), request.getEmail(), passwordHash);
         long userId = userDao.createUser(newUser);
 
         if (userId == -1) {
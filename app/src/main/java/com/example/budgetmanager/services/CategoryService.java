@@ -1,18 +1,24 @@
 package com.example.budgetmanager.services;
 
 import android.content.Context;
+import android.database.SQLException;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseExecutor.Callback;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
 import com.example.budgetmanager.database.dao.CategoryDao;
+import com.example.budgetmanager.database.dao.RollupDao;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.CreateCategoryRequest;
 import com.example.budgetmanager.dto.requests.UpdateCategoryRequest;
 import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * CATEGORY SERVICE - DEVELOPER GUIDE
@@ -33,13 +39,16 @@ public class CategoryService {
     // Dependencies
     private final CategoryDao categoryDao;
     private final UserDao userDao;
+    private final RollupDao rollupDao;
     private final DatabaseHelper dbHelper;
     private final Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
     
     // constructor
     public CategoryService(CategoryDao categoryDao, UserDao userDao, DatabaseHelper dbHelper, Context context) {
         this.categoryDao = categoryDao;
         this.userDao = userDao;
+        this.rollupDao = new RollupDao(dbHelper);
         this.dbHelper = dbHelper;
         this.context = context;
     }
@@ -61,13 +70,23 @@ public class CategoryService {
         );
         
         // save to database
-        long id = categoryDao.createCategory(category);
-        if (id == -1) {
+        long id;
+        try {
+            id = categoryDao.createCategory(category);
+        } catch (SQLException e) {
+            // a name already used by this user (UNIQUE constraint)
+            e.printStackTrace();
             return Result.error(context.getString(R.string.error_create_category_failed));
         }
         category.setId((int) id);
         return Result.success(category);
     }
+
+    // createCategory() on the writer thread, the result on the main thread (see DatabaseExecutor)
+    public Future<Result<Category>> createCategory(CreateCategoryRequest request, Callback<Result<Category>> callback) {
+        return executor.write(() -> createCategory(request),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_create_category_failed)));
+    }
     
 
         // update category
@@ -85,40 +104,51 @@ public class CategoryService {
         categoryDao.updateCategory(category);
         return Result.success(category);
     }    
+
+    // updateCategory() on the writer thread, the result on the main thread
+    public Future<Result<Category>> updateCategory(UpdateCategoryRequest request, Callback<Result<Category>> callback) {
+        return executor.write(() -> updateCategory(request),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_update_category_failed)));
+    }
     
     // delete category
     public Result<String> deleteCategory(int id) {
-        // Find the category by ID
-        Category category = categoryDao.getCategoryById(id);
-        if (category == null) {
-            return Result.error(context.getString(R.string.error_category_not_found));
-        }
-        double balance = userDao.getUserBalance(category.getUserId());
-        double total = categoryDao.getTotalTransactionsPerCategory(id);
+        Result<String> result = dbHelper.runInTransaction(() -> {
+            // Find the category by ID, inside the transaction: its total and the balance can't move meanwhile
+            Category category = categoryDao.getCategoryById(id);
+            if (category == null) {
+                return Result.error(context.getString(R.string.error_category_not_found));
+            }
+            Money balance = userDao.getUserBalance(category.getUserId());
+            // maintained total of its transactions, read with the category itself
+            Money total = category.getTotal();
 
-        // check if removing income category make  balance negative
-        if (category.getType().equals(CategoryType.INCOME)) {
-            if(balance - total < 0){
-                return Result.error(context.getString(R.string.error_delete_category_balance));
+            // check if removing income category make  balance negative
+            Money delta = total;
+            if (category.getType().equals(CategoryType.INCOME)) {
+                if(balance.minus(total).isNegative()){
+                    return Result.error(context.getString(R.string.error_delete_category_balance));
+                }
+                delta = Money.ZERO.minus(total);
             }
-            balance -= total;
-        }else{
-            balance += total;
-        }        
-        
-        // Delete the category and update balance
-        double finalBalance = balance;
-        return dbHelper.runInTransaction(() -> {
-            userDao.updateUserBalance(category.getUserId(), finalBalance);
-            
-            int rowsAffected = categoryDao.deleteCategory(id);
-            if (rowsAffected == 0) {
-                return Result.error(context.getString(R.string.error_delete_category_failed));
+
+            // the category's transactions and rollup rows go with it (ON DELETE CASCADE)
+            if (categoryDao.deleteCategory(id) == 0) {
+                throw new IllegalStateException("Category " + id + " already deleted");
             }
+            // Update balance and user totals
+            rollupDao.removeCategory(category.getUserId(), category.getType(), total);
+            userDao.addToUserBalance(category.getUserId(), delta);
 
             return Result.success(context.getString(R.string.msg_category_deleted));
         });
-        
+        return result != null ? result : Result.error(context.getString(R.string.error_delete_category_failed));
+    }
+
+    // deleteCategory() on the writer thread, the result on the main thread
+    public Future<Result<String>> deleteCategory(int id, Callback<Result<String>> callback) {
+        return executor.write(() -> deleteCategory(id),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_delete_category_failed)));
     }
 
 }
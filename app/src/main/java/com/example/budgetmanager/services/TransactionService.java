@@ -3,18 +3,34 @@ package com.example.budgetmanager.services;
 import android.content.Context;
 
 import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseExecutor.Callback;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
 import com.example.budgetmanager.database.dao.CategoryDao;
+import com.example.budgetmanager.database.dao.DashboardDao;
+import com.example.budgetmanager.database.dao.RollupDao;
 import com.example.budgetmanager.database.dao.TransactionDao;
+import com.example.budgetmanager.database.dao.TransactionQuery;
 import com.example.budgetmanager.database.dao.UserDao;
+import com.example.budgetmanager.dto.DashboardSnapshot;
+import com.example.budgetmanager.dto.TransactionQueryResult;
 import com.example.budgetmanager.dto.TransactionWithCategory;
 import com.example.budgetmanager.dto.requests.CreateTransactionRequest;
 import com.example.budgetmanager.dto.requests.UpdateTransactionRequest;
 import com.example.budgetmanager.dto.results.Result;
 
 
+import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.models.Money;
 import com.example.budgetmanager.models.Transaction;
+import com.example.budgetmanager.utils.EpochDays;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * TRANSACTION SERVICE - DEVELOPER GUIDE
@@ -27,6 +43,12 @@ import com.example.budgetmanager.models.Transaction;
  * KEY DESIGN DECISIONS:
  * - Returns Result<T> wrapper to handle success/failure uniformly.
  * - Never exposes raw database exceptions to the UI.
+ * - Every write also updates the rollups (RollupDao) in the same runInTransaction block,
+ *   so the charts / dashboard totals never disagree with the transactions.
+ * - Batches (createTransactions) are one SQL transaction: one commit, one balance write,
+ *   one compiled insert re-bound per row, summed rollup deltas.
+ * - The balance is read, checked and moved inside the transaction of the write, always by a
+ *   delta (balance_cents + delta): two queued writes can't both start from the same balance.
  *
  * SINGLE RESPONSIBILITY:
  * - Coordinates between TransactionDao and CategoryDao
@@ -39,31 +61,26 @@ import com.example.budgetmanager.models.Transaction;
 public class TransactionService {
     private final TransactionDao transactionDao;
     private final UserDao userDao;
+    private final RollupDao rollupDao;
+    private final CategoryDao categoryDao;
+    private final DashboardDao dashboardDao;
     private final DatabaseHelper dbHelper;
     private final Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
     
     public TransactionService(TransactionDao transactionDao, DatabaseHelper dbHelper, UserDao userDao, Context context) {
         this.transactionDao = transactionDao;
         this.dbHelper = dbHelper;
         this.userDao = userDao;
+        this.rollupDao = new RollupDao(dbHelper);
+        this.categoryDao = new CategoryDao(dbHelper);
+        this.dashboardDao = new DashboardDao(dbHelper);
         this.context = context;
     }
       /**
      * Create a new transaction with validation
      */
     public Result<Transaction> createTransaction(CreateTransactionRequest request, int userId) {
-        double balance = userDao.getUserBalance(userId);
-
-        // Check if the transaction is an expense and if the user has enough balance
-        if (request.getType().equals(CategoryType.EXPENSE)) {
-            if (request.getAmount() > balance) {
-                String message = context.getString(R.string.error_insufficient_balance_amount, balance);
-                return Result.error(message);
-            }
-            balance -= request.getAmount();
-        }else{
-            balance += request.getAmount();
-        }
         // convert dto to transaction model
         Transaction transaction = new Transaction(
             request.getAmount(),
@@ -74,115 +91,316 @@ public class TransactionService {
             userId
         );
 
-        double finalBalance = balance;
-        return dbHelper.runInTransaction(() -> {
+        Result<Transaction> result = dbHelper.runInTransaction(() -> {
+            // read inside the transaction: no other write can move the balance before ours
+            Money balance = userDao.getUserBalance(userId);
+
+            // Check if the transaction is an expense and if the user has enough balance
+            Money delta = request.getAmount();
+            if (request.getType().equals(CategoryType.EXPENSE)) {
+                if (request.getAmount().isGreaterThan(balance)) {
+                    String message = context.getString(R.string.error_insufficient_balance_amount, balance.toDouble());
+                    return Result.error(message);
+                }
+                delta = Money.ZERO.minus(request.getAmount());
+            }
+
             // update balance and create transaction
-            userDao.updateUserBalance(userId, finalBalance);
+            userDao.addToUserBalance(userId, delta);
             long id = transactionDao.createTransaction(transaction);
-            
-            if (id == -1) {
-                return Result.error(context.getString(R.string.error_create_transaction_failed));
-            }
-            
+
+            rollupDao.addTransaction(userId, transaction.getCategoryId(), transaction.getType(),
+                    EpochDays.parse(transaction.getDate()), transaction.getAmount());
+
             // Set the generated ID
             transaction.setId((int) id);
             return Result.success(transaction);
         });
-        
-    }    /**
+        return result != null ? result : Result.error(context.getString(R.string.error_create_transaction_failed));
+    }
+
+    // createTransaction() on the writer thread, the result on the main thread (see DatabaseExecutor)
+    public Future<Result<Transaction>> createTransaction(CreateTransactionRequest request, int userId,
+                                                         Callback<Result<Transaction>> callback) {
+        return executor.write(() -> createTransaction(request, userId),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_create_transaction_failed)));
+    }
+
+    /**
+     * Create many transactions of a user at once (imports, seeding)
+     *
+     * Each row is validated like createTransaction (amount > 0, valid date, a category of the user
+     * with the same type, expenses covered by the balance at that point of the batch, in list order).
+     * Validation and inserts run in ONE SQL transaction: the balance is read inside it, and moved
+     * once by the net delta of the batch (balance_cents + delta), so no other write is lost.
+     * If an insert fails the whole batch is rolled back.
+     *
+     * @return one result per request, in the same order; null if the batch failed and was rolled back
+     *         (nothing of it inserted)
+     */
+    public List<Result<Transaction>> createTransactions(List<CreateTransactionRequest> requests, int userId) {
+        List<Result<Transaction>> results = new ArrayList<>(requests.size());
+        List<Transaction> valid = new ArrayList<>(requests.size());
+
+        Boolean inserted = dbHelper.runInTransaction(() -> {
+            // the user's categories, read once for the whole batch
+            Map<Integer, Category> categories = new HashMap<>();
+            for (Category category : categoryDao.getCategories(userId)) {
+                categories.put(category.getId(), category);
+            }
+
+            Money balance = userDao.getUserBalance(userId);
+            Money delta = Money.ZERO;
+            for (CreateTransactionRequest request : requests) {
+                String error = validate(request, categories, balance.plus(delta));
+                if (error != null) {
+                    results.add(Result.error(error));
+                    continue;
+                }
+
+                delta = request.getType().equals(CategoryType.EXPENSE)
+                        ? delta.minus(request.getAmount())
+                        : delta.plus(request.getAmount());
+
+                Transaction transaction = new Transaction(
+                    request.getAmount(),
+                    request.getType(),
+                    request.getNote(),
+                    request.getDate(),
+                    request.getCategoryId(),
+                    userId
+                );
+                valid.add(transaction);
+                // replaced by the success once the row is inserted
+                results.add(null);
+            }
+
+            if (valid.isEmpty()) {
+                return Boolean.TRUE;
+            }
+
+            // the balance moves by the net delta of the batch, written once
+            userDao.addToUserBalance(userId, delta);
+            for (Transaction transaction : valid) {
+                // a failed insert throws: the whole batch rolls back (runInTransaction returns null)
+                long id = transactionDao.createTransaction(transaction);
+                transaction.setId((int) id);
+            }
+            rollupDao.addTransactions(userId, valid);
+            return Boolean.TRUE;
+        });
+
+        if (inserted == null) {
+            return null;
+        }
+
+        // fill the slots of the valid rows, in request order
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, Result.success(valid.get(next)));
+                next++;
+            }
+        }
+        return results;
+    }
+
+    // null if the request can be inserted with this running balance, else the error message
+    private String validate(CreateTransactionRequest request, Map<Integer, Category> categories, Money balance) {
+        if (request.getAmount() == null || !request.getAmount().isGreaterThan(Money.ZERO)) {
+            return context.getString(R.string.saripaar_amount_min);
+        }
+        try {
+            EpochDays.parse(request.getDate());
+        } catch (IllegalArgumentException e) {
+            return context.getString(R.string.error_invalid_transaction_date, request.getDate());
+        }
+        Category category = categories.get(request.getCategoryId());
+        if (category == null || !category.getType().equals(request.getType())) {
+            return context.getString(R.string.error_category_not_found);
+        }
+        if (request.getType().equals(CategoryType.EXPENSE) && request.getAmount().isGreaterThan(balance)) {
+            return context.getString(R.string.error_insufficient_balance_amount, balance.toDouble());
+        }
+        return null;
+    }
+
+    /**
      * update user transaction
      * the updated fields are amount, note, and date
      */
     public Result<Transaction> updateTransaction( UpdateTransactionRequest request) {
-        // Find the transaction by ID
-        Transaction transaction = transactionDao.getTransactionById(request.getId());
-        if (transaction == null) {
-            return Result.error(context.getString(R.string.error_transaction_not_found));
-        }
-        // balance 
-        double amountDifference  = request.getAmount() - transaction.getAmount();
-        double balance = userDao.getUserBalance(transaction.getUserId());
-        
-        // if the type is income check if reduce is bigger than balance
-        if (request.getType().equals(CategoryType.INCOME)){
-            if(amountDifference > balance) {
-                String message = context.getString(R.string.error_insufficient_balance_amount, balance);
-                return Result.error(message);
+        Result<Transaction> result = dbHelper.runInTransaction(() -> {
+            // Find the transaction by ID
+            Transaction transaction = transactionDao.getTransactionById(request.getId());
+            if (transaction == null) {
+                return Result.error(context.getString(R.string.error_transaction_not_found));
+            }
+            // balance, read inside the transaction like the row
+            Money amountDifference  = request.getAmount().minus(transaction.getAmount());
+            Money balance = userDao.getUserBalance(transaction.getUserId());
+            Money delta;
+
+            // if the type is income check if reduce is bigger than balance
+            if (request.getType().equals(CategoryType.INCOME)){
+                if(amountDifference.isGreaterThan(balance)) {
+                    String message = context.getString(R.string.error_insufficient_balance_amount, balance.toDouble());
+                    return Result.error(message);
+                }
+                delta = amountDifference;
             }
-            balance += amountDifference;
-        } 
-        // if it's expense check if the amount difference is bigger than balance
-        else {
-            if(amountDifference > balance) {
-                String message = context.getString(R.string.error_insufficient_balance_amount, balance);
-                return Result.error(message);
+            // if it's expense check if the amount difference is bigger than balance
+            else {
+                if(amountDifference.isGreaterThan(balance)) {
+                    String message = context.getString(R.string.error_insufficient_balance_amount, balance.toDouble());
+                    return Result.error(message);
+                }
+                delta = Money.ZERO.minus(amountDifference);
             }
-            balance -= amountDifference;
-        }
-         
-        // set updated values
-        transaction.setAmount(request.getAmount());
-        transaction.setNote(request.getNote());
-        transaction.setDate(request.getDate());
-
-        // Persist to database
-        double finalBalance = balance;
-        return dbHelper.runInTransaction(() -> {
-            userDao.updateUserBalance(transaction.getUserId(), finalBalance);
-            long updatedId = transactionDao.updateTransaction(transaction);
-            
-            if (updatedId == -1) {
-                return Result.error(context.getString(R.string.error_update_transaction_failed));
+
+            // the old values leave the rollups, the new ones enter them after the update
+            rollupDao.removeTransaction(transaction.getId());
+
+            // set updated values
+            transaction.setAmount(request.getAmount());
+            transaction.setNote(request.getNote());
+            transaction.setDate(request.getDate());
+
+            if (transactionDao.updateTransaction(transaction) == 0) {
+                // the row is gone (deleted meanwhile): throwing rolls back the rollups above
+                throw new IllegalStateException("Transaction " + transaction.getId() + " not found");
             }
-            
-            // Set the updated ID
-            transaction.setId((int) updatedId);
+            userDao.addToUserBalance(transaction.getUserId(), delta);
+
+            rollupDao.addTransaction(transaction.getUserId(), transaction.getCategoryId(),
+                    transaction.getType(), EpochDays.parse(transaction.getDate()), transaction.getAmount());
             return Result.success(transaction);
         });
+        return result != null ? result : Result.error(context.getString(R.string.error_update_transaction_failed));
+    }
 
-       
+    // updateTransaction() on the writer thread, the result on the main thread
+    public Future<Result<Transaction>> updateTransaction(UpdateTransactionRequest request,
+                                                         Callback<Result<Transaction>> callback) {
+        return executor.write(() -> updateTransaction(request),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_update_transaction_failed)));
     }
     /**
      * Get balance summary for a user
      * 
      * Returns a simple array: [totalIncome, totalExpenses, balance]
+     * read from the cached totals of the users row (one primary key lookup)
+     */
+    public Money[] getBalanceSummary(int userId) {
+        return userDao.getBalanceSummary(userId);
+    }
+
+    /**
+     * Everything the dashboard shows (name, balance, totals, recent transactions)
+     * read in one query from one consistent snapshot
+     * @return null if the user doesn't exist
      */
-    public double[] getBalanceSummary(int userId) {
-        double totalIncome = transactionDao.getTotalIncome(userId);
-        double totalExpenses = transactionDao.getTotalExpenses(userId);
-        double balance = userDao.getUserBalance(userId);
-        
-        return new double[]{totalIncome, totalExpenses, balance};
+    public DashboardSnapshot getDashboardSnapshot(int userId, int recentLimit) {
+        return dashboardDao.getDashboardSnapshot(userId, recentLimit);
+    }
+
+    /**
+     * History pages, newest first (keyset pagination, see TransactionDao.getTransactionsPage):
+     * the first page, the page after the last row shown, the page before the first row shown
+     */
+    public List<TransactionWithCategory> getTransactionsPage(int userId, int pageSize) {
+        return transactionDao.getTransactionsPage(userId, pageSize);
+    }
+
+    public List<TransactionWithCategory> getTransactionsPageAfter(int userId, long afterDay, int afterId, int pageSize) {
+        return transactionDao.getTransactionsPage(userId, afterDay, afterId, pageSize);
+    }
+
+    public List<TransactionWithCategory> getTransactionsPageBefore(int userId, long beforeDay, int beforeId, int pageSize) {
+        return transactionDao.getTransactionsPageBefore(userId, beforeDay, beforeId, pageSize);
+    }
+
+    /**
+     * Filtered transactions (see TransactionQuery): the first page, newest first,
+     * and the count / sums / min / max of every matching row
+     */
+    public TransactionQueryResult queryTransactions(TransactionQuery query, int pageSize) {
+        return new TransactionQueryResult(transactionDao.queryTransactions(query, pageSize),
+                transactionDao.aggregateTransactions(query));
+    }
+
+    // next page of a filtered query, after the last row shown
+    public List<TransactionWithCategory> queryTransactionsAfter(TransactionQuery query, long afterDay, int afterId, int pageSize) {
+        return transactionDao.queryTransactions(query, afterDay, afterId, pageSize);
+    }
+
+    /**
+     * Ranked full-text search of the notes and category names, page 0 first
+     * (TransactionDao.SEARCH_PAGE_SIZE rows per page, see TransactionDao.searchTransactions)
+     */
+    public List<TransactionWithCategory> searchTransactions(int userId, String query, int page) {
+        return transactionDao.searchTransactions(userId, query, page);
+    }
+
+    /**
+     * Recompute the cached lifetime totals of a user from the transactions
+     * @return true if they had drifted (they are corrected), false if they matched or the check failed
+     */
+    public boolean reconcileTotals(int userId) {
+        Boolean drifted = dbHelper.runInTransaction(() -> rollupDao.reconcileUserTotals(userId));
+        return Boolean.TRUE.equals(drifted);
+    }
+
+    /**
+     * Recompute the rollups of a user from the transactions (repair command)
+     * @return false if the rebuild failed and was rolled back
+     */
+    public boolean rebuildRollups(int userId) {
+        Boolean rebuilt = dbHelper.runInTransaction(() -> {
+            rollupDao.rebuild(userId);
+            return Boolean.TRUE;
+        });
+        return rebuilt != null;
     }
      // delete transaction
     public Result<String> deleteTransaction(TransactionWithCategory transaction, int userId) {
-        // get the balance
-        double balance = userDao.getUserBalance(userId);
-
-        //check type if it's a income and if reducing this the balance become negative
-        // then show a proper message telling user he can't delete because
-        // the balance  become negative
+        Result<String> result = dbHelper.runInTransaction(() -> {
+            // the values the rollups and the balance counted, read before the row is gone
+            Transaction stored = transactionDao.getTransactionById(transaction.getId());
+            if (stored == null) {
+                // already deleted (a second tap): nothing is written
+                throw new IllegalStateException("Transaction " + transaction.getId() + " already deleted");
+            }
+            Money balance = userDao.getUserBalance(userId);
 
-        if (transaction.getType().equals(CategoryType.INCOME)) {
-            if(transaction.getAmount() > balance) {
-                String message = context.getString(R.string.error_insufficient_balance_amount, balance);
-                return Result.error(message);
+            //check type if it's a income and if reducing this the balance become negative
+            // then show a proper message telling user he can't delete because
+            // the balance  become negative
+            Money delta = stored.getAmount();
+            if (stored.getType().equals(CategoryType.INCOME)) {
+                if(stored.getAmount().isGreaterThan(balance)) {
+                    String message = context.getString(R.string.error_insufficient_balance_amount, balance.toDouble());
+                    return Result.error(message);
+                }
+                delta = Money.ZERO.minus(stored.getAmount());
             }
-            balance -= transaction.getAmount();
-        }else{
-            balance += transaction.getAmount();
-        }
 
-        double finalBalance = balance;
-        return dbHelper.runInTransaction(() -> {
-            userDao.updateUserBalance(userId, finalBalance);
-            int rowsAffected =  transactionDao.deleteTransaction(transaction.getId());
-            if (rowsAffected == 0) {
-                return Result.error(context.getString(R.string.error_delete_transaction_failed));
+            if (transactionDao.deleteTransaction(stored.getId()) == 0) {
+                throw new IllegalStateException("Transaction " + stored.getId() + " already deleted");
             }
+            rollupDao.removeTransaction(stored.getUserId(), stored.getCategoryId(), stored.getType(),
+                    EpochDays.parse(stored.getDate()), stored.getAmount());
+            userDao.addToUserBalance(userId, delta);
             return Result.success(context.getString(R.string.msg_transaction_deleted));
         });
-        
+        return result != null ? result : Result.error(context.getString(R.string.error_delete_transaction_failed));
+    }
+
+    // deleteTransaction() on the writer thread, the result on the main thread
+    public Future<Result<String>> deleteTransaction(TransactionWithCategory transaction, int userId,
+                                                    Callback<Result<String>> callback) {
+        return executor.write(() -> deleteTransaction(transaction, userId),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_delete_transaction_failed)));
     }
     
    
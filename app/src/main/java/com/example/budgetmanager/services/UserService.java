@@ -2,17 +2,23 @@ package com.example.budgetmanager.services;
 
 import android.content.Context;
 
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseExecutor.Callback;
 import com.example.budgetmanager.database.DatabaseHelper;
 import com.example.budgetmanager.database.dao.UserDao;
 import com.example.budgetmanager.dto.requests.UpdateUserInfoRequest;
 import com.example.budgetmanager.dto.results.Result;
 import com.example.budgetmanager.models.User;
+import com.example.budgetmanager.utils.PasswordHasher;
 import com.example.budgetmanager.R;
 
+import java.util.concurrent.Future;
+
 public class UserService {
     private UserDao userDao;
     DatabaseHelper dbHelper;
     private Context context;
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
 
 
     public UserService(UserDao userDao, DatabaseHelper dbHelper, Context context) {
@@ -43,10 +49,29 @@ public class UserService {
         });
 
     }
+
+    // updateUserProfile() on the writer thread, the result on the main thread (see DatabaseExecutor)
+    public Future<Result<String>> updateUserProfile(UpdateUserInfoRequest request, Callback<Result<String>> callback) {
+        return executor.write(() -> updateUserProfile(request),
+                DatabaseExecutor.orError(callback, context.getString(R.string.error_update_failed)));
+    }
     
     // update user password
     public Result<String> updateUserPassword(int userId, String newPassword) {
-        userDao.updateUserPassword(userId, newPassword);
+        return savePasswordHash(userId, PasswordHasher.hash(newPassword));
+    }
+
+    // hashes on the hashing thread (BCrypt, 100ms+), then writes on the writer thread,
+    // the result on the main thread; cancel(true) during the hash: the password is not changed
+    public Future<Result<String>> updateUserPassword(int userId, String newPassword, Callback<Result<String>> callback) {
+        return executor.compute(() -> {
+            String passwordHash = PasswordHasher.hash(newPassword);
+            return executor.writeAndWait(() -> savePasswordHash(userId, passwordHash));
+        }, DatabaseExecutor.orError(callback, context.getString(R.string.error_update_password_failed)));
+    }
+
+    private Result<String> savePasswordHash(int userId, String passwordHash) {
+        userDao.updateUserPassword(userId, passwordHash);
         return Result.success(context.getString(R.string.msg_password_updated));
     }
 }
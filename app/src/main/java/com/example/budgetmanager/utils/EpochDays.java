@@ -0,0 +1,162 @@
+package com.example.budgetmanager.utils;
+
+import java.util.TimeZone;
+
+/**
+ * EPOCH DAYS - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * A transaction date is stored as an "epoch day": the number of days since 1970-01-01.
+ * Integers compare, sort and index naturally, so "this month" becomes a range
+ * (day >= first AND day < next) that SQLite answers with an index range scan
+ * instead of parsing every date string of the ledger in Java.
+ *
+ * KEY DESIGN DECISIONS:
+ * - Plain arithmetic (civil calendar ↔ day count) instead of java.time:
+ *   java.time needs API 26 and the app supports API 24 without desugaring.
+ * - Ranges are half-open [from, to): the end of a month is the first day of the next one.
+ * - The text column keeps the normalized "yyyy-MM-dd" for display.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - Conversion formulas: H. Hinnant's days_from_civil / civil_from_days,
+ *   they shift the year to start in March so February (variable length) is the last month.
+ */
+public final class EpochDays {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private EpochDays() {
+    }
+
+    /**
+     * Epoch day of a calendar date (month 1-12)
+     */
+    public static long of(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Calendar date of an epoch day
+     * @return {year, month (1-12), day}
+     */
+    public static int[] toDate(long epochDay) {
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return new int[]{year, month, day};
+    }
+
+    /**
+     * Parse "yyyy-MM-dd" (app format) or "dd-MM-yyyy" (older rows)
+     * @throws IllegalArgumentException if the text is not a valid date
+     */
+    public static long parse(String date) {
+        if (date == null || date.length() != 10) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        int year, month, day;
+        if (date.charAt(4) == '-' && date.charAt(7) == '-') {
+            year = parseDigits(date, 0, 4);
+            month = parseDigits(date, 5, 7);
+            day = parseDigits(date, 8, 10);
+        } else if (date.charAt(2) == '-' && date.charAt(5) == '-') {
+            day = parseDigits(date, 0, 2);
+            month = parseDigits(date, 3, 5);
+            year = parseDigits(date, 6, 10);
+        } else {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        return of(year, month, day);
+    }
+
+    /**
+     * Format as "yyyy-MM-dd" (ASCII digits whatever the locale)
+     */
+    public static String format(long epochDay) {
+        int[] date = toDate(epochDay);
+        char[] out = new char[10];
+        writeDigits(out, 0, 4, date[0]);
+        out[4] = '-';
+        writeDigits(out, 5, 7, date[1]);
+        out[7] = '-';
+        writeDigits(out, 8, 10, date[2]);
+        return new String(out);
+    }
+
+    // today in the device time zone
+    public static long today() {
+        long now = System.currentTimeMillis();
+        return Math.floorDiv(now + TimeZone.getDefault().getOffset(now), MILLIS_PER_DAY);
+    }
+
+    // first day of the month containing epochDay
+    public static long startOfMonth(long epochDay) {
+        int[] date = toDate(epochDay);
+        return of(date[0], date[1], 1);
+    }
+
+    // first day of the following month (exclusive end of the month range)
+    public static long startOfNextMonth(long epochDay) {
+        int[] date = toDate(epochDay);
+        return date[1] == 12 ? of(date[0] + 1, 1, 1) : of(date[0], date[1] + 1, 1);
+    }
+
+    // monday of the week containing epochDay (1970-01-01 was a thursday)
+    public static long startOfWeek(long epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    // month key yyyyMM (e.g. 202510) of the month containing epochDay, the key of monthly_totals
+    public static int yearMonth(long epochDay) {
+        int[] date = toDate(epochDay);
+        return date[0] * 100 + date[1];
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid date: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] out, int start, int end, int value) {
+        for (int i = end - 1; i >= start; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
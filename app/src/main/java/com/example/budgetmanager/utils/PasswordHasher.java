@@ -0,0 +1,27 @@
+package com.example.budgetmanager.utils;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+
+/**
+ * PASSWORD HASHER - the BCrypt hash / check of the user passwords, in one place
+ *
+ * Each call costs 100ms or more on a low-end device (that is the point of BCrypt):
+ * never call it on the main thread, the services run it on DatabaseExecutor.compute().
+ * The DAOs only store the hash they are given.
+ */
+public final class PasswordHasher {
+
+    // cost factor (log_rounds), 2^10 rounds
+    private static final int COST = 10;
+
+    private PasswordHasher() {
+    }
+
+    public static String hash(String password) {
+        return BCrypt.withDefaults().hashToString(COST, password.toCharArray());
+    }
+
+    public static boolean verify(String password, String hash) {
+        return BCrypt.verifyer().verify(password.toCharArray(), hash).verified;
+    }
+}
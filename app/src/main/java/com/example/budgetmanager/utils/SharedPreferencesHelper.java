@@ -20,6 +20,7 @@ import java.util.Locale;
       _ current logged-in user id
       _ selected language
       _ selected theme
+      _ resume point of an interrupted CSV import
  *
  * KEY DESIGN DECISIONS:
  * keep only one file for the shared preferences
@@ -51,6 +52,8 @@ public class SharedPreferencesHelper {
     private static final String KEY_USER_ID = "user_id";
     private static final String LANGUAGE_KEY = "selected_language";
     private static final String THEME_KEY = "theme_mode";
+    // + the user id and the import source
+    private static final String IMPORT_CHECKPOINT_KEY_PREFIX = "import_checkpoint_";
 
     // Language constants
     public static final String ENGLISH = "en";
@@ -84,6 +87,14 @@ public class SharedPreferencesHelper {
         return preferences.getString(key, defaultValue);
     }
     
+    private void setLong(String key, long value) {
+        preferences.edit().putLong(key, value).apply();
+    }
+
+    private long getLong(String key, long defaultValue) {
+        return preferences.getLong(key, defaultValue);
+    }
+
     private void remove(String key) {
         preferences.edit().remove(key).apply();
     }
@@ -290,6 +301,38 @@ public class SharedPreferencesHelper {
         }
     }
 
+    /**
+     * IMPORT CHECKPOINT MANAGER - resume point of an interrupted CSV import
+     * (file offset after the last committed batch, per user and source uri)
+     */
+    public static class ImportCheckpointManager {
+        private SharedPreferencesHelper prefs;
+
+        public ImportCheckpointManager(SharedPreferencesHelper prefs) {
+            this.prefs = prefs;
+        }
+
+        public void saveCheckpoint(int userId, String source, long offset) {
+            prefs.setLong(key(userId, source), offset);
+        }
+
+        /**
+         * @return the offset to resume from, 0 to start from the beginning
+         */
+        public long getCheckpoint(int userId, String source) {
+            return prefs.getLong(key(userId, source), 0);
+        }
+
+        // the import finished, the next one of this source starts over
+        public void clearCheckpoint(int userId, String source) {
+            prefs.remove(key(userId, source));
+        }
+
+        private static String key(int userId, String source) {
+            return IMPORT_CHECKPOINT_KEY_PREFIX + userId + "_" + source;
+        }
+    }
+
     /**
      * UTILITY METHODS
      */
@@ -0,0 +1,55 @@
+package com.example.budgetmanager.viewmodels;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.models.Category;
+import com.example.budgetmanager.repositories.CategoryRepository;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * CATEGORIES VIEW MODEL - the categories grid of CategoriesActivity as LiveData,
+ * read through CategoryRepository (same rules as DashboardViewModel)
+ */
+public class CategoriesViewModel extends AndroidViewModel {
+    private final CategoryRepository categoryRepository;
+    private final MutableLiveData<List<Category>> categories = new MutableLiveData<>();
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+    private Future<List<Category>> pendingLoad;
+
+    public CategoriesViewModel(@NonNull Application application) {
+        super(application);
+        categoryRepository = CategoryRepository.getInstance(application);
+    }
+
+    public LiveData<List<Category>> getCategories() {
+        return categories;
+    }
+
+    // reads on a reader thread, posts only a list that changed since the last one
+    public void refresh(int userId) {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        pendingLoad = executor.read(() -> categoryRepository.getCategories(userId), latest -> {
+            pendingLoad = null;
+            if (latest != categories.getValue()) {
+                categories.setValue(latest);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+    }
+}
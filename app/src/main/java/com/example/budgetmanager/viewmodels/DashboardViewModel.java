@@ -0,0 +1,77 @@
+package com.example.budgetmanager.viewmodels;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.dto.DashboardSnapshot;
+import com.example.budgetmanager.repositories.TransactionRepository;
+
+import java.util.concurrent.Future;
+
+/**
+ * DASHBOARD VIEW MODEL - DEVELOPER GUIDE
+ *
+ * HIGH-LEVEL EXPLANATION:
+ * Holds the dashboard of MainActivity as LiveData. The activity observes it and renders
+ * every value it gets, and asks for a refresh() in onResume().
+ *
+ * KEY DESIGN DECISIONS:
+ * - Survives configuration changes and recreate() (language / theme): the new activity gets the
+ *   last snapshot as soon as it observes, it renders without reading the database.
+ * - refresh() goes through TransactionRepository: the same snapshot object comes back while
+ *   nothing was written, and is not posted again (no re-render, no query).
+ * - The read runs on a DatabaseExecutor reader, the value is set on the main thread.
+ *   A newer refresh() cancels the one still running, onCleared() the last one.
+ *
+ * LOW-LEVEL CONCEPTS REFERENCE:
+ * - AndroidViewModel: a ViewModel given the Application, kept in the activity's ViewModelStore
+ *   across its recreations, cleared when the activity finishes for good
+ * - LiveData: delivers its last value to each new observer, only while that observer is started
+ */
+public class DashboardViewModel extends AndroidViewModel {
+    private final TransactionRepository transactionRepository;
+    private final MutableLiveData<DashboardSnapshot> dashboard = new MutableLiveData<>();
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+    private Future<DashboardSnapshot> pendingLoad;
+
+    public DashboardViewModel(@NonNull Application application) {
+        super(application);
+        transactionRepository = TransactionRepository.getInstance(application);
+    }
+
+    public LiveData<DashboardSnapshot> getDashboard() {
+        return dashboard;
+    }
+
+    /**
+     * Read the dashboard again (from the repository cache if nothing changed), in the background
+     * @param onUserMissing main thread, called instead if the user doesn't exist
+     */
+    public void refresh(int userId, int recentLimit, Runnable onUserMissing) {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        pendingLoad = executor.read(
+                () -> transactionRepository.getDashboardSnapshot(userId, recentLimit),
+                snapshot -> {
+                    pendingLoad = null;
+                    if (snapshot == null) {
+                        onUserMissing.run();
+                    } else if (snapshot != dashboard.getValue()) {
+                        dashboard.setValue(snapshot);
+                    }
+                });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+    }
+}
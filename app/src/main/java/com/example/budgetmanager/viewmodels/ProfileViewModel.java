@@ -0,0 +1,333 @@
+package com.example.budgetmanager.viewmodels;
+
+import android.app.Application;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.DocumentsContract;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.budgetmanager.R;
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper;
+import com.example.budgetmanager.database.dao.CategoryDao;
+import com.example.budgetmanager.database.dao.TransactionDao;
+import com.example.budgetmanager.database.dao.UserDao;
+import com.example.budgetmanager.dto.ImportProgress;
+import com.example.budgetmanager.dto.results.Result;
+import com.example.budgetmanager.importexport.CsvTransactionImporter;
+import com.example.budgetmanager.importexport.LedgerBackup;
+import com.example.budgetmanager.importexport.TransactionExporter;
+import com.example.budgetmanager.importexport.TransactionExporter.Format;
+import com.example.budgetmanager.models.User;
+import com.example.budgetmanager.repositories.UserRepository;
+import com.example.budgetmanager.services.TransactionService;
+import com.example.budgetmanager.utils.SharedPreferencesHelper;
+import com.example.budgetmanager.utils.SharedPreferencesHelper.ImportCheckpointManager;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.Future;
+
+/**
+ * PROFILE VIEW MODEL - the user shown by ProfileActivity as LiveData,
+ * read through UserRepository (same rules as DashboardViewModel)
+ *
+ * Also runs the data jobs of the DATA section (CSV import, exports, backup, restore) on the
+ * file thread of DatabaseExecutor, their state is the DataJob LiveData: a rotation doesn't
+ * interrupt them, the new activity shows their progress and their outcome.
+ * One job at a time. Leaving the screen for good (onCleared) cancels the running one:
+ * an import stops after its current batch (checkpoint kept), an export / backup deletes its partial file.
+ * The messages are built with the context of the screen that started the job (its language).
+ */
+public class ProfileViewModel extends AndroidViewModel {
+
+    /**
+     * A data job: running (its progress), or finished (its outcome, until the screen showed it)
+     */
+    public static final class DataJob {
+        public enum Kind { IMPORT, EXPORT_CSV, EXPORT_JSON, BACKUP, RESTORE }
+
+        private final Kind kind;
+        private final String progress;
+        private final Result<String> outcome;
+
+        DataJob(Kind kind, String progress, Result<String> outcome) {
+            this.kind = kind;
+            this.progress = progress;
+            this.outcome = outcome;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getProgress() { return progress; }
+        public Result<String> getOutcome() { return outcome; } // null while running
+        public boolean isRunning() { return outcome == null; }
+    }
+
+    private final UserRepository userRepository;
+    private final MutableLiveData<User> user = new MutableLiveData<>();
+    private final MutableLiveData<DataJob> dataJob = new MutableLiveData<>();
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+    private final DatabaseHelper dbHelper;
+    private final ContentResolver contentResolver;
+    private final ImportCheckpointManager importCheckpointManager;
+    private Future<User> pendingLoad;
+    private Future<Result<String>> pendingJob;
+    private Context jobContext; // messages of the running job
+
+    public ProfileViewModel(@NonNull Application application) {
+        super(application);
+        userRepository = UserRepository.getInstance(application);
+        dbHelper = DatabaseHelper.getInstance(application);
+        contentResolver = application.getContentResolver();
+        importCheckpointManager = new ImportCheckpointManager(new SharedPreferencesHelper(application));
+    }
+
+    // shared with the repository cache, read only
+    public LiveData<User> getUser() {
+        return user;
+    }
+
+    /**
+     * Read the user again on a reader thread, call after a profile update or a restore
+     * @param onUserMissing main thread, called instead if the user doesn't exist
+     */
+    public void refresh(int userId, Runnable onUserMissing) {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        pendingLoad = executor.read(() -> userRepository.getUser(userId), latest -> {
+            pendingLoad = null;
+            if (latest == null) {
+                onUserMissing.run();
+            } else if (latest != user.getValue()) {
+                user.setValue(latest);
+            }
+        });
+    }
+
+    // === DATA JOBS ===
+
+    // the running / finished data job, null when idle
+    public LiveData<DataJob> getDataJob() {
+        return dataJob;
+    }
+
+    public boolean isDataJobRunning() {
+        return pendingJob != null;
+    }
+
+    // the screen showed the outcome of the finished job
+    public void dataJobShown() {
+        if (pendingJob == null) {
+            dataJob.setValue(null);
+        }
+    }
+
+    // cancel the running job (export row tapped again), its partial file is deleted
+    public void cancelDataJob() {
+        DataJob job = dataJob.getValue();
+        if (pendingJob != null && job != null) {
+            pendingJob.cancel(true);
+            pendingJob = null;
+            dataJob.setValue(new DataJob(job.getKind(), "",
+                    Result.error(jobContext.getString(R.string.error_export_cancelled))));
+        }
+    }
+
+    /**
+     * Import the picked CSV file
+     * (resumes from the saved checkpoint if an earlier import of this file was interrupted)
+     */
+    public void importCsv(Uri uri, int userId, Context screen) {
+        Context context = messagesContext(screen);
+        String source = uri.toString();
+        long startOffset = importCheckpointManager.getCheckpoint(userId, source);
+        TransactionService transactionService = new TransactionService(new TransactionDao(dbHelper), dbHelper,
+                new UserDao(dbHelper), context);
+        CsvTransactionImporter importer = new CsvTransactionImporter(transactionService, new CategoryDao(dbHelper), context);
+
+        startJob(DataJob.Kind.IMPORT, context, () -> {
+            Result<ImportProgress> result;
+            try (InputStream in = contentResolver.openInputStream(uri)) {
+                result = importer.importCsv(in, sourceSize(uri), startOffset, userId, progress -> {
+                    importCheckpointManager.saveCheckpoint(userId, source, progress.getCheckpointOffset());
+                    int percent = progress.getPercent();
+                    postProgress(DataJob.Kind.IMPORT, percent >= 0
+                            ? String.format(Locale.US, "%d%%", percent)
+                            : String.format(Locale.US, "%d", progress.getRowsRead()));
+                });
+            } catch (IOException e) {
+                e.printStackTrace();
+                result = Result.error(context.getString(R.string.error_import_failed, e.getMessage()));
+            }
+
+            if (!result.isSuccess()) {
+                return Result.error(result.getError());
+            }
+            // done, importing this file again starts over
+            importCheckpointManager.clearCheckpoint(userId, source);
+
+            ImportProgress progress = result.getData();
+            String message = String.format(Locale.US, context.getString(R.string.msg_import_done),
+                    progress.getRowsImported(), progress.getRowsSkipped(), progress.getRowsPerSecond());
+            if (progress.getFirstError() != null) {
+                message += "\n" + progress.getFirstError();
+            }
+            return Result.success(message);
+        });
+    }
+
+    /**
+     * Stream the ledger to the created document, deleted if the export fails or is cancelled
+     */
+    public void exportTransactions(Uri uri, Format format, boolean gzip, int userId, Context screen) {
+        Context context = messagesContext(screen);
+        TransactionExporter exporter = new TransactionExporter(new TransactionDao(dbHelper), context);
+        DataJob.Kind kind = format == Format.CSV ? DataJob.Kind.EXPORT_CSV : DataJob.Kind.EXPORT_JSON;
+
+        startJob(kind, context, () -> {
+            Result<Long> result;
+            try (OutputStream out = contentResolver.openOutputStream(uri)) {
+                result = exporter.export(userId, out, format, gzip,
+                        rows -> postProgress(kind, String.format(Locale.US, "%d", rows)));
+            } catch (IOException e) {
+                e.printStackTrace();
+                result = Result.error(context.getString(R.string.error_export_failed, e.getMessage()));
+            }
+
+            if (!result.isSuccess()) {
+                // no half written export left behind
+                deleteDocument(uri);
+                return Result.error(result.getError());
+            }
+            return Result.success(String.format(Locale.US, context.getString(R.string.msg_export_done), result.getData()));
+        });
+    }
+
+    /**
+     * Write the binary backup to the created document
+     */
+    public void backup(Uri uri, int userId, Context screen) {
+        Context context = messagesContext(screen);
+        LedgerBackup ledgerBackup = new LedgerBackup(dbHelper, context);
+
+        startJob(DataJob.Kind.BACKUP, context, () -> {
+            Result<Long> result;
+            try (ParcelFileDescriptor descriptor = openDescriptor(uri, "w");
+                 FileOutputStream out = new FileOutputStream(descriptor.getFileDescriptor())) {
+                result = ledgerBackup.backup(userId, out.getChannel());
+            } catch (IOException e) {
+                e.printStackTrace();
+                result = Result.error(context.getString(R.string.error_backup_failed, e.getMessage()));
+            }
+
+            if (!result.isSuccess()) {
+                deleteDocument(uri);
+                return Result.error(result.getError());
+            }
+            return Result.success(String.format(Locale.US, context.getString(R.string.msg_backup_done), result.getData()));
+        });
+    }
+
+    /**
+     * Replace the ledger with the picked backup
+     */
+    public void restore(Uri uri, int userId, Context screen) {
+        Context context = messagesContext(screen);
+        LedgerBackup ledgerBackup = new LedgerBackup(dbHelper, context);
+
+        startJob(DataJob.Kind.RESTORE, context, () -> {
+            Result<Long> result;
+            try (ParcelFileDescriptor descriptor = openDescriptor(uri, "r");
+                 FileInputStream in = new FileInputStream(descriptor.getFileDescriptor())) {
+                result = ledgerBackup.restore(userId, in.getChannel());
+            } catch (IOException e) {
+                e.printStackTrace();
+                result = Result.error(context.getString(R.string.error_backup_failed, e.getMessage()));
+            }
+
+            if (!result.isSuccess()) {
+                return Result.error(result.getError());
+            }
+            return Result.success(String.format(Locale.US, context.getString(R.string.msg_restore_done), result.getData()));
+        });
+    }
+
+    private void startJob(DataJob.Kind kind, Context context, DatabaseExecutor.Work<Result<String>> work) {
+        jobContext = context;
+        dataJob.setValue(new DataJob(kind, "", null));
+        pendingJob = executor.file(work, new DatabaseExecutor.Callback<Result<String>>() {
+            @Override
+            public void onResult(Result<String> outcome) {
+                pendingJob = null;
+                dataJob.setValue(new DataJob(kind, "", outcome));
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                error.printStackTrace();
+                onResult(Result.error(String.valueOf(error.getMessage())));
+            }
+        });
+    }
+
+    // file thread → main thread, a cancelled job doesn't overwrite the next one
+    private void postProgress(DataJob.Kind kind, String progress) {
+        if (!Thread.currentThread().isInterrupted()) {
+            dataJob.postValue(new DataJob(kind, progress, null));
+        }
+    }
+
+    // the application with the configuration (language) of the screen, without holding the screen
+    private Context messagesContext(Context screen) {
+        return getApplication().createConfigurationContext(screen.getResources().getConfiguration());
+    }
+
+    // size of the picked document, -1 if the provider doesn't know it
+    private long sourceSize(Uri uri) {
+        try (AssetFileDescriptor descriptor = contentResolver.openAssetFileDescriptor(uri, "r")) {
+            return descriptor == null ? -1 : descriptor.getLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private ParcelFileDescriptor openDescriptor(Uri uri, String mode) throws FileNotFoundException {
+        ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, mode);
+        if (descriptor == null) {
+            throw new FileNotFoundException(uri.toString());
+        }
+        return descriptor;
+    }
+
+    private void deleteDocument(Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(contentResolver, uri);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+        }
+        // the screen is gone for good (a rotation keeps this view model and its job)
+        if (pendingJob != null) {
+            pendingJob.cancel(true);
+        }
+    }
+}
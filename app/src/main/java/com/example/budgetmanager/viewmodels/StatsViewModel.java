@@ -0,0 +1,117 @@
+package com.example.budgetmanager.viewmodels;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.budgetmanager.database.DatabaseExecutor;
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.dto.CategoryTotal;
+import com.example.budgetmanager.dto.MonthlyTotal;
+import com.example.budgetmanager.repositories.ChartRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * STATS VIEW MODEL - the two charts of StatsActivity as LiveData, read through ChartRepository
+ * (same rules as DashboardViewModel, reads on DatabaseExecutor readers). Also keeps the selected
+ * type (income / expense), so a rotation shows the same pie chart; the totals of a type that is
+ * no longer selected when they arrive are dropped.
+ * A failed read shows "no data" (empty list) like before, the error is only logged.
+ */
+public class StatsViewModel extends AndroidViewModel {
+    private final ChartRepository chartRepository;
+    private final MutableLiveData<List<CategoryTotal>> categoryTotals = new MutableLiveData<>();
+    private final MutableLiveData<List<MonthlyTotal>> dailyTotals = new MutableLiveData<>();
+    private final DatabaseExecutor executor = DatabaseExecutor.getInstance();
+    private String chartType = CategoryType.EXPENSE;
+    private Future<List<CategoryTotal>> pendingCategoryTotals;
+    private Future<List<MonthlyTotal>> pendingDailyTotals;
+
+    public StatsViewModel(@NonNull Application application) {
+        super(application);
+        chartRepository = ChartRepository.getInstance(application);
+    }
+
+    // totals per category of getChartType()
+    public LiveData<List<CategoryTotal>> getCategoryTotals() {
+        return categoryTotals;
+    }
+
+    // one entry per day of the current month
+    public LiveData<List<MonthlyTotal>> getDailyTotals() {
+        return dailyTotals;
+    }
+
+    public String getChartType() {
+        return chartType;
+    }
+
+    /**
+     * Show the other type in the pie chart
+     */
+    public void setChartType(int userId, String type) {
+        chartType = type;
+        loadCategoryTotals(userId);
+    }
+
+    public void refresh(int userId) {
+        loadCategoryTotals(userId);
+
+        if (pendingDailyTotals != null) {
+            pendingDailyTotals.cancel(false);
+        }
+        pendingDailyTotals = executor.read(() -> {
+            try {
+                return chartRepository.getDailyTotalsCurrentMonth(userId);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return Collections.<MonthlyTotal>emptyList();
+            }
+        }, latest -> {
+            pendingDailyTotals = null;
+            if (latest != dailyTotals.getValue()) {
+                dailyTotals.setValue(latest);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pendingCategoryTotals != null) {
+            pendingCategoryTotals.cancel(false);
+        }
+        if (pendingDailyTotals != null) {
+            pendingDailyTotals.cancel(false);
+        }
+    }
+
+    private void loadCategoryTotals(int userId) {
+        if (pendingCategoryTotals != null) {
+            pendingCategoryTotals.cancel(false);
+        }
+        String type = chartType;
+        pendingCategoryTotals = executor.read(() -> {
+            try {
+                return chartRepository.getCategoryTotals(userId, type);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return Collections.<CategoryTotal>emptyList();
+            }
+        }, latest -> {
+            pendingCategoryTotals = null;
+            // the user switched type again while this one was loading
+            if (!type.equals(chartType)) {
+                return;
+            }
+            if (latest != categoryTotals.getValue()) {
+                categoryTotals.setValue(latest);
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.budgetmanager.database.dao;
+
+import android.database.MatrixCursor;
+
+import com.example.budgetmanager.dto.TransactionWithCategory;
+import com.example.budgetmanager.models.User;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * RowMappers: each listed column lands in its field, whatever the column order of the query
+ */
+public class RowMappersTest {
+
+    @Test
+    public void userColumnsFoundByName() {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"balance_cents", "password", "email", "name", "id"});
+        cursor.addRow(new Object[]{123456L, "hash", "a@b.c", "Ana", 7});
+        cursor.moveToFirst();
+
+        User user = RowMappers.USER.columns(cursor).read(cursor);
+
+        assertEquals(7, user.getId());
+        assertEquals("Ana", user.getName());
+        assertEquals("a@b.c", user.getEmail());
+        assertEquals("hash", user.getPassword());
+        assertEquals(123456L, user.getBalance().getCents());
+    }
+
+    @Test
+    public void transactionWithCategoryReadsEveryRowWithTheSameIndexes() {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"category_icon", "id", "amount_cents", "type", "note",
+                "date", "day", "category_id", "category_name", "user_id"});
+        cursor.addRow(new Object[]{"ic_food", 1, 1235L, "expense", "Lunch", "2024-03-05", 19787L, 3, "Food", 1});
+        cursor.addRow(new Object[]{"ic_salary", 2, 200000L, "income", null, "2024-03-01", 19783L, 4, "Salary", 1});
+
+        RowMapper.Reader<TransactionWithCategory> reader = RowMappers.TRANSACTION_WITH_CATEGORY.columns(cursor);
+        cursor.moveToFirst();
+        TransactionWithCategory lunch = reader.read(cursor);
+        cursor.moveToNext();
+        TransactionWithCategory salary = reader.read(cursor);
+
+        assertEquals(1, lunch.getId());
+        assertEquals(1235L, lunch.getAmount().getCents());
+        assertEquals("Lunch", lunch.getNote());
+        assertEquals(19787L, lunch.getDay());
+        assertEquals("Food", lunch.getCategoryName());
+        assertEquals("ic_food", lunch.getCategoryIcon());
+        assertEquals(4, salary.getCategoryId());
+        assertNull(salary.getNote());
+        assertEquals("income", salary.getType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingColumnFailsOnce() {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"id", "name"});
+        RowMappers.USER.columns(cursor);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.budgetmanager.database.dao;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TransactionDao.toMatchQuery: what the user types in the search box → FTS MATCH expression
+ */
+public class TransactionDaoTest {
+
+    @Test
+    public void everyWordBecomesAPrefixTerm() {
+        assertEquals("dent*", TransactionDao.toMatchQuery("dent"));
+        assertEquals("Lunch* with* Bob*", TransactionDao.toMatchQuery("  Lunch with   Bob "));
+        assertEquals("2024* 03*", TransactionDao.toMatchQuery("2024-03"));
+    }
+
+    @Test
+    public void queryOperatorsAndQuotesAreSeparators() {
+        assertEquals("rent* OR* food*", TransactionDao.toMatchQuery("\"rent\" OR food"));
+        assertEquals("a* b* c* d* e*", TransactionDao.toMatchQuery("a*b-c^d:(e)"));
+        assertEquals("note* NEAR* 3* x*", TransactionDao.toMatchQuery("note NEAR/3 x"));
+        // a keyword followed by * is a prefix term, never an operator
+        assertEquals("a* AND* NOT* b*", TransactionDao.toMatchQuery("a AND NOT b"));
+    }
+
+    @Test
+    public void nonAsciiCharactersStayInTheWord() {
+        assertEquals("café* déjeuner*", TransactionDao.toMatchQuery("café, déjeuner"));
+        assertEquals("مطعم*", TransactionDao.toMatchQuery("مطعم"));
+        assertEquals("世界*", TransactionDao.toMatchQuery("世界!"));
+    }
+
+    @Test
+    public void nothingToSearch() {
+        assertEquals("", TransactionDao.toMatchQuery(null));
+        assertEquals("", TransactionDao.toMatchQuery(""));
+        assertEquals("", TransactionDao.toMatchQuery("  \"*\" - () "));
+    }
+}
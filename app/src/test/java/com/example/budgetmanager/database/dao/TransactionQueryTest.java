@@ -0,0 +1,140 @@
+package com.example.budgetmanager.database.dao;
+
+import com.example.budgetmanager.database.DatabaseHelper.CategoryType;
+import com.example.budgetmanager.database.DatabaseHelper.IndexName;
+import com.example.budgetmanager.models.Money;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TransactionQuery: the index pages and totals are forced to, and the WHERE clause
+ * with its values in placeholder order
+ */
+public class TransactionQueryTest {
+    private static final long MARCH_1_2024 = 19783;
+
+    @Test
+    public void pagesAlwaysReadTheUserDayIndex() {
+        long wide = MARCH_1_2024 + TransactionQuery.NARROW_RANGE_DAYS + 1;
+        for (TransactionQuery query : Arrays.asList(
+                builder().build(),
+                builder().categories(Arrays.asList(3, 7)).build(),
+                builder().type(CategoryType.EXPENSE).build(),
+                builder().dayRange(MARCH_1_2024, wide).categories(Arrays.asList(3)).type(CategoryType.INCOME).build(),
+                builder().dayRange(MARCH_1_2024, MARCH_1_2024 + 7).type(CategoryType.EXPENSE).build())) {
+            assertEquals(IndexName.TRANSACTIONS_USER_DAY, query.pageIndexName());
+        }
+    }
+
+    @Test
+    public void narrowDayRangeUsesADayIndex() {
+        long to = MARCH_1_2024 + TransactionQuery.NARROW_RANGE_DAYS;
+        assertEquals(IndexName.TRANSACTIONS_USER_DAY,
+                builder().dayRange(MARCH_1_2024, to).categories(Arrays.asList(3, 7)).build().aggregateIndexName());
+        assertEquals(IndexName.TRANSACTIONS_USER_TYPE_DAY_AMOUNT,
+                builder().dayRange(MARCH_1_2024, to).type(CategoryType.EXPENSE).categories(Arrays.asList(3)).build().aggregateIndexName());
+    }
+
+    @Test
+    public void wideOrOpenRangeFallsToCategoriesThenType() {
+        long wide = MARCH_1_2024 + TransactionQuery.NARROW_RANGE_DAYS + 1;
+        assertEquals(IndexName.TRANSACTIONS_CATEGORY_AMOUNT,
+                builder().dayRange(MARCH_1_2024, wide).categories(Arrays.asList(3)).type(CategoryType.EXPENSE).build().aggregateIndexName());
+        assertEquals(IndexName.TRANSACTIONS_CATEGORY_AMOUNT,
+                builder().dayRange(MARCH_1_2024, null).categories(Arrays.asList(3)).build().aggregateIndexName());
+        assertEquals(IndexName.TRANSACTIONS_USER_TYPE_DAY_AMOUNT,
+                builder().dayRange(null, MARCH_1_2024).type(CategoryType.INCOME).build().aggregateIndexName());
+        assertEquals(IndexName.TRANSACTIONS_USER_DAY,
+                builder().dayRange(MARCH_1_2024, wide).amountRange(Money.ofCents(100), null).build().aggregateIndexName());
+        assertEquals(IndexName.TRANSACTIONS_USER_DAY, builder().build().aggregateIndexName());
+    }
+
+    @Test
+    public void emptyCategoriesMeanEveryCategory() {
+        TransactionQuery query = builder().categories(Arrays.asList(3)).categories(Collections.emptyList()).build();
+
+        assertEquals(IndexName.TRANSACTIONS_USER_DAY, query.aggregateIndexName());
+        assertFalse(where(query, new ArrayList<>()).contains(" IN ("));
+    }
+
+    @Test
+    public void userOnlyWhere() {
+        List<String> args = new ArrayList<>();
+        assertEquals("WHERE t.user_id = ? ", where(builder().build(), args));
+        assertEquals(Collections.singletonList("1"), args);
+    }
+
+    @Test
+    public void everyFilterBindsItsValuesInOrder() {
+        TransactionQuery query = builder()
+                .dayRange(MARCH_1_2024, MARCH_1_2024 + 31)
+                .type(CategoryType.EXPENSE)
+                .categories(Arrays.asList(7, 3, 7))
+                .amountRange(Money.ofCents(1000), Money.ofCents(250000))
+                .noteContains("  rent  ")
+                .build();
+        List<String> args = new ArrayList<>();
+        String sql = where(query, args);
+
+        assertEquals("WHERE t.user_id = ? AND t.type = ? AND t.day >= ? AND t.day < ? " +
+                "AND t.category_id IN (?, ?) AND t.amount_cents >= ? AND t.amount_cents <= ? " +
+                "AND t.note LIKE ? ESCAPE '\\' ", sql);
+        assertEquals(Arrays.asList("1", CategoryType.EXPENSE, "19783", "19814", "7", "3", "1000", "250000", "%rent%"), args);
+        assertEquals(countPlaceholders(sql), args.size());
+        // values are bound, never in the statement
+        assertFalse(sql.contains("rent"));
+    }
+
+    @Test
+    public void likeWildcardsTypedByTheUserAreEscaped() {
+        List<String> args = new ArrayList<>();
+        where(builder().noteContains("50%_off\\x").build(), args);
+
+        assertEquals("%50\\%\\_off\\\\x%", args.get(args.size() - 1));
+    }
+
+    @Test
+    public void blankNoteIsNoFilter() {
+        for (String note : new String[]{null, "", "   "}) {
+            TransactionQuery query = builder().noteContains(note).build();
+            assertNull(query.getNoteContains());
+            assertFalse(where(query, new ArrayList<>()).contains("LIKE"));
+        }
+    }
+
+    @Test
+    public void builtQueryIsImmutable() {
+        List<Integer> categories = new ArrayList<>(Arrays.asList(3));
+        TransactionQuery query = builder().categories(categories).build();
+        categories.add(7);
+
+        assertEquals(Collections.singleton(3), query.getCategoryIds());
+        try {
+            query.getCategoryIds().add(7);
+            fail("category set is mutable");
+        } catch (UnsupportedOperationException expected) {
+            // immutable
+        }
+    }
+
+    private static TransactionQuery.Builder builder() {
+        return new TransactionQuery.Builder(1);
+    }
+
+    private static String where(TransactionQuery query, List<String> args) {
+        StringBuilder sql = new StringBuilder();
+        query.appendWhere(sql, args);
+        return sql.toString();
+    }
+
+    private static int countPlaceholders(String sql) {
+        return sql.length() - sql.replace("?", "").length();
+    }
+}
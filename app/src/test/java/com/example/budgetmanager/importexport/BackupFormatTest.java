@@ -0,0 +1,254 @@
+package com.example.budgetmanager.importexport;
+
+import com.example.budgetmanager.importexport.BackupReader.CorruptBackupException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * BackupWriter → BackupReader round trip, and the damaged files the reader must reject
+ * with the index of the bad block
+ */
+public class BackupFormatTest {
+    private static final long[] UNSIGNED = {0, 1, 127, 128, 300, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE};
+    private static final long[] SIGNED = {0, -1, 1, -64, 64, -12_345, 19_787, Long.MIN_VALUE, Long.MAX_VALUE};
+    // kind, count, length, a 1 byte payload (block count < 128), crc
+    private static final int END_BLOCK_BYTES = 1 + 1 + 1 + 1 + 4;
+
+    @Test
+    public void varintsStringsAndBlocksRoundTrip() throws IOException {
+        byte[] file = sampleBackup();
+
+        BackupReader reader = new BackupReader(ByteBuffer.wrap(file));
+        assertEquals(BackupWriter.BLOCK_USER, reader.nextBlock());
+        assertEquals(1, reader.getRecordCount());
+        for (long value : UNSIGNED) {
+            assertEquals(value, reader.readVarint());
+        }
+        for (long value : SIGNED) {
+            assertEquals(value, reader.readSignedVarint());
+        }
+        assertNull(reader.readString());
+        assertEquals("", reader.readString());
+        assertEquals("Café مرحبا 世界", reader.readString());
+        assertEquals(0xAB, reader.readByte());
+        reader.endBlock();
+
+        assertEquals(BackupWriter.BLOCK_TRANSACTIONS, reader.nextBlock());
+        assertEquals(20_000, reader.getRecordCount());
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(i, reader.readVarint());
+            assertEquals("note " + i, reader.readString());
+        }
+        reader.endBlock();
+
+        assertEquals(BackupWriter.BLOCK_END, reader.nextBlock());
+        assertEquals(2, reader.getBlockIndex());
+
+        // second pass of a verified file
+        reader.rewind();
+        assertEquals(BackupWriter.BLOCK_USER, reader.nextBlock());
+        assertEquals(0, reader.getBlockIndex());
+    }
+
+    @Test
+    public void smallValuesTakeFewBytes() throws IOException {
+        ByteChannel channel = new ByteChannel(Integer.MAX_VALUE);
+        BackupWriter writer = new BackupWriter(channel);
+        writer.beginBlock(BackupWriter.BLOCK_TRANSACTIONS);
+        writer.putVarint(127);
+        writer.putSignedVarint(-64);
+        writer.putVarint(128);
+        writer.endBlock();
+
+        // magic + version, then kind, count, length, 1 + 1 + 2 payload bytes, crc
+        assertEquals(5 + 1 + 1 + 1 + 4 + 4, channel.toByteArray().length);
+    }
+
+    @Test
+    public void damagedPayloadNamesItsBlock() throws IOException {
+        byte[] file = sampleBackup();
+        // a byte inside the payload of the transactions block
+        file[file.length - 1000] ^= 0x01;
+
+        BackupReader reader = new BackupReader(ByteBuffer.wrap(file));
+        assertEquals(BackupWriter.BLOCK_USER, reader.nextBlock());
+        try {
+            reader.nextBlock();
+            fail("damaged block accepted");
+        } catch (CorruptBackupException e) {
+            assertEquals(1, e.getBlockIndex());
+            assertTrue(e.getMessage(), e.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void truncatedFileIsCorrupt() throws IOException {
+        byte[] file = sampleBackup();
+
+        for (int cut : new int[]{file.length - 1, file.length - 5, file.length / 2}) {
+            BackupReader reader = new BackupReader(ByteBuffer.wrap(Arrays.copyOf(file, cut)));
+            try {
+                while (reader.nextBlock() != BackupWriter.BLOCK_END) {
+                    // checked only
+                }
+                fail("truncated file accepted at " + cut);
+            } catch (CorruptBackupException e) {
+                assertEquals(reader.getBlockIndex(), e.getBlockIndex());
+            }
+        }
+    }
+
+    @Test
+    public void lostBlockIsCaughtByTheEndBlock() throws IOException {
+        ByteChannel channel = new ByteChannel(Integer.MAX_VALUE);
+        BackupWriter writer = new BackupWriter(channel);
+        writer.beginBlock(BackupWriter.BLOCK_USER);
+        writer.putVarint(1);
+        writer.endRecord();
+        writer.endBlock();
+        int userBlockEnd = channel.toByteArray().length;
+        writer.beginBlock(BackupWriter.BLOCK_CATEGORIES);
+        writer.putString("Food");
+        writer.endRecord();
+        writer.finish();
+
+        // the categories block cut out whole: every block left is valid on its own
+        byte[] full = channel.toByteArray();
+        ByteBuffer lost = ByteBuffer.allocate(userBlockEnd + END_BLOCK_BYTES);
+        lost.put(full, 0, userBlockEnd);
+        lost.put(full, full.length - END_BLOCK_BYTES, END_BLOCK_BYTES);
+        lost.flip();
+
+        BackupReader reader = new BackupReader(lost);
+        assertEquals(BackupWriter.BLOCK_USER, reader.nextBlock());
+        try {
+            reader.nextBlock();
+            fail("end block count not checked");
+        } catch (CorruptBackupException e) {
+            assertEquals(1, e.getBlockIndex());
+            assertTrue(e.getMessage(), e.getMessage().contains("block count"));
+        }
+    }
+
+    @Test
+    public void readPastTheBlockIsCorrupt() throws IOException {
+        ByteChannel channel = new ByteChannel(Integer.MAX_VALUE);
+        BackupWriter writer = new BackupWriter(channel);
+        writer.beginBlock(BackupWriter.BLOCK_USER);
+        writer.putVarint(300);
+        writer.endRecord();
+        writer.finish();
+
+        BackupReader reader = new BackupReader(ByteBuffer.wrap(channel.toByteArray()));
+        reader.nextBlock();
+        try {
+            reader.endBlock();
+            fail("unread bytes accepted");
+        } catch (CorruptBackupException e) {
+            assertEquals(0, e.getBlockIndex());
+        }
+        assertEquals(300, reader.readVarint());
+        try {
+            reader.readString();
+            fail("read past the end of the block");
+        } catch (CorruptBackupException e) {
+            assertEquals(0, e.getBlockIndex());
+        }
+    }
+
+    @Test
+    public void otherFilesAreRejected() {
+        for (byte[] file : new byte[][]{{}, {'B', 'M'}, {'P', 'K', 3, 4, 1}, {'B', 'M', 'B', 'K', 2}}) {
+            try {
+                new BackupReader(ByteBuffer.wrap(file));
+                fail("accepted " + Arrays.toString(file));
+            } catch (CorruptBackupException e) {
+                assertEquals(-1, e.getBlockIndex());
+            } catch (IOException e) {
+                fail(e.toString());
+            }
+        }
+    }
+
+    // a user block with every kind of field, a transactions block of several payload buffers
+    private static byte[] sampleBackup() throws IOException {
+        // few bytes per write: the writer has to finish its gathering writes
+        ByteChannel channel = new ByteChannel(7);
+        BackupWriter writer = new BackupWriter(channel);
+
+        writer.beginBlock(BackupWriter.BLOCK_USER);
+        for (long value : UNSIGNED) {
+            writer.putVarint(value);
+        }
+        for (long value : SIGNED) {
+            writer.putSignedVarint(value);
+        }
+        writer.putString(null);
+        writer.putString("");
+        writer.putString("Café مرحبا 世界");
+        writer.putByte(0xAB);
+        writer.endRecord();
+
+        writer.beginBlock(BackupWriter.BLOCK_TRANSACTIONS);
+        for (int i = 0; i < 20_000; i++) {
+            writer.putVarint(i);
+            writer.putString("note " + i);
+            writer.endRecord();
+        }
+        writer.finish();
+        return channel.toByteArray();
+    }
+
+    // in-memory channel, at most maxWrite bytes per write call (a short write, like a pipe)
+    private static final class ByteChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int maxWrite;
+
+        ByteChannel(int maxWrite) {
+            this.maxWrite = maxWrite;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int count) {
+            long written = 0;
+            for (int i = offset; i < offset + count && written < maxWrite; i++) {
+                while (sources[i].hasRemaining() && written < maxWrite) {
+                    out.write(sources[i].get());
+                    written++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources) {
+            return write(sources, 0, sources.length);
+        }
+
+        @Override
+        public int write(ByteBuffer source) {
+            return (int) write(new ByteBuffer[]{source});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.budgetmanager.importexport;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * CsvReader: RFC 4180 quoting, line endings, and the byte offsets used to resume an import
+ */
+public class CsvReaderTest {
+
+    @Test
+    public void quotedFieldsKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        List<List<String>> records = readAll("date,note\n" +
+                "2024-03-05,\"Lunch, with \"\"Bob\"\"\"\n" +
+                "2024-03-06,\"two\nlines\"\n");
+
+        assertEquals(Arrays.asList(
+                Arrays.asList("date", "note"),
+                Arrays.asList("2024-03-05", "Lunch, with \"Bob\""),
+                Arrays.asList("2024-03-06", "two\nlines")), records);
+    }
+
+    @Test
+    public void crlfLfAndLoneCrEndARecord() throws IOException {
+        List<List<String>> records = readAll("a,b\r\nc,d\ne,f\rg,\"h\r\ni\"\r\n");
+
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b"),
+                Arrays.asList("c", "d"),
+                Arrays.asList("e", "f"),
+                Arrays.asList("g", "h\r\ni")), records);
+    }
+
+    @Test
+    public void lastRecordWithoutLineBreakAndEmptyFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "", ""), Arrays.asList("", "b")), readAll("a,,\n,b"));
+    }
+
+    @Test
+    public void blankLinesAndByteOrderMarkAreSkipped() throws IOException {
+        byte[] text = "\n\r\ndate,amount\n\n2024-01-01,5\n\r\n".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[text.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, withBom, 3, text.length);
+
+        assertEquals(Arrays.asList(Arrays.asList("date", "amount"), Arrays.asList("2024-01-01", "5")),
+                readAll(new ByteArrayInputStream(withBom)));
+    }
+
+    @Test
+    public void multiByteCharactersAreDecodedWhole() throws IOException {
+        // one byte per read: every character is split between two fills
+        List<List<String>> records = readAll(new OneByteInputStream(
+                "café,\"مرحبا, 世界\"\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Arrays.asList(Arrays.asList("café", "مرحبا, 世界")), records);
+    }
+
+    @Test
+    public void recordsAcrossTheBufferBoundary() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i).append(",\"note ").append(i).append("\"\r\n");
+        }
+        List<List<String>> records = readAll(csv.toString());
+
+        assertEquals(20_000, records.size());
+        assertEquals(Arrays.asList("12345", "note 12345"), records.get(12345));
+        assertEquals(Arrays.asList("19999", "note 19999"), records.get(19999));
+    }
+
+    @Test
+    public void offsetResumesAfterTheLastRecord() throws IOException {
+        StringBuilder csv = new StringBuilder("date,amount\r\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append("2024-01-01,").append(i).append("\r\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        // first run stops after record 7000
+        long checkpoint;
+        try (CsvReader reader = new CsvReader(new ByteArrayInputStream(bytes), ',')) {
+            reader.readRecord();
+            for (int i = 0; i < 7000; i++) {
+                reader.readRecord();
+            }
+            checkpoint = reader.getOffset();
+        }
+
+        // second run: header, then straight to the checkpoint
+        try (CsvReader reader = new CsvReader(new OneByteSkipInputStream(bytes), ',')) {
+            assertEquals(Arrays.asList("date", "amount"), reader.readRecord());
+            reader.skipTo(checkpoint);
+            assertEquals(checkpoint, reader.getOffset());
+            assertEquals(Arrays.asList("2024-01-01", "7000"), reader.readRecord());
+
+            int rest = 1;
+            while (reader.readRecord() != null) {
+                rest++;
+            }
+            assertEquals(3000, rest);
+            assertEquals(bytes.length, reader.getOffset());
+        }
+    }
+
+    @Test
+    public void otherSeparator() throws IOException {
+        try (CsvReader reader = new CsvReader(stream("a;\"b;c\",d\n"), ';')) {
+            assertEquals(Arrays.asList("a", "b;c,d"), reader.readRecord());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void unterminatedQuoteFails() throws IOException {
+        readAll("a,\"never closed\n");
+    }
+
+    @Test(expected = IOException.class)
+    public void fieldLimitStopsABrokenFile() throws IOException {
+        char[] huge = new char[65 * 1024];
+        Arrays.fill(huge, 'x');
+        readAll("a," + new String(huge) + "\n");
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        return readAll(stream(csv));
+    }
+
+    private static List<List<String>> readAll(InputStream in) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(in, ',')) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                // the reader reuses its list
+                records.add(new ArrayList<>(record));
+            }
+        }
+        return records;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // gives one byte per read() call
+    private static class OneByteInputStream extends FilterInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    // and skips nothing, like some content providers: skipTo() must read its way forward
+    private static final class OneByteSkipInputStream extends OneByteInputStream {
+        OneByteSkipInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public long skip(long n) {
+            return 0;
+        }
+    }
+}
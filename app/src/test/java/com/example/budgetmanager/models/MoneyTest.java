@@ -0,0 +1,67 @@
+package com.example.budgetmanager.models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Money: exact cents arithmetic and the parsing of user input
+ */
+public class MoneyTest {
+
+    @Test
+    public void parseRoundsToTheCentHalfUp() {
+        assertEquals(1200, Money.parse("12").getCents());
+        assertEquals(1250, Money.parse("12.5").getCents());
+        assertEquals(1250, Money.parse(" 12.50 ").getCents());
+        assertEquals(1235, Money.parse("12.345").getCents());
+        assertEquals(1234, Money.parse("12.344").getCents());
+        assertEquals(-1235, Money.parse("-12.345").getCents());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseRejectsText() {
+        Money.parse("12,50");
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void parseRejectsAmountsPastLong() {
+        Money.parse("100000000000000000000");
+    }
+
+    @Test
+    public void sumsStayExact() {
+        // 0.1 + 0.2 != 0.3 in double
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10_000; i++) {
+            total = total.plus(Money.parse("0.10"));
+        }
+        assertEquals(Money.ofCents(100_000), total);
+        assertEquals(Money.parse("0.3"), Money.parse("0.1").plus(Money.parse("0.2")));
+        assertEquals(Money.ofCents(-50), Money.parse("1").minus(Money.parse("1.50")));
+    }
+
+    @Test
+    public void comparisons() {
+        assertTrue(Money.ofCents(101).isGreaterThan(Money.ofCents(100)));
+        assertFalse(Money.ofCents(100).isGreaterThan(Money.ofCents(100)));
+        assertTrue(Money.ofCents(-1).isNegative());
+        assertFalse(Money.ZERO.isNegative());
+        assertTrue(Money.ofCents(5).compareTo(Money.ofCents(7)) < 0);
+        assertEquals(Money.ofCents(7).hashCode(), Money.parse("0.07").hashCode());
+    }
+
+    @Test
+    public void zeroIsShared() {
+        assertSame(Money.ZERO, Money.ofCents(0));
+        assertSame(Money.ZERO, Money.parse("0.001"));
+    }
+
+    @Test
+    public void plainStringKeepsTwoDecimals() {
+        assertEquals("12.50", Money.ofCents(1250).toPlainString());
+        assertEquals("0.05", Money.ofCents(5).toPlainString());
+        assertEquals("-3.00", Money.ofCents(-300).toString());
+        assertEquals(12.5, Money.ofCents(1250).toDouble(), 0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.budgetmanager.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+/**
+ * EpochDays against java.time (available on the host JVM, not on API 24 devices)
+ */
+public class EpochDaysTest {
+
+    @Test
+    public void matchesJavaTimeAcrossFourCenturies() {
+        LocalDate date = LocalDate.of(1900, 1, 1);
+        LocalDate end = LocalDate.of(2300, 1, 1);
+        for (; date.isBefore(end); date = date.plusDays(1)) {
+            long epochDay = date.toEpochDay();
+            assertEquals(date.toString(), epochDay,
+                    EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertArrayEquals(date.toString(),
+                    new int[]{date.getYear(), date.getMonthValue(), date.getDayOfMonth()}, EpochDays.toDate(epochDay));
+            assertEquals(date.toString(), EpochDays.format(epochDay));
+        }
+    }
+
+    @Test
+    public void parseBothFormats() {
+        assertEquals(0, EpochDays.parse("1970-01-01"));
+        assertEquals(19787, EpochDays.parse("2024-03-05"));
+        assertEquals(19787, EpochDays.parse("05-03-2024"));
+        assertEquals(EpochDays.of(2024, 2, 29), EpochDays.parse("2024-02-29"));
+    }
+
+    @Test
+    public void parseRejectsInvalidDates() {
+        String[] invalid = {null, "", "2024-3-5", "2024/03/05", "2023-02-29", "2024-13-01",
+                "2024-00-10", "2024-04-31", "2024-01-00", "20a4-01-01", "2024-01-01 "};
+        for (String date : invalid) {
+            try {
+                EpochDays.parse(date);
+                fail("parsed " + date);
+            } catch (IllegalArgumentException expected) {
+                // invalid
+            }
+        }
+    }
+
+    @Test
+    public void rangesAreHalfOpen() {
+        long march5 = EpochDays.parse("2024-03-05");
+        assertEquals(EpochDays.parse("2024-03-01"), EpochDays.startOfMonth(march5));
+        assertEquals(EpochDays.parse("2024-04-01"), EpochDays.startOfNextMonth(march5));
+        assertEquals(EpochDays.parse("2025-01-01"), EpochDays.startOfNextMonth(EpochDays.parse("2024-12-31")));
+        // 2024-03-05 was a tuesday
+        assertEquals(EpochDays.parse("2024-03-04"), EpochDays.startOfWeek(march5));
+        assertEquals(EpochDays.parse("2024-03-04"), EpochDays.startOfWeek(EpochDays.parse("2024-03-04")));
+        assertEquals(EpochDays.parse("2024-03-04"), EpochDays.startOfWeek(EpochDays.parse("2024-03-10")));
+        // before 1970
+        assertEquals(EpochDays.parse("1969-12-29"), EpochDays.startOfWeek(EpochDays.parse("1969-12-31")));
+        assertEquals(202403, EpochDays.yearMonth(march5));
+    }
+
+    @Test
+    public void lengthOfMonthHandlesLeapYears() {
+        assertEquals(29, EpochDays.lengthOfMonth(2024, 2));
+        assertEquals(28, EpochDays.lengthOfMonth(1900, 2));
+        assertEquals(29, EpochDays.lengthOfMonth(2000, 2));
+        assertEquals(30, EpochDays.lengthOfMonth(2024, 11));
+        assertEquals(31, EpochDays.lengthOfMonth(2024, 12));
+    }
+}